@@ -80,6 +80,11 @@ public abstract class AbstractTableCell implements WritableTableCell {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void setDateValue(final long epochMillis) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void setFloatValue(final float value) {
         throw new UnsupportedOperationException();
@@ -0,0 +1,145 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cooperative cancellation token for an export, with an optional deadline. The token is
+ * checked at the row block boundaries (when the rows are flushed), by the writers before each
+ * flush and by the data wrappers. A cancelled export fails with an InterruptedIOException, the
+ * queued flushers are discarded and the file is deleted.
+ *
+ * @author Julien Férard
+ */
+public class CancellationToken {
+    /**
+     * @return a token without deadline
+     */
+    public static CancellationToken create() {
+        return new CancellationToken(false, 0);
+    }
+
+    /**
+     * @param timeout the max duration of the export
+     * @param unit    the unit of the timeout
+     * @return a token with a deadline
+     */
+    public static CancellationToken withTimeout(final long timeout, final TimeUnit unit) {
+        return new CancellationToken(true, System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    private final boolean hasDeadline;
+    private final long deadline;
+    private final List<Runnable> cancelListeners;
+    private volatile boolean cancelled;
+
+    /**
+     * @param hasDeadline true if the deadline is set
+     * @param deadline    the deadline, in System.nanoTime() units
+     */
+    CancellationToken(final boolean hasDeadline, final long deadline) {
+        this.hasDeadline = hasDeadline;
+        this.deadline = deadline;
+        this.cancelListeners = new ArrayList<Runnable>();
+        this.cancelled = false;
+    }
+
+    /**
+     * Cancel the export. The waiting writers are woken up.
+     */
+    public void cancel() {
+        final List<Runnable> listeners;
+        synchronized (this.cancelListeners) {
+            if (this.cancelled) {
+                return;
+            }
+            this.cancelled = true;
+            listeners = new ArrayList<Runnable>(this.cancelListeners);
+            this.cancelListeners.clear();
+        }
+        for (final Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * @return true if the export was cancelled or if the deadline is passed
+     */
+    public boolean isCancelled() {
+        return this.cancelled || this.hasDeadline && System.nanoTime() - this.deadline >= 0;
+    }
+
+    /**
+     * @return the time before the deadline in nanoseconds, 0 if the export is cancelled,
+     * Long.MAX_VALUE if there is no deadline
+     */
+    public long remainingNanos() {
+        if (this.cancelled) {
+            return 0;
+        } else if (this.hasDeadline) {
+            return Math.max(0, this.deadline - System.nanoTime());
+        } else {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * @throws InterruptedIOException if the export was cancelled or if the deadline is passed
+     */
+    public void check() throws InterruptedIOException {
+        if (this.cancelled) {
+            throw new InterruptedIOException("Export cancelled");
+        } else if (this.hasDeadline && System.nanoTime() - this.deadline >= 0) {
+            throw new InterruptedIOException("Export deadline exceeded");
+        }
+    }
+
+    /**
+     * @param listener a listener to run on cancel, or immediately if the export is already
+     *                 cancelled. Not called when the deadline is passed.
+     */
+    void addCancelListener(final Runnable listener) {
+        synchronized (this.cancelListeners) {
+            if (!this.cancelled) {
+                this.cancelListeners.add(listener);
+                return;
+            }
+        }
+        listener.run();
+    }
+
+    /**
+     * @param listener a listener that is not needed anymore
+     */
+    void removeCancelListener(final Runnable listener) {
+        synchronized (this.cancelListeners) {
+            this.cancelListeners.remove(listener);
+        }
+    }
+}
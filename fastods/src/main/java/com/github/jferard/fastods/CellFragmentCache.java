@@ -0,0 +1,223 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.style.TableCellStyle;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A per table LRU cache: (type, style, value) -&gt; complete XML fragment of a cell. Only the
+ * hot combinations are cached: the cells without cold cell that hold a boolean, a small integer
+ * or a short string (enum-like), and that were seen before. A combination is admitted on its
+ * second occurrence, hence a column of unique values does not churn the cache and the miss path
+ * does not allocate.
+ * <p>
+ * The style is compared by identity. The lookup uses a reusable probe key: the cache is not
+ * thread safe. If the rows of a table are serialized by an executor, each task has its own
+ * cache.
+ *
+ * @author Julien Férard
+ */
+class CellFragmentCache {
+    /**
+     * The default max number of fragments
+     */
+    static final int DEFAULT_CAPACITY = 512;
+
+    /**
+     * The max length of a string value to be cached
+     */
+    static final int MAX_STRING_LENGTH = 24;
+
+    /**
+     * The max length of an integer value to be cached
+     */
+    static final int MAX_INTEGER_LENGTH = 4;
+
+    /**
+     * The doorkeeper has DOORKEEPER_FACTOR slots per fragment
+     */
+    private static final int DOORKEEPER_FACTOR = 4;
+
+    private static int hash(final CellType type, final TableCellStyle style, final String value) {
+        return (type.hashCode() * 31 + System.identityHashCode(style)) * 31 + value.hashCode();
+    }
+
+    /**
+     * @param value the value
+     * @return true if the value is a small integer
+     */
+    private static boolean isSmallInteger(final String value) {
+        final int length = value.length();
+        if (length == 0 || length > MAX_INTEGER_LENGTH) {
+            return false;
+        }
+        for (int i = value.charAt(0) == '-' && length > 1 ? 1 : 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The key of a fragment
+     */
+    private static final class Key {
+        private CellType type;
+        private TableCellStyle style;
+        private String value;
+        private int hash;
+
+        private Key set(final CellType type, final TableCellStyle style, final String value) {
+            this.type = type;
+            this.style = style;
+            this.value = value;
+            this.hash = CellFragmentCache.hash(type, style, value);
+            return this;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return this.type == other.type && this.style == other.style &&
+                    this.value.equals(other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    private final Map<Key, String> fragmentByKey;
+    private final Key probe;
+    /**
+     * The hashes of the combinations seen once, direct mapped
+     */
+    private final int[] doorkeeper;
+    private final int doorkeeperMask;
+
+    /**
+     * @param capacity the max number of fragments
+     */
+    CellFragmentCache(final int capacity) {
+        this.fragmentByKey = new LinkedHashMap<Key, String>(2 * capacity, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, String> eldest) {
+                return this.size() > capacity;
+            }
+        };
+        this.probe = new Key();
+        int slotCount = 1;
+        while (slotCount < DOORKEEPER_FACTOR * capacity) {
+            slotCount <<= 1;
+        }
+        this.doorkeeper = new int[slotCount];
+        this.doorkeeperMask = slotCount - 1;
+    }
+
+    /**
+     * @param type  the type of the cell
+     * @param value the value of the cell
+     * @return true if a cell with this type and value may be cached: a boolean, a small integer
+     * or a short string
+     */
+    boolean accepts(final CellType type, final String value) {
+        if (type == null) {
+            return false;
+        }
+        switch (type) {
+            case BOOLEAN:
+                return true;
+            case FLOAT:
+            case PERCENTAGE:
+                return CellFragmentCache.isSmallInteger(value);
+            case STRING:
+                return value.length() <= MAX_STRING_LENGTH;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Call this method after a miss.
+     *
+     * @param type  the type of the cell
+     * @param style the written style of the cell, or null
+     * @param value the value
+     * @return true if the combination was seen before and should be put in the cache. If false,
+     * the combination is remembered.
+     */
+    boolean admits(final CellType type, final TableCellStyle style, final String value) {
+        final int hash = CellFragmentCache.hash(type, style, value);
+        final int slot = (hash ^ (hash >>> 16)) & this.doorkeeperMask;
+        if (this.doorkeeper[slot] == hash) {
+            return true;
+        }
+        this.doorkeeper[slot] = hash;
+        return false;
+    }
+
+    /**
+     * @param type  the type of the cell
+     * @param style the written style of the cell, or null
+     * @param value the value
+     * @return the fragment, or null
+     */
+    String get(final CellType type, final TableCellStyle style, final String value) {
+        return this.fragmentByKey.get(this.probe.set(type, style, value));
+    }
+
+    /**
+     * @param type     the type of the cell
+     * @param style    the written style of the cell, or null
+     * @param value    the value
+     * @param fragment the complete XML of the cell
+     */
+    void put(final CellType type, final TableCellStyle style, final String value,
+             final String fragment) {
+        this.fragmentByKey.put(new Key().set(type, style, value), fragment);
+    }
+
+    /**
+     * @return the number of cached fragments
+     */
+    int size() {
+        return this.fragmentByKey.size();
+    }
+}
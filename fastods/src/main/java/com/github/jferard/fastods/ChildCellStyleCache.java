@@ -0,0 +1,82 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.datastyle.DataStyle;
+import com.github.jferard.fastods.odselement.StylesContainer;
+import com.github.jferard.fastods.style.TableCellStyle;
+
+/**
+ * A small per table cache: (cell style, data style) -&gt; child cell style.
+ * <p>
+ * The cache is direct mapped: the slot is given by the identity hash codes of the styles, and
+ * the styles are compared by identity. On a hit, there is no key allocation and no string
+ * hash. On a miss, the data style and the child style are registered in the styles container,
+ * that remains the reference.
+ *
+ * @author Julien Férard
+ */
+class ChildCellStyleCache {
+    private static final int SLOT_COUNT = 64;
+    private static final int SLOT_MASK = SLOT_COUNT - 1;
+
+    private final StylesContainer stylesContainer;
+    /**
+     * style0, dataStyle0, childStyle0, style1, ...
+     */
+    private Object[] entries;
+
+    /**
+     * @param stylesContainer the container
+     */
+    ChildCellStyleCache(final StylesContainer stylesContainer) {
+        this.stylesContainer = stylesContainer;
+    }
+
+    /**
+     * Register the data style and return the child cell style.
+     *
+     * @param style     the parent style
+     * @param dataStyle the data style
+     * @return the child style
+     */
+    public TableCellStyle getChildCellStyle(final TableCellStyle style,
+                                            final DataStyle dataStyle) {
+        final int slot = 3 * ((31 * System.identityHashCode(style) +
+                System.identityHashCode(dataStyle)) & SLOT_MASK);
+        if (this.entries == null) {
+            this.entries = new Object[3 * SLOT_COUNT];
+        } else if (this.entries[slot] == style && this.entries[slot + 1] == dataStyle) {
+            return (TableCellStyle) this.entries[slot + 2];
+        }
+
+        this.stylesContainer.addDataStyle(dataStyle);
+        final TableCellStyle childStyle = this.stylesContainer.addChildCellStyle(style, dataStyle);
+        this.entries[slot] = style;
+        this.entries[slot + 1] = dataStyle;
+        this.entries[slot + 2] = childStyle;
+        return childStyle;
+    }
+}
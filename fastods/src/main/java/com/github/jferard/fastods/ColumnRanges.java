@@ -0,0 +1,152 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+/**
+ * A sorted list of disjoint ranges of column indices, e.g. the covered cells of a row. Adjacent
+ * or overlapping ranges are merged.
+ *
+ * @author Julien Férard
+ */
+class ColumnRanges {
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * start0, end0, start1, end1, ... The ends are exclusive.
+     */
+    private int[] bounds;
+    private int count;
+
+    /**
+     * Create an empty list of ranges
+     */
+    ColumnRanges() {
+        this.bounds = new int[2 * INITIAL_CAPACITY];
+        this.count = 0;
+    }
+
+    /**
+     * Add a range
+     *
+     * @param start the first index
+     * @param end   the last index + 1
+     */
+    public void add(final int start, final int end) {
+        if (end <= start) {
+            return;
+        }
+        int i = 0;
+        while (i < this.count && this.bounds[2 * i + 1] < start) {
+            i++;
+        }
+        int newStart = start;
+        int newEnd = end;
+        int j = i;
+        while (j < this.count && this.bounds[2 * j] <= end) {
+            newStart = Math.min(newStart, this.bounds[2 * j]);
+            newEnd = Math.max(newEnd, this.bounds[2 * j + 1]);
+            j++;
+        }
+        final int removed = j - i;
+        if (removed == 0) {
+            this.ensureCapacity(this.count + 1);
+            System.arraycopy(this.bounds, 2 * i, this.bounds, 2 * i + 2, 2 * (this.count - i));
+            this.count++;
+        } else if (removed > 1) {
+            System.arraycopy(this.bounds, 2 * j, this.bounds, 2 * i + 2, 2 * (this.count - j));
+            this.count -= removed - 1;
+        }
+        this.bounds[2 * i] = newStart;
+        this.bounds[2 * i + 1] = newEnd;
+    }
+
+    private void ensureCapacity(final int minCount) {
+        if (2 * minCount > this.bounds.length) {
+            final int[] newBounds = new int[Math.max(2 * minCount, 2 * this.bounds.length)];
+            System.arraycopy(this.bounds, 0, newBounds, 0, 2 * this.count);
+            this.bounds = newBounds;
+        }
+    }
+
+    /**
+     * @param index the index
+     * @return the end of the range that contains the index, or -1
+     */
+    public int getEnd(final int index) {
+        final int i = this.find(index);
+        if (i >= 0 && index < this.bounds[2 * i + 1]) {
+            return this.bounds[2 * i + 1];
+        }
+        return -1;
+    }
+
+    /**
+     * @param index the index
+     * @return true if a range contains the index
+     */
+    public boolean contains(final int index) {
+        return this.getEnd(index) != -1;
+    }
+
+    /**
+     * @param index the index
+     * @return the start of the first range after the index, or Integer.MAX_VALUE
+     */
+    public int getNextStart(final int index) {
+        final int i = this.find(index) + 1;
+        if (i < this.count) {
+            return this.bounds[2 * i];
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return the end of the last range, or 0
+     */
+    public int getLastEnd() {
+        if (this.count == 0) {
+            return 0;
+        }
+        return this.bounds[2 * this.count - 1];
+    }
+
+    /**
+     * @param index the index
+     * @return the index of the last range that starts at or before the index, or -1
+     */
+    private int find(final int index) {
+        int low = 0;
+        int high = this.count - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (this.bounds[2 * mid] <= index) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.style.TableCellStyle;
+import com.github.jferard.fastods.util.StringPool;
+import com.github.jferard.fastods.util.XMLUtil;
+
+import java.io.IOException;
+
+/**
+ * The precomputed column schema of a table: for each typed column, the type, the effective
+ * cell style (already registered) and the beginning of the XML of a cell, up to the value.
+ * <p>
+ * A cell without explicit style that receives a value of the column type takes the column
+ * style without any lookup, and is written with the prefix.
+ * <p>
+ * The schema also holds the string pools of the columns, and the default string pool of the
+ * table.
+ *
+ * @author Julien Férard
+ */
+class ColumnSchema {
+    private CellType[] types;
+    private TableCellStyle[] styles;
+    private String[] prefixes;
+    private StringPool[] stringPools;
+    private StringPool defaultStringPool;
+
+    /**
+     * Create an empty schema
+     */
+    ColumnSchema() {
+        this.types = new CellType[0];
+        this.styles = new TableCellStyle[0];
+        this.prefixes = new String[0];
+        this.stringPools = new StringPool[0];
+    }
+
+    /**
+     * Set the schema.
+     *
+     * @param util   an util
+     * @param specs  the specs, a null spec means an untyped column
+     * @param styles the effective and registered cell styles, a null style means an untyped
+     *               column
+     * @throws IOException declared by the XML util. The prefixes are built in a StringBuilder:
+     *                     not thrown in practice.
+     */
+    void set(final XMLUtil util, final ColumnSpec[] specs, final TableCellStyle[] styles)
+            throws IOException {
+        final int count = specs.length;
+        final CellType[] newTypes = new CellType[count];
+        final String[] newPrefixes = new String[count];
+        final StringPool[] newStringPools = new StringPool[count];
+        for (int c = 0; c < count; c++) {
+            if (specs[c] != null) {
+                newStringPools[c] = specs[c].getStringPool();
+            }
+            final TableCellStyle style = styles[c];
+            if (specs[c] == null || style == null) {
+                continue;
+            }
+            final CellType type = specs[c].getType();
+            newTypes[c] = type;
+            if (type != CellType.CURRENCY) { // the currency attribute depends on the cell
+                newPrefixes[c] = ColumnSchema.createPrefix(util, type, style);
+            }
+        }
+        this.types = newTypes;
+        this.styles = styles.clone();
+        this.prefixes = newPrefixes;
+        this.stringPools = newStringPools;
+    }
+
+    /**
+     * @param stringPool the pool for the columns that don't have their own pool, or null
+     */
+    void setDefaultStringPool(final StringPool stringPool) {
+        this.defaultStringPool = stringPool;
+    }
+
+    /**
+     * @param colIndex the column index
+     * @return the string pool of the column, or the default string pool (may be null)
+     */
+    StringPool getStringPool(final int colIndex) {
+        if (colIndex < this.stringPools.length) {
+            final StringPool stringPool = this.stringPools[colIndex];
+            if (stringPool != null) {
+                return stringPool;
+            }
+        }
+        return this.defaultStringPool;
+    }
+
+    private static String createPrefix(final XMLUtil util, final CellType type,
+                                       final TableCellStyle style) throws IOException {
+        final StringBuilder sb = new StringBuilder("<table:table-cell");
+        util.appendEAttribute(sb, "table:style-name", style.getName());
+        util.appendAttribute(sb, "office:value-type", type);
+        sb.append(' ').append(type.getValueAttribute()).append("=\"");
+        return sb.toString();
+    }
+
+    /**
+     * @param colIndex the column index
+     * @param type     the type of the value
+     * @return the effective cell style if the column is typed with this type, null otherwise
+     */
+    TableCellStyle getStyle(final int colIndex, final CellType type) {
+        if (colIndex >= this.types.length || type == null || this.types[colIndex] != type) {
+            return null;
+        }
+        return this.styles[colIndex];
+    }
+
+    /**
+     * @param colIndex the column index
+     * @param type     the type of the value
+     * @param style    the style of the cell
+     * @return the prefix of the XML cell if the cell matches the column schema, null otherwise
+     */
+    String getPrefix(final int colIndex, final CellType type, final TableCellStyle style) {
+        if (colIndex >= this.types.length || type == null || this.types[colIndex] != type ||
+                this.styles[colIndex] != style) {
+            return null;
+        }
+        return this.prefixes[colIndex];
+    }
+}
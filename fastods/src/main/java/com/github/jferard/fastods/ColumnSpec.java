@@ -0,0 +1,116 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.datastyle.DataStyle;
+import com.github.jferard.fastods.style.TableCellStyle;
+import com.github.jferard.fastods.util.StringPool;
+
+/**
+ * The specification of a typed column: the type of the values, the data style and the cell
+ * style. See `Table.setColumnSchema`.
+ *
+ * @author Julien Férard
+ */
+public class ColumnSpec {
+    /**
+     * @param type the type of the values
+     * @return a spec with the default data style for this type and the default cell style of
+     * the column
+     */
+    public static ColumnSpec of(final CellType type) {
+        return new ColumnSpec(type, null, null);
+    }
+
+    private final CellType type;
+    private final DataStyle dataStyle;
+    private final TableCellStyle cellStyle;
+    private final StringPool stringPool;
+
+    /**
+     * @param type      the type of the values
+     * @param dataStyle the data style, or null for the default data style of this type
+     * @param cellStyle the cell style, or null for the default cell style of the column
+     */
+    public ColumnSpec(final CellType type, final DataStyle dataStyle,
+                      final TableCellStyle cellStyle) {
+        this(type, dataStyle, cellStyle, null);
+    }
+
+    private ColumnSpec(final CellType type, final DataStyle dataStyle,
+                       final TableCellStyle cellStyle, final StringPool stringPool) {
+        if (type == null) {
+            throw new IllegalArgumentException("The type of a column spec can't be null");
+        }
+        this.type = type;
+        this.dataStyle = dataStyle;
+        this.cellStyle = cellStyle;
+        this.stringPool = stringPool;
+    }
+
+    /**
+     * @param stringPool the pool for the string values of the column. The pool may be shared by
+     *                   several columns or tables.
+     * @return a new spec, with the same type and styles
+     */
+    public ColumnSpec withStringPool(final StringPool stringPool) {
+        return new ColumnSpec(this.type, this.dataStyle, this.cellStyle, stringPool);
+    }
+
+    /**
+     * @return the type of the values
+     */
+    public CellType getType() {
+        return this.type;
+    }
+
+    /**
+     * @return the data style, or null
+     */
+    public DataStyle getDataStyle() {
+        return this.dataStyle;
+    }
+
+    /**
+     * @return the cell style, or null
+     */
+    public TableCellStyle getCellStyle() {
+        return this.cellStyle;
+    }
+
+    /**
+     * @return the string pool, or null
+     */
+    public StringPool getStringPool() {
+        return this.stringPool;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnSpec[type=" + this.type + ", dataStyle=" + this.dataStyle +
+                ", cellStyle=" + this.cellStyle + "]";
+    }
+}
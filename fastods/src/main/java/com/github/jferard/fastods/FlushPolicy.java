@@ -0,0 +1,125 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+/**
+ * A policy to decide when the rows of a table are flushed (streaming only). The rows are
+ * flushed by blocks: a block ends when it contains the max row count, or as soon as the
+ * estimated size of the serialized rows of the block exceeds the byte budget. The rows are
+ * counted from the last flush.
+ * <p>
+ * The size of a row is a cheap estimation, maintained when the values of the cells are set.
+ * The estimated size of a row is added to the size of the block once, when the next row is
+ * created: the byte budget is accurate for forward-only writes (fill a row, then go to the next
+ * one). The later edits of a row that was already accounted are not counted, hence a block of
+ * rows that are filled out of order may exceed the budget until the next flush.
+ *
+ * @author Julien Férard
+ */
+public class FlushPolicy {
+    /**
+     * The default number of rows in a block
+     */
+    public static final int DEFAULT_MAX_ROW_COUNT = 8 * 1024;
+
+    /**
+     * The default policy: flush every 8192 rows
+     */
+    public static final FlushPolicy DEFAULT = FlushPolicy.rowCount(DEFAULT_MAX_ROW_COUNT);
+
+    /**
+     * @param maxRowCount the number of rows in a block
+     * @return a policy that flushes every maxRowCount rows
+     */
+    public static FlushPolicy rowCount(final int maxRowCount) {
+        return new FlushPolicy(maxRowCount, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param maxByteCount the max estimated size of a block
+     * @return a policy that flushes the rows once their estimated size exceeds maxByteCount
+     */
+    public static FlushPolicy byteBudget(final long maxByteCount) {
+        return new FlushPolicy(Integer.MAX_VALUE, maxByteCount);
+    }
+
+    /**
+     * @param fraction the fraction of the max heap size, e.g. 0.05
+     * @return a policy that flushes the rows once their estimated size exceeds the given fraction
+     * of the max heap size.
+     */
+    public static FlushPolicy heapFraction(final double fraction) {
+        if (fraction <= 0 || fraction > 1) {
+            throw new IllegalArgumentException("Fraction should be in ]0, 1]: " + fraction);
+        }
+        return FlushPolicy.byteBudget((long) (Runtime.getRuntime().maxMemory() * fraction));
+    }
+
+    private final int maxRowCount;
+    private final long maxByteCount;
+
+    /**
+     * @param maxRowCount  the number of rows in a block
+     * @param maxByteCount the max estimated size of a block
+     */
+    public FlushPolicy(final int maxRowCount, final long maxByteCount) {
+        if (maxRowCount <= 0 || maxByteCount <= 0) {
+            throw new IllegalArgumentException(
+                    "Row count and byte count should be positive: " + maxRowCount + ", " +
+                            maxByteCount);
+        }
+        this.maxRowCount = maxRowCount;
+        this.maxByteCount = maxByteCount;
+    }
+
+    /**
+     * @param rowCount      the number of rows that were not flushed
+     * @param estimatedSize the estimated size of the rows that were not flushed
+     * @return true if the rows should be flushed
+     */
+    boolean shouldFlush(final int rowCount, final long estimatedSize) {
+        return rowCount >= this.maxRowCount || estimatedSize >= this.maxByteCount;
+    }
+
+    /**
+     * @return the number of rows in a block
+     */
+    public int getMaxRowCount() {
+        return this.maxRowCount;
+    }
+
+    /**
+     * @return the max estimated size of a block
+     */
+    public long getMaxByteCount() {
+        return this.maxByteCount;
+    }
+
+    @Override
+    public String toString() {
+        return "FlushPolicy[maxRowCount=" + this.maxRowCount + ", maxByteCount=" +
+                this.maxByteCount + "]";
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.XMLUtil;
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * A flusher for a block of rows serialized by an executor. The flushers are queued in the
+ * order of the rows, hence the writer reassembles the blocks in order: it waits for the
+ * serialization of a block when it is its turn.
+ *
+ * @author Julien Férard
+ */
+class FutureRowsFlusher implements OdsAsyncFlusher {
+    /**
+     * Submit the serialization of the rows to an executor. The escaper of an XMLUtil and the
+     * cell fragment cache are not thread safe: each task has its own instances, and nothing
+     * is left on the threads of the executor.
+     *
+     * @param executor  the executor
+     * @param tableRows the rows, not shared
+     * @return the flusher
+     */
+    public static FutureRowsFlusher create(final Executor executor,
+                                           final List<TableRowImpl> tableRows) {
+        final FutureTask<CharSequence> task =
+                new FutureTask<CharSequence>(new Callable<CharSequence>() {
+                    @Override
+                    public CharSequence call() throws IOException {
+                        return PreprocessedRowsFlusher.serialize(XMLUtil.create(),
+                                new CellFragmentCache(CellFragmentCache.DEFAULT_CAPACITY),
+                                tableRows);
+                    }
+                });
+        executor.execute(task);
+        return new FutureRowsFlusher(task);
+    }
+
+    private final FutureTask<CharSequence> task;
+
+    /**
+     * @param task the serialization task
+     */
+    FutureRowsFlusher(final FutureTask<CharSequence> task) {
+        this.task = task;
+    }
+
+    @Override
+    public void flushInto(final XMLUtil xmlUtil, final ZipUTF8Writer writer) throws IOException {
+        final CharSequence cs;
+        try {
+            cs = this.task.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for rows");
+        } catch (final ExecutionException e) {
+            throw new IOException("Can't serialize rows", e.getCause());
+        }
+        writer.append(cs);
+    }
+
+    @Override
+    public boolean isEnd() {
+        return false;
+    }
+}
@@ -89,6 +89,13 @@ public class NamedOdsDocument implements OdsDocument, StylesContainer {
         this.commonOdsDocument = commonOdsDocument;
     }
 
+    /**
+     * @return the XML util of this document
+     */
+    XMLUtil getXMLUtil() {
+        return this.xmlUtil;
+    }
+
     @Override
     public Table addTable(final String name) throws IOException {
         return this.commonOdsDocument.addTable(name);
@@ -100,6 +107,41 @@ public class NamedOdsDocument implements OdsDocument, StylesContainer {
         return this.commonOdsDocument.addTable(name, rowCapacity, columnCapacity);
     }
 
+    /**
+     * Add a table that will be built and serialized by another thread. Several segments may
+     * be filled in parallel: they are written to content.xml in the order of the tables.
+     * Call `complete` (or `abort` on failure) on each segment, then save the document.
+     * <p>
+     * Beware: the next `addTable` (and `save`) flushes the pending segments. With a direct
+     * writer, this call blocks until every pending segment is completed or aborted: if the
+     * calling thread is the one that should fill a pending segment, it deadlocks. If the writer
+     * has a cancellation token, the wait stops when the export is cancelled or when the
+     * deadline is passed.
+     *
+     * @param name the name of the table
+     * @return the segment or null if a table with the same name exists
+     * @throws IOException if the previous table can't be flushed
+     */
+    public TableSegment addTableSegment(final String name) throws IOException {
+        return this.addTableSegment(name, CommonOdsDocument.DEFAULT_ROW_CAPACITY,
+                CommonOdsDocument.DEFAULT_COLUMN_CAPACITY);
+    }
+
+    /**
+     * Add a table that will be built and serialized by another thread.
+     *
+     * @param name           the name of the table
+     * @param rowCapacity    estimated rows
+     * @param columnCapacity estimated columns
+     * @return the segment or null if a table with the same name exists
+     * @throws IOException if the previous table can't be flushed
+     * @see #addTableSegment(String)
+     */
+    public TableSegment addTableSegment(final String name, final int rowCapacity,
+                                        final int columnCapacity) throws IOException {
+        return this.odsElements.addTableSegmentToContent(name, rowCapacity, columnCapacity);
+    }
+
     @Override
     public boolean addTable(final Table table) throws IOException {
         return this.commonOdsDocument.addTable(table);
@@ -184,6 +226,14 @@ public class NamedOdsDocument implements OdsDocument, StylesContainer {
         this.odsElements.addObserver(writer);
     }
 
+    /**
+     * @param cancellationToken the token of the writer, checked while the writer waits for the
+     *                          table segments
+     */
+    void setCancellationToken(final CancellationToken cancellationToken) {
+        this.odsElements.setCancellationToken(cancellationToken);
+    }
+
     /**
      * Add a cell style for a given data type. Use only if you want to flush data before the end
      * of the document
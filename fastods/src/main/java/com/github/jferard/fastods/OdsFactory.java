@@ -42,6 +42,12 @@ import java.util.logging.Logger;
 
 /**
  * An OdsFactory is the entry point for creating ODS documents.
+ * <p>
+ * Thread safety: a factory built by an `OdsFactoryBuilder` may be shared by several threads,
+ * e.g. as a singleton of a web service. Each document gets its own XML util (and escaper), and
+ * the shared defaults (data styles, meta element, namespaces) are never modified by the
+ * documents. The deprecated fluent setters of this class are not thread safe. A document
+ * and its writer must be used by one thread at a time.
  *
  * @author Julien Férard
  */
@@ -49,7 +55,6 @@ public class OdsFactory {
     private final Logger logger;
     private final PositionUtil positionUtil;
     private final WriteUtil writeUtil;
-    private final XMLUtil xmlUtil;
     private final Map<String, String> additionalNamespaceByPrefix;
     private DataStyles format;
     private boolean libreOfficeMode;
@@ -60,20 +65,18 @@ public class OdsFactory {
      * @param logger                      the logger
      * @param positionUtil                an util
      * @param writeUtil                   an util
-     * @param xmlUtil                     an util
      * @param additionalNamespaceByPrefix a map prefix -> namespace
      * @param format                      the data styles
      * @param libreOfficeMode             try to get full compatibility with LO if true
      * @param metaElement                 the meta element
      */
     OdsFactory(final Logger logger, final PositionUtil positionUtil, final WriteUtil writeUtil,
-               final XMLUtil xmlUtil, final Map<String, String> additionalNamespaceByPrefix,
+               final Map<String, String> additionalNamespaceByPrefix,
                final DataStyles format, final boolean libreOfficeMode,
                final MetaElement metaElement) {
         this.logger = logger;
         this.positionUtil = positionUtil;
         this.writeUtil = writeUtil;
-        this.xmlUtil = xmlUtil;
         this.additionalNamespaceByPrefix = additionalNamespaceByPrefix;
         this.format = format;
         this.libreOfficeMode = libreOfficeMode;
@@ -168,10 +171,11 @@ public class OdsFactory {
      * @return a new document
      */
     private AnonymousOdsDocument createAnonymousDocument() {
+        final XMLUtil xmlUtil = XMLUtil.create(); // the escaper is not thread safe
         final OdsElements odsElements = OdsElements
-                .create(this.positionUtil, this.xmlUtil, this.writeUtil, this.format,
+                .create(this.positionUtil, xmlUtil, this.writeUtil, this.format,
                         this.libreOfficeMode, this.metaElement, this.additionalNamespaceByPrefix);
-        return AnonymousOdsDocument.create(this.logger, this.xmlUtil, odsElements);
+        return AnonymousOdsDocument.create(this.logger, xmlUtil, odsElements);
     }
 
     /**
@@ -180,10 +184,11 @@ public class OdsFactory {
      * @return a new document
      */
     private NamedOdsDocument createNamedDocument() {
+        final XMLUtil xmlUtil = XMLUtil.create(); // the escaper is not thread safe
         final OdsElements odsElements = OdsElements
-                .create(this.positionUtil, this.xmlUtil, this.writeUtil, this.format,
+                .create(this.positionUtil, xmlUtil, this.writeUtil, this.format,
                         this.libreOfficeMode, this.metaElement, this.additionalNamespaceByPrefix);
-        return NamedOdsDocument.create(this.logger, this.xmlUtil, odsElements);
+        return NamedOdsDocument.create(this.logger, xmlUtil, odsElements);
     }
 
     /**
@@ -229,6 +234,33 @@ public class OdsFactory {
         return writer;
     }
 
+    /**
+     * Create a new ODS file writer from a document that can be cancelled. Be careful: this
+     * method opens immediately a stream. If the token is cancelled, the next flush throws an
+     * {@link java.io.InterruptedIOException} and the partial file is deleted.
+     * <p>
+     * If the token is checked outside of the writer, e.g. by a
+     * {@link com.github.jferard.fastods.tool.ResultSetDataWrapper}, the exception does not go
+     * through the writer: the caller must catch it and call {@link OdsFileDirectWriter#abort()}
+     * to delete the partial file.
+     *
+     * @param file              the destination file
+     * @param cancellationToken the token
+     * @return the ods writer
+     * @throws IOException if an I/O error occurs
+     */
+    public OdsFileDirectWriter createWriter(final File file,
+                                            final CancellationToken cancellationToken)
+            throws IOException {
+        final NamedOdsDocument document = this.createNamedDocument();
+        final OdsFileDirectWriter writer =
+                OdsFileDirectWriter.builder(this.logger, document).file(file)
+                        .cancellationToken(cancellationToken).build();
+        document.addObserver(writer);
+        document.prepare();
+        return writer;
+    }
+
     /**
      * Create an adapter for a writer.
      *
@@ -247,6 +279,29 @@ public class OdsFactory {
         return writerAdapter;
     }
 
+    /**
+     * Create an adapter for a writer that can be cancelled. On cancel, the queued flushers are
+     * discarded and the partial file is deleted.
+     *
+     * @param file              the file
+     * @param cancellationToken the token
+     * @return the adapter
+     * @throws IOException if an I/O error occurs
+     */
+    public OdsFileWriterAdapter createWriterAdapter(final File file,
+                                                    final CancellationToken cancellationToken)
+            throws IOException {
+        final NamedOdsDocument document = this.createNamedDocument();
+        final ZipUTF8WriterBuilderImpl zipUTF8Writer = ZipUTF8WriterImpl.builder().noWriterBuffer();
+        final OdsFileWriterAdapter writerAdapter = OdsFileWriterAdapter.create(this.logger,
+                OdsFileDirectWriter.builder(this.logger, document).file(file)
+                        .zipBuilder(zipUTF8Writer).cancellationToken(cancellationToken).build(),
+                cancellationToken);
+        document.addObserver(writerAdapter);
+        document.prepare();
+        return writerAdapter;
+    }
+
     /**
      * the file state
      *
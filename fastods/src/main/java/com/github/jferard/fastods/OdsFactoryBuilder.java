@@ -30,18 +30,21 @@ import com.github.jferard.fastods.odselement.MetaElement;
 import com.github.jferard.fastods.ref.PositionUtil;
 import com.github.jferard.fastods.ref.TableNameUtil;
 import com.github.jferard.fastods.util.WriteUtil;
-import com.github.jferard.fastods.util.XMLUtil;
 
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.logging.Logger;
 
+/**
+ * A builder for an OdsFactory. The builder is not thread safe, but the factory is.
+ *
+ * @author Julien Férard
+ */
 public class OdsFactoryBuilder {
     private final Logger logger;
     private final PositionUtil positionUtil;
     private final WriteUtil writeUtil;
-    private final XMLUtil xmlUtil;
     private final Map<String, String> additionalNamespaceByPrefix;
     private DataStyles format;
     private boolean libreOfficeMode;
@@ -51,7 +54,6 @@ public class OdsFactoryBuilder {
         this.logger = logger;
         this.positionUtil = new PositionUtil(new TableNameUtil());
         this.writeUtil = WriteUtil.create();
-        this.xmlUtil = XMLUtil.create();
         this.additionalNamespaceByPrefix = new HashMap<String, String>();
 
         this.format = DataStylesBuilder.create(locale).build();
@@ -59,10 +61,13 @@ public class OdsFactoryBuilder {
         this.metaElement = MetaElement.create();
     }
 
+    /**
+     * @return a new factory. The factory has its own copy of the namespaces.
+     */
     public OdsFactory build() {
-        return new OdsFactory(this.logger, this.positionUtil, this.writeUtil, this.xmlUtil,
-                this.additionalNamespaceByPrefix, this.format, this.libreOfficeMode, this.metaElement
-        );
+        return new OdsFactory(this.logger, this.positionUtil, this.writeUtil,
+                new HashMap<String, String>(this.additionalNamespaceByPrefix), this.format,
+                this.libreOfficeMode, this.metaElement);
     }
 
     /**
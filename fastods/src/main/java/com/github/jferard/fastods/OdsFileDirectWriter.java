@@ -27,7 +27,11 @@ package com.github.jferard.fastods;
 import com.github.jferard.fastods.util.XMLUtil;
 import com.github.jferard.fastods.util.ZipUTF8Writer;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -55,6 +59,9 @@ public class OdsFileDirectWriter implements NamedOdsFileWriter {
     private final Logger logger;
     private final ZipUTF8Writer writer;
     private final XMLUtil xmlUtil;
+    private final CancellationToken cancellationToken;
+    private final OutputStream out;
+    private final File file;
 
     /**
      * Create a new ODS file.
@@ -66,10 +73,30 @@ public class OdsFileDirectWriter implements NamedOdsFileWriter {
      */
     OdsFileDirectWriter(final Logger logger, final XMLUtil xmlUtil, final NamedOdsDocument document,
                         final ZipUTF8Writer writer) {
+        this(logger, xmlUtil, document, writer, null, null, null);
+    }
+
+    /**
+     * Create a new ODS file.
+     *
+     * @param logger            the logger
+     * @param xmlUtil           an util
+     * @param document          the document to write
+     * @param writer            The writer for this file
+     * @param cancellationToken the token checked before each flush, or null
+     * @param out               the raw stream under the writer, closed on abort, or null
+     * @param file              the file to delete on abort, or null
+     */
+    OdsFileDirectWriter(final Logger logger, final XMLUtil xmlUtil, final NamedOdsDocument document,
+                        final ZipUTF8Writer writer, final CancellationToken cancellationToken,
+                        final OutputStream out, final File file) {
         this.logger = logger;
         this.document = document;
         this.xmlUtil = xmlUtil;
         this.writer = writer;
+        this.cancellationToken = cancellationToken;
+        this.out = out;
+        this.file = file;
     }
 
     @Override
@@ -78,6 +105,30 @@ public class OdsFileDirectWriter implements NamedOdsFileWriter {
         this.writer.close();
     }
 
+    /**
+     * Abort the writing: the raw stream is closed without finishing the ZIP archive (no central
+     * directory is written), and the file, if any, is deleted. This method may be called several
+     * times.
+     * <p>
+     * The writer aborts by itself when it sees a cancelled token. But if the token is checked
+     * outside of the writer, e.g. by a
+     * {@link com.github.jferard.fastods.tool.ResultSetDataWrapper}, the
+     * {@link java.io.InterruptedIOException} does not reach the writer: the caller must call
+     * this method when it catches the exception.
+     */
+    public void abort() {
+        if (this.out != null) {
+            try {
+                this.out.close();
+            } catch (final IOException e) {
+                this.logger.log(Level.WARNING, "Can't close the aborted stream", e);
+            }
+        }
+        if (this.file != null && this.file.exists() && !this.file.delete()) {
+            this.logger.warning("Can't delete the aborted file " + this.file);
+        }
+    }
+
     @Override
     public NamedOdsDocument document() {
         return this.document;
@@ -90,6 +141,17 @@ public class OdsFileDirectWriter implements NamedOdsFileWriter {
 
     @Override
     public void update(final OdsAsyncFlusher flusher) throws IOException {
-        flusher.flushInto(this.xmlUtil, this.writer);
+        if (this.cancellationToken != null && this.cancellationToken.isCancelled()) {
+            this.abort();
+            this.cancellationToken.check();
+        }
+        try {
+            flusher.flushInto(this.xmlUtil, this.writer);
+        } catch (final InterruptedIOException e) { // e.g. while waiting for a table segment
+            if (this.cancellationToken != null && this.cancellationToken.isCancelled()) {
+                this.abort();
+            }
+            throw e;
+        }
     }
 }
\ No newline at end of file
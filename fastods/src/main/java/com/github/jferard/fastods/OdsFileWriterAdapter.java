@@ -27,6 +27,9 @@ package com.github.jferard.fastods;
 import java.io.IOException;
 import java.util.LinkedList;
 import java.util.Queue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 
 /**
@@ -59,9 +62,42 @@ public class OdsFileWriterAdapter implements NamedOdsFileWriter {
         return new OdsFileWriterAdapter(logger, adaptee, new LinkedList<OdsAsyncFlusher>());
     }
 
+    /**
+     * @param logger            the logger
+     * @param adaptee           the adaptee writer
+     * @param cancellationToken the token: on cancel, the waiting consumer is woken up, and the
+     *                          adaptee is aborted. The token may be shared by several adapters:
+     *                          the adapter stops listening to the token when it is stopped.
+     * @return the new adapter
+     */
+    public static OdsFileWriterAdapter create(final Logger logger,
+                                              final NamedOdsFileWriter adaptee,
+                                              final CancellationToken cancellationToken) {
+        final OdsFileWriterAdapter adapter = new OdsFileWriterAdapter(logger, adaptee,
+                new LinkedList<OdsAsyncFlusher>(), cancellationToken);
+        adapter.listenToCancellation();
+        return adapter;
+    }
+
     private final Logger logger;
     private final NamedOdsFileWriter adaptee;
     private final Queue<OdsAsyncFlusher> flushers;
+    /**
+     * Guards the queue and the stopped flag. A ReentrantLock does not pin the carrier thread of a
+     * virtual thread, unlike a monitor.
+     */
+    private final Lock lock;
+    /**
+     * Signalled when a flusher is added or when the adapter is stopped
+     */
+    private final Condition dataOrStop;
+    /**
+     * Held by the consumer while it writes: the flushers are written in order, but the
+     * producers may add flushers meanwhile.
+     */
+    private final Lock flushLock;
+    private final CancellationToken cancellationToken;
+    private Runnable cancelListener;
     private boolean stopped;
 
     /**
@@ -73,77 +109,196 @@ public class OdsFileWriterAdapter implements NamedOdsFileWriter {
      */
     OdsFileWriterAdapter(final Logger logger, final NamedOdsFileWriter adaptee,
                          final Queue<OdsAsyncFlusher> flushers) {
+        this(logger, adaptee, flushers, null);
+    }
+
+    /**
+     * Create an new adapter
+     *
+     * @param logger            the logger
+     * @param adaptee           the adaptee writer
+     * @param flushers          the queue of flushers
+     * @param cancellationToken the token checked before each flush, or null
+     */
+    OdsFileWriterAdapter(final Logger logger, final NamedOdsFileWriter adaptee,
+                         final Queue<OdsAsyncFlusher> flushers,
+                         final CancellationToken cancellationToken) {
         this.logger = logger;
         this.adaptee = adaptee;
         this.flushers = flushers;
+        this.cancellationToken = cancellationToken;
+        this.lock = new ReentrantLock();
+        this.dataOrStop = this.lock.newCondition();
+        this.flushLock = new ReentrantLock();
     }
 
     @Override
     public void close() {
     }
 
+    /**
+     * Discard the queued flushers and stop this adapter. If the adaptee is a direct writer, it
+     * is aborted too, once the flusher being written (if any) is done.
+     */
+    public void abort() {
+        this.lock.lock();
+        try {
+            this.flushers.clear();
+        } finally {
+            this.lock.unlock();
+        }
+        this.stop();
+        if (this.adaptee instanceof OdsFileDirectWriter) {
+            this.flushLock.lock();
+            try {
+                ((OdsFileDirectWriter) this.adaptee).abort();
+            } finally {
+                this.flushLock.unlock();
+            }
+        }
+    }
+
     @Override
     public NamedOdsDocument document() {
         return this.adaptee.document();
     }
 
     @Override
-    public synchronized void save() {
+    public void save() {
     }
 
+    /**
+     * Add a flusher to the queue.
+     *
+     * @param flusher the chosen flusher
+     * @throws IOException if the export is cancelled: the adapter is aborted
+     */
     @Override
-    public synchronized void update(final OdsAsyncFlusher flusher) {
-        this.flushers.add(flusher);
+    public void update(final OdsAsyncFlusher flusher) throws IOException {
+        this.checkCancellation();
+        this.lock.lock();
+        try {
+            if (this.stopped) { // nobody will write this flusher
+                return;
+            }
+            this.flushers.add(flusher);
+            this.dataOrStop.signal(); // only the consumer waits for data
+        } finally {
+            this.lock.unlock();
+        }
         this.logger.fine("Add new flusher: " + flusher);
-        this.notifyAll();
     }
 
     /**
      * Flushes all available flushers to the adaptee writer.
-     * The thread falls asleep if we reach the end of the queue without a FinalizeFlusher.
+     * The queue is not locked while a flusher is written. If the export is cancelled, the
+     * adapter is aborted.
      *
-     * @throws IOException if the adaptee throws an IOException
+     * @throws IOException if the adaptee throws an IOException, or if the export is cancelled
      */
-    public synchronized void flushAdaptee() throws IOException {
-        OdsAsyncFlusher flusher = this.flushers.poll();
-        this.logger.fine("Retrieve first flusher: " + flusher);
-        if (flusher == null) {
-            this.notifyAll(); // wakes up other threads: no flusher available
-            return;
+    public void flushAdaptee() throws IOException {
+        this.flushLock.lock();
+        try {
+            this.checkCancellation();
+            OdsAsyncFlusher flusher = this.poll();
+            this.logger.fine("Retrieve first flusher: " + flusher);
+            while (flusher != null) {
+                this.checkCancellation();
+                this.adaptee.update(flusher);
+                if (flusher.isEnd()) {
+                    this.stop();
+                    return;
+                }
+                flusher = this.poll();
+                this.logger.fine("Retrieve next flusher: " + flusher);
+            }
+        } finally {
+            this.flushLock.unlock();
         }
+    }
 
-        while (flusher != null) {
-            this.adaptee.update(flusher);
-            if (flusher.isEnd()) {
-                this.stopped = true;
-                this.notifyAll(); // wakes up other threads: end of game
-                return;
+    private void checkCancellation() throws IOException {
+        if (this.cancellationToken != null && this.cancellationToken.isCancelled()) {
+            this.abort();
+            this.cancellationToken.check();
+        }
+    }
+
+    private void listenToCancellation() {
+        this.cancelListener = new Runnable() {
+            @Override
+            public void run() {
+                OdsFileWriterAdapter.this.wakeUp();
             }
-            flusher = this.flushers.poll();
-            this.logger.fine("Retrieve next flusher: " + flusher);
+        };
+        this.cancellationToken.addCancelListener(this.cancelListener);
+    }
+
+    private void wakeUp() {
+        this.lock.lock();
+        try {
+            this.dataOrStop.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private OdsAsyncFlusher poll() {
+        this.lock.lock();
+        try {
+            return this.flushers.poll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void stop() {
+        this.lock.lock();
+        try {
+            this.stopped = true;
+            this.dataOrStop.signalAll(); // end of game
+        } finally {
+            this.lock.unlock();
+        }
+        if (this.cancelListener != null) { // don't keep this adapter reachable from the token
+            this.cancellationToken.removeCancelListener(this.cancelListener);
         }
-        this.notifyAll(); // wakes up other threads: no flusher left
     }
 
     /**
      * @return true if the adapter is stopped
      */
-    public synchronized boolean isNotStopped() {
-        return !this.stopped;
+    public boolean isNotStopped() {
+        this.lock.lock();
+        try {
+            return !this.stopped;
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     /**
-     * wait for the data
+     * wait for the data. Returns if the export is cancelled or if the deadline is passed.
      */
-    public synchronized void waitForData() {
-        while (this.flushers.isEmpty() && this.isNotStopped()) {
-            try {
-                this.wait();
-            } catch (final InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException(e);
+    public void waitForData() {
+        this.lock.lock();
+        try {
+            if (this.cancellationToken == null) {
+                while (this.flushers.isEmpty() && !this.stopped) {
+                    this.dataOrStop.await();
+                }
+            } else {
+                long nanos = this.cancellationToken.remainingNanos();
+                while (this.flushers.isEmpty() && !this.stopped && nanos > 0) {
+                    this.dataOrStop.awaitNanos(nanos);
+                    nanos = this.cancellationToken.remainingNanos();
+                }
             }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            this.lock.unlock();
         }
     }
-
 }
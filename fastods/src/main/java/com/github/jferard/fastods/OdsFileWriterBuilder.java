@@ -26,7 +26,6 @@ package com.github.jferard.fastods;
 
 import com.github.jferard.fastods.util.FileOpen;
 import com.github.jferard.fastods.util.FileOpenResult;
-import com.github.jferard.fastods.util.XMLUtil;
 import com.github.jferard.fastods.util.ZipUTF8Writer;
 import com.github.jferard.fastods.util.ZipUTF8WriterBuilderImpl;
 import com.github.jferard.fastods.util.ZipUTF8WriterImpl;
@@ -45,6 +44,8 @@ public class OdsFileWriterBuilder {
     private final NamedOdsDocument document;
     private OutputStream out;
     private ZipUTF8WriterBuilderImpl builder;
+    private CancellationToken cancellationToken;
+    private File file;
 
     /**
      * Create a new ODS file.
@@ -62,9 +63,13 @@ public class OdsFileWriterBuilder {
      * @return the writer for the ods file
      * @throws FileNotFoundException if there is no stream to write
      */
-    public NamedOdsFileWriter build() {
+    public OdsFileDirectWriter build() {
         final ZipUTF8Writer writer = this.builder.build(this.out);
-        return new OdsFileDirectWriter(this.logger, XMLUtil.create(), this.document, writer);
+        if (this.cancellationToken != null) {
+            this.document.setCancellationToken(this.cancellationToken);
+        }
+        return new OdsFileDirectWriter(this.logger, this.document.getXMLUtil(), this.document,
+                writer, this.cancellationToken, this.out, this.file);
     }
 
     /**
@@ -74,7 +79,7 @@ public class OdsFileWriterBuilder {
      * @return this for fluent style
      */
     public OdsFileWriterBuilder file(final String filename) throws FileNotFoundException {
-        return this.openResult(FileOpen.openFile(filename));
+        return this.file(new File(filename));
     }
 
     /**
@@ -84,7 +89,9 @@ public class OdsFileWriterBuilder {
      * @return this for fluent style
      */
     public OdsFileWriterBuilder file(final File file) throws FileNotFoundException {
-        return this.openResult(FileOpen.openFile(file));
+        this.openResult(FileOpen.openFile(file));
+        this.file = file;
+        return this;
     }
 
     /**
@@ -93,11 +100,14 @@ public class OdsFileWriterBuilder {
      */
     public OdsFileWriterBuilder outputStream(final OutputStream out) {
         this.out = out;
+        this.file = null;
         return this;
     }
 
     /**
-     * Locks the file
+     * Locks the file. The file, if any, won't be deleted on abort, since it may not be the file
+     * of the result.
+     *
      * @param lockResult the result of a file lock
      * @return this for fluent style
      * @throws FileNotFoundException the file exists but is a directory
@@ -107,6 +117,18 @@ public class OdsFileWriterBuilder {
     public OdsFileWriterBuilder openResult(final FileOpenResult lockResult)
             throws FileNotFoundException {
         this.out = lockResult.getStream();
+        this.file = null;
+        return this;
+    }
+
+    /**
+     * @param cancellationToken the token checked before each flush (hence at the row block
+     *                          boundaries) and while the writer waits for a table segment.
+     *                          On cancel, the writer is aborted.
+     * @return this for fluent style
+     */
+    public OdsFileWriterBuilder cancellationToken(final CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
         return this;
     }
 
@@ -53,15 +53,41 @@ class PreprocessedRowsFlusher implements OdsAsyncFlusher {
     public static PreprocessedRowsFlusher create(final XMLUtil xmlUtil,
                                                  final List<TableRowImpl> tableRows)
             throws IOException {
+        return new PreprocessedRowsFlusher(serialize(xmlUtil, tableRows));
+    }
+
+    /**
+     * @param xmlUtil   an util
+     * @param tableRows the rows to serialize. The list is cleared.
+     * @return the XML of the rows
+     * @throws IOException never
+     */
+    static StringBuilder serialize(final XMLUtil xmlUtil, final List<TableRowImpl> tableRows)
+            throws IOException {
+        return serialize(xmlUtil, null, tableRows);
+    }
+
+    /**
+     * @param xmlUtil       an util
+     * @param fragmentCache the cache of the serializing thread, or null to use the cache of
+     *                      the table
+     * @param tableRows     the rows to serialize. The list is cleared.
+     * @return the XML of the rows
+     * @throws IOException never
+     */
+    static StringBuilder serialize(final XMLUtil xmlUtil, final CellFragmentCache fragmentCache,
+                                   final List<TableRowImpl> tableRows) throws IOException {
         // create a char sequence
         final StringBuilder sb = new StringBuilder(STRING_BUILDER_SIZE);
+        final RepeatedRowsAppender rowsAppender =
+                new RepeatedRowsAppender(xmlUtil, fragmentCache, sb);
         for (final TableRowImpl row : tableRows) {
-            TableRowImpl.appendXMLToTable(row, xmlUtil, sb);
+            rowsAppender.appendRow(row);
         }
+        rowsAppender.flush();
         // free rows
         Collections.fill(tableRows, null);
-
-        return new PreprocessedRowsFlusher(sb);
+        return sb;
     }
 
     private final CharSequence cs;
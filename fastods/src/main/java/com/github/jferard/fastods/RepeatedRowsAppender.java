@@ -0,0 +1,245 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.XMLUtil;
+
+import java.io.IOException;
+
+/**
+ * An appender for consecutive rows: the identical consecutive rows are collapsed into one row
+ * with a "table:number-rows-repeated" attribute. Two rows are merged if and only if their XML
+ * is identical and if no cell of the rows has a cold cell. Call `flush` after the last row,
+ * and before writing anything else to the destination.
+ * <p>
+ * If the destination is a StringBuilder, each row is serialized in place, at the end of the
+ * destination, and compared to the previous row (lengths first): a repeated row is truncated,
+ * a new row stays where it is. Otherwise, the rows are serialized in scratch buffers.
+ *
+ * @author Julien Férard
+ */
+class RepeatedRowsAppender {
+    private static final String ROW_OPEN_TAG = "<table:table-row";
+    private static final String ROWS_REPEATED_ATTRIBUTE = "table:number-rows-repeated";
+    private static final int SCRATCH_SIZE = 1024;
+
+    private final XMLUtil util;
+    private final CellFragmentCache fragmentCache;
+    private final Appendable appendable;
+    /**
+     * The destination if it is a StringBuilder, null otherwise
+     */
+    private final StringBuilder inPlace;
+    private StringBuilder pending;
+    private StringBuilder current;
+    /**
+     * In place only: the position of the pending row in the destination
+     */
+    private int pendingStart;
+    private int repeatCount;
+
+    /**
+     * @param util       an util
+     * @param appendable the destination
+     */
+    RepeatedRowsAppender(final XMLUtil util, final Appendable appendable) {
+        this(util, null, appendable);
+    }
+
+    /**
+     * @param util          an util
+     * @param fragmentCache the cache of the serializing thread, or null to use the cache of
+     *                      the table of each row
+     * @param appendable    the destination
+     */
+    RepeatedRowsAppender(final XMLUtil util, final CellFragmentCache fragmentCache,
+                         final Appendable appendable) {
+        this.util = util;
+        this.fragmentCache = fragmentCache;
+        this.appendable = appendable;
+        if (appendable instanceof StringBuilder) {
+            this.inPlace = (StringBuilder) appendable;
+        } else {
+            this.inPlace = null;
+            this.pending = new StringBuilder(SCRATCH_SIZE);
+            this.current = new StringBuilder(SCRATCH_SIZE);
+        }
+        this.repeatCount = 0;
+    }
+
+    /**
+     * Append a row, or increment the repeat count if the row is identical to the previous one.
+     *
+     * @param row the row, may be null
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendRow(final TableRowImpl row) throws IOException {
+        if (row != null && row.hasColdCells()) {
+            this.flush();
+            this.appendXMLToTable(row, this.appendable);
+        } else if (this.inPlace == null) {
+            this.appendRowToScratch(row);
+        } else {
+            this.appendRowInPlace(row);
+        }
+    }
+
+    private void appendRowInPlace(final TableRowImpl row) throws IOException {
+        final StringBuilder sb = this.inPlace;
+        final int start = sb.length();
+        this.appendXMLToTable(row, sb);
+        final int length = sb.length() - start;
+        if (!RepeatedRowsAppender.isRepeatable(sb, start)) {
+            this.flush();
+            return;
+        }
+
+        if (this.repeatCount > 0 && start - this.pendingStart == length &&
+                RepeatedRowsAppender.regionEquals(sb, this.pendingStart, start, length)) {
+            sb.setLength(start);
+            this.repeatCount++;
+        } else {
+            this.flush(); // may insert the attribute before the row
+            this.pendingStart = sb.length() - length;
+            this.repeatCount = 1;
+        }
+    }
+
+    private void appendRowToScratch(final TableRowImpl row) throws IOException {
+        this.current.setLength(0);
+        this.appendXMLToTable(row, this.current);
+        if (!RepeatedRowsAppender.isRepeatable(this.current, 0)) {
+            this.flush();
+            this.appendable.append(this.current);
+            return;
+        }
+
+        final int length = this.current.length();
+        if (this.repeatCount > 0 && this.pending.length() == length &&
+                RepeatedRowsAppender.regionEquals(this.pending, this.current, length)) {
+            this.repeatCount++;
+        } else {
+            this.flush();
+            final StringBuilder temp = this.pending;
+            this.pending = this.current;
+            this.current = temp;
+            this.repeatCount = 1;
+        }
+    }
+
+    private void appendXMLToTable(final TableRowImpl row, final Appendable appendable)
+            throws IOException {
+        if (this.fragmentCache == null) {
+            TableRowImpl.appendXMLToTable(row, this.util, appendable);
+        } else {
+            TableRowImpl.appendXMLToTable(row, this.util, this.fragmentCache, appendable);
+        }
+    }
+
+    /**
+     * Append the pending row.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void flush() throws IOException {
+        if (this.repeatCount == 0) {
+            return;
+        }
+
+        if (this.inPlace != null) {
+            if (this.repeatCount > 1) {
+                final StringBuilder attribute = new StringBuilder();
+                this.util.appendAttribute(attribute, ROWS_REPEATED_ATTRIBUTE, this.repeatCount);
+                this.inPlace.insert(this.pendingStart + ROW_OPEN_TAG.length(), attribute);
+            }
+        } else if (this.repeatCount == 1) {
+            this.appendable.append(this.pending);
+        } else {
+            this.appendable.append(ROW_OPEN_TAG);
+            this.util.appendAttribute(this.appendable, ROWS_REPEATED_ATTRIBUTE, this.repeatCount);
+            this.appendable.append(this.pending, ROW_OPEN_TAG.length(), this.pending.length());
+        }
+        this.repeatCount = 0;
+    }
+
+    /**
+     * @param sb    the buffer
+     * @param start the position of the XML of a row
+     * @return true if the attribute can be added to the row
+     */
+    private static boolean isRepeatable(final StringBuilder sb, final int start) {
+        final int tagLength = ROW_OPEN_TAG.length();
+        if (sb.length() - start < tagLength) {
+            return false;
+        }
+        for (int i = 0; i < tagLength; i++) {
+            if (sb.charAt(start + i) != ROW_OPEN_TAG.charAt(i)) {
+                return false;
+            }
+        }
+        final int openTagEnd = sb.indexOf(">", start + tagLength);
+        if (openTagEnd == -1) {
+            return false;
+        }
+        // look for the attribute in the open tag only
+        final int attributeLength = ROWS_REPEATED_ATTRIBUTE.length();
+        for (int i = start + tagLength; i <= openTagEnd - attributeLength; i++) {
+            if (RepeatedRowsAppender.isAttributeAt(sb, i, attributeLength)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAttributeAt(final StringBuilder sb, final int index,
+                                         final int attributeLength) {
+        for (int j = 0; j < attributeLength; j++) {
+            if (sb.charAt(index + j) != ROWS_REPEATED_ATTRIBUTE.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionEquals(final StringBuilder sb, final int start1,
+                                        final int start2, final int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (sb.charAt(start1 + i) != sb.charAt(start2 + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionEquals(final StringBuilder sb1, final StringBuilder sb2,
+                                        final int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (sb1.charAt(i) != sb2.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
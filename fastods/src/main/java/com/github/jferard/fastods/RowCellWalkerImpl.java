@@ -238,6 +238,11 @@ public class RowCellWalkerImpl implements RowCellWalker {
         this.row.getOrCreateCell(this.c).setDateValue(cal);
     }
 
+    @Override
+    public void setDateValue(final long epochMillis) {
+        this.row.getOrCreateCell(this.c).setDateValue(epochMillis);
+    }
+
     @Override
     public void setFloatValue(final float value) {
         this.row.getOrCreateCell(this.c).setFloatValue(value);
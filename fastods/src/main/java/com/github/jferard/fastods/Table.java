@@ -35,11 +35,13 @@ import com.github.jferard.fastods.style.TableColumnStyle;
 import com.github.jferard.fastods.style.TableStyle;
 import com.github.jferard.fastods.util.AutoFilter;
 import com.github.jferard.fastods.util.NamedObject;
+import com.github.jferard.fastods.util.StringPool;
 import com.github.jferard.fastods.util.WriteUtil;
 import com.github.jferard.fastods.util.XMLUtil;
 
 import java.io.IOException;
 import java.text.ParseException;
+import java.util.concurrent.Executor;
 
 /**
  * OpenDocument 9.1.2 table:table
@@ -241,6 +243,74 @@ public class Table implements NamedObject, FrameContent {
         return this.builder.nextRow(this, this.appender);
     }
 
+    /**
+     * Flush the existing rows and return a forward-only writer for the next rows (streaming
+     * only). The rows of the writer are serialized as soon as they are ended: no row or cell
+     * object is retained. Once this method was called, the rows of the table can't be accessed
+     * by their index anymore.
+     *
+     * @return the row writer
+     * @throws IOException if an I/O error occurs, or if the table is not written to a file
+     */
+    public TableRowWriter rowWriter() throws IOException {
+        return this.builder.rowWriter(this, this.appender);
+    }
+
+    /**
+     * Set float values in consecutive cells of a row. This is faster than a walker: the style
+     * is registered once, and there is no dispatch per cell.
+     *
+     * @param rowIndex the row index
+     * @param colIndex the index of the first cell
+     * @param values   the values
+     * @param style    the style of the cells, or null
+     * @throws IOException if the row was flushed
+     */
+    public void setRowValues(final int rowIndex, final int colIndex, final double[] values,
+                             final TableCellStyle style) throws IOException {
+        this.builder.setRowValues(this, this.appender, rowIndex, colIndex, values, style);
+    }
+
+    /**
+     * Set float values in consecutive cells of a column. This is faster than a walker: the style
+     * is registered once, and there is no dispatch per cell.
+     *
+     * @param rowIndex the index of the first row
+     * @param colIndex the column index
+     * @param values   the values
+     * @param style    the style of the cells, or null
+     * @throws IOException if a row was flushed
+     */
+    public void setColumnValues(final int rowIndex, final int colIndex, final double[] values,
+                                final TableCellStyle style) throws IOException {
+        this.builder.setColumnValues(this, this.appender, rowIndex, colIndex, values, style);
+    }
+
+    /**
+     * Append rows after the last row. Strings and numbers are set directly, null values leave
+     * the cell empty, and other values are converted by an `ObjectToCellValueConverter`. The
+     * currency is the currency of the data styles of the document.
+     *
+     * @param rows the values of the rows
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendRows(final Object[][] rows) throws IOException {
+        this.builder.appendRows(this, this.appender, rows);
+    }
+
+    /**
+     * Append rows after the last row. Strings and numbers are set directly, null values leave
+     * the cell empty, and other values are converted by the converter.
+     *
+     * @param rows      the values of the rows
+     * @param converter the converter for the values that are not strings or numbers
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendRows(final Object[][] rows, final ToCellValueConverter converter)
+            throws IOException {
+        this.builder.appendRows(this, this.appender, rows, converter);
+    }
+
     /**
      * @return a CellWalker on the row
      * @throws IOException if the first row was flushed
@@ -314,6 +384,74 @@ public class Table implements NamedObject, FrameContent {
         this.builder.setAttribute(attribute, value);
     }
 
+    /**
+     * Enable or disable the row recycling mode (streaming only). In this mode, the rows and
+     * the cells are reused once they were flushed, to avoid allocations. This is only safe for
+     * forward-only producers: the caller must not keep any reference on a row, a cell or a
+     * walker position that was flushed.
+     *
+     * @param rowRecycling true to enable the row recycling mode
+     */
+    public void setRowRecycling(final boolean rowRecycling) {
+        this.builder.setRowRecycling(rowRecycling);
+    }
+
+    /**
+     * Set the policy that decides when the rows are flushed (streaming only). The default policy
+     * flushes the rows every 8192 rows. Use {@code FlushPolicy.byteBudget} or
+     * {@code FlushPolicy.heapFraction} for tables with large rows.
+     *
+     * @param flushPolicy the policy
+     */
+    public void setFlushPolicy(final FlushPolicy flushPolicy) {
+        this.builder.setFlushPolicy(flushPolicy);
+    }
+
+    /**
+     * Set the executor that serializes the flushed rows (streaming only). The producer thread
+     * only fills the rows: each block of rows is serialized by the executor, and the blocks are
+     * written in order. This is useful with a writer adapter, whose writer thread waits for the
+     * blocks; with a direct writer, the producer waits for each block. The rows must not be
+     * modified once flushed, and the row recycling mode is disabled.
+     *
+     * @param rowsExecutor the executor, or null to serialize the rows on the producer thread
+     */
+    public void setRowsExecutor(final Executor rowsExecutor) {
+        this.builder.setRowsExecutor(rowsExecutor);
+    }
+
+    /**
+     * Declare the types and styles of the first columns. The effective style of each typed
+     * column is computed once: a cell without explicit style that receives a value of the
+     * column type takes this style (the data style of the spec wins over the implicit data
+     * style), and is written without further lookup. A row with a default cell style ignores
+     * the schema.
+     * <p>
+     * The styles are fixed when the schema is set: a default cell style of a column set
+     * afterwards is ignored by the typed cells (set the schema again), and a default cell style
+     * of a row set after the values does not change the styles of the cells that already have
+     * a value. A cell that receives a value of another type drops the schema style of the
+     * previous type.
+     *
+     * @param specs the specs, a null spec for an untyped column
+     * @throws IOException declared by the XML util that builds the XML prefixes of the columns.
+     *                     The prefixes are built in memory: not thrown in practice.
+     */
+    public void setColumnSchema(final ColumnSpec... specs) throws IOException {
+        this.builder.setColumnSchema(specs);
+    }
+
+    /**
+     * Set a pool for the string values of the cells: equal values will share the same instance
+     * and the same escaped form. A column spec may define its own pool. To pool the values of a
+     * whole document, give the same pool to every table.
+     *
+     * @param stringPool the pool, or null to disable the pooling
+     */
+    public void setStringPool(final StringPool stringPool) {
+        this.builder.setStringPool(stringPool);
+    }
+
     /**
      * Set a config item
      *
@@ -30,7 +30,6 @@ import com.github.jferard.fastods.util.XMLUtil;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 /**
  * OpenDocument 9.1.2 table:table
@@ -103,13 +102,7 @@ class TableAppender {
         util.appendEAttribute(appendable, "table:name", this.builder.getName());
         util.appendEAttribute(appendable, "table:style-name", this.builder.getStyleName());
         util.appendAttribute(appendable, "table:print", false);
-        final Map<String, CharSequence> customValueByAttribute =
-                this.builder.getCustomValueByAttribute();
-        if (customValueByAttribute != null) {
-            for (final Map.Entry<String, CharSequence> entry : customValueByAttribute.entrySet()) {
-                util.appendAttribute(appendable, entry.getKey(), entry.getValue());
-            }
-        }
+        this.builder.getCustomAttributes().appendAttributes(util, appendable);
         appendable.append(">");
         this.appendForms(util, appendable, this.builder.getForms());
         this.appendColumns(util, appendable, this.builder.getColumns());
@@ -232,17 +225,22 @@ class TableAppender {
             this.nullFieldCounter = 0;
         }
 
+        final RepeatedRowsAppender rowsAppender = new RepeatedRowsAppender(util, appendable);
         final int size = this.builder.getTableRowsUsedSize();
         for (int r = firstRowIndex; r < size; r++) {
             final TableRowImpl tr = this.builder.getTableRow(r);
-            if (tr == null) {
-                this.nullFieldCounter++;
+            if (tr == null) { // skip the unallocated segments
+                rowsAppender.flush();
+                final int nextIndex = this.builder.getNextTableRowIndex(r + 1);
+                this.nullFieldCounter += nextIndex - r;
+                r = nextIndex - 1;
             } else {
                 this.appendRepeatedRows(util, appendable);
-                tr.appendXMLToTable(util, appendable);
+                rowsAppender.appendRow(tr);
                 this.nullFieldCounter = 0;
             }
         }
+        rowsAppender.flush();
     }
 
     private void appendRepeatedRows(final XMLUtil util, final Appendable appendable)
@@ -251,12 +249,7 @@ class TableAppender {
             return;
         }
 
-        appendable.append("<table:table-row");
-        if (this.nullFieldCounter > 1) {
-            util.appendAttribute(appendable, "table:number-rows-repeated", this.nullFieldCounter);
-        }
-        util.appendAttribute(appendable, "table:style-name", "ro1");
-        appendable.append("><table:table-cell/></table:table-row>");
+        TableRowImpl.appendBlankRows(util, appendable, this.nullFieldCounter);
         this.nullFieldCounter = 0;
     }
 
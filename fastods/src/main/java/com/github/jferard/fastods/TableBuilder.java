@@ -24,6 +24,8 @@
 
 package com.github.jferard.fastods;
 
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.datastyle.DataStyle;
 import com.github.jferard.fastods.datastyle.DataStyles;
 import com.github.jferard.fastods.odselement.OdsElements;
 import com.github.jferard.fastods.odselement.StylesContainer;
@@ -36,16 +38,18 @@ import com.github.jferard.fastods.ref.PositionUtil;
 import com.github.jferard.fastods.style.TableCellStyle;
 import com.github.jferard.fastods.style.TableColumnStyle;
 import com.github.jferard.fastods.style.TableStyle;
+import com.github.jferard.fastods.util.AttributeSet;
 import com.github.jferard.fastods.util.FastFullList;
+import com.github.jferard.fastods.util.SegmentedFullList;
+import com.github.jferard.fastods.util.StringPool;
 import com.github.jferard.fastods.util.WriteUtil;
 import com.github.jferard.fastods.util.XMLUtil;
 
 import java.io.IOException;
 import java.text.ParseException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * OpenDocument 9.1.2 table:table
@@ -54,11 +58,6 @@ import java.util.Map;
  * @author Martin Schulz
  */
 class TableBuilder {
-    /**
-     * The size of the buffer
-     */
-    private static final int BUFFER_SIZE = 8 * 1024;
-
     private static void checkCol(final int col) {
         if (col < 0) {
             throw new IllegalArgumentException(
@@ -117,21 +116,24 @@ class TableBuilder {
         configEntry.add(ConfigItem.create(ConfigElement.POSITION_BOTTOM, "0"));
 
         return new TableBuilder(positionUtil, writeUtil, xmlUtil, stylesContainer, format,
-                libreOfficeMode, name, rowCapacity, columnCapacity, configEntry, BUFFER_SIZE);
+                libreOfficeMode, name, rowCapacity, columnCapacity, configEntry,
+                FlushPolicy.DEFAULT_MAX_ROW_COUNT);
     }
 
-    private final int bufferSize;
     private final int columnCapacity;
     private final ConfigItemMapEntrySet configEntry;
     private final DataStyles format;
     private final PositionUtil positionUtil;
     private final StylesContainer stylesContainer;
-    private final FastFullList<TableRowImpl> tableRows;
+    private final SegmentedFullList<TableRowImpl> tableRows;
     private final FastFullList<TableColumnImpl> tableColumns;
     private final WriteUtil writeUtil;
     private final XMLUtil xmlUtil;
     private final boolean libreOfficeMode;
     private final List<XMLConvertible> forms;
+    private final ChildCellStyleCache childCellStyleCache;
+    private final ColumnSchema columnSchema;
+    private final CellFragmentCache cellFragmentCache;
     private boolean tablePreambleWritten;
     private NamedOdsFileWriter observer;
     private int curRowIndex;
@@ -140,7 +142,14 @@ class TableBuilder {
     private String name;
     private TableStyle style;
     private final List<Shape> shapes;
-    private Map<String, CharSequence> customValueByAttribute;
+    private AttributeSet customAttributes;
+    private TableRowPool rowPool;
+    private TableRowWriter rowWriter;
+    private FlushPolicy flushPolicy;
+    private ToCellValueConverter defaultConverter;
+    private Executor rowsExecutor;
+    private int accountedRowIndex;
+    private long bufferedSize;
 
     /**
      * Create a new table builder
@@ -155,7 +164,7 @@ class TableBuilder {
      * @param rowCapacity     the row capacity of the table
      * @param columnCapacity  the column capacity of the table
      * @param configEntry     the config
-     * @param bufferSize      the buffer size
+     * @param bufferSize      the buffer size (in rows)
      */
     TableBuilder(final PositionUtil positionUtil, final WriteUtil writeUtil, final XMLUtil xmlUtil,
                  final StylesContainer stylesContainer, final DataStyles format,
@@ -173,13 +182,17 @@ class TableBuilder {
         this.configEntry = configEntry;
         this.style = TableStyle.DEFAULT_TABLE_STYLE;
         this.tableColumns = FastFullList.newListWithCapacity(this.columnCapacity);
-        this.tableRows = FastFullList.newListWithCapacity(rowCapacity);
+        this.tableRows = SegmentedFullList.newListWithCapacity(rowCapacity);
         this.curRowIndex = -1;
         this.lastFlushedRowIndex = 0;
         this.lastRowIndex = -1;
-        this.bufferSize = bufferSize;
+        this.flushPolicy = FlushPolicy.rowCount(bufferSize);
         this.tablePreambleWritten = false;
         this.forms = new ArrayList<XMLConvertible>();
+        this.childCellStyleCache = new ChildCellStyleCache(stylesContainer);
+        this.columnSchema = new ColumnSchema();
+        this.cellFragmentCache = new CellFragmentCache(CellFragmentCache.DEFAULT_CAPACITY);
+        this.customAttributes = AttributeSet.EMPTY;
         this.shapes = new ArrayList<Shape>();
     }
 
@@ -217,6 +230,9 @@ class TableBuilder {
         if (!this.tablePreambleWritten) {
             this.observer.update(new BeginTableFlusher(appender));
         }
+        if (this.rowWriter != null) {
+            this.rowWriter.close();
+        }
         this.observer.update(new EndTableFlusher(appender,
                 this.tableRows.subList(this.lastFlushedRowIndex, this.tableRows.usedSize())));
     }
@@ -239,9 +255,51 @@ class TableBuilder {
      * @return the number of rows
      */
     public int getRowCount() {
+        if (this.rowWriter != null) {
+            return this.rowWriter.rowIndex();
+        }
         return this.tableRows.usedSize();
     }
 
+    /**
+     * Flush the existing rows and return a forward-only writer for the next rows.
+     *
+     * @param table    the table
+     * @param appender the appender
+     * @return the row writer
+     * @throws IOException if an I/O error occurs, or if there is no file writer
+     */
+    public TableRowWriter rowWriter(final Table table, final TableAppender appender)
+            throws IOException {
+        if (this.rowWriter != null) {
+            return this.rowWriter;
+        }
+        if (this.observer == null) {
+            throw new IOException(
+                    "Can't write rows of a table from an anonymous writer (there is no file)");
+        }
+
+        if (!this.tablePreambleWritten) {
+            this.asyncFlushBeginTable(appender);
+        }
+        final int rowCount = this.tableRows.usedSize();
+        if (this.lastFlushedRowIndex < rowCount) {
+            this.observer.update(this.createRowsFlusher(
+                    this.tableRows.subList(this.lastFlushedRowIndex, rowCount)));
+            this.tableRows.releaseBefore(rowCount);
+            this.lastFlushedRowIndex = rowCount;
+            this.bufferedSize = 0;
+        }
+        final TableRowPool pool = new TableRowPool();
+        final TableRowImpl row = new TableRowImpl(this.writeUtil, this.xmlUtil,
+                this.stylesContainer, this.format, this.libreOfficeMode, table, rowCount,
+                this.columnCapacity, pool, this.childCellStyleCache, this.columnSchema,
+                this.cellFragmentCache);
+        this.rowWriter = new TableRowWriter(this.observer, this.xmlUtil, this.format, pool, row,
+                rowCount);
+        return this.rowWriter;
+    }
+
     /**
      * get a row from a table
      *
@@ -278,10 +336,15 @@ class TableBuilder {
     private TableRowImpl getRowSecure(final Table table, final TableAppender appender,
                                       final int rowIndex, final boolean updateRowIndex)
             throws IOException {
+        if (this.rowWriter != null) {
+            throw new IllegalStateException("The rows are written by a row writer");
+        }
+        if (this.tableRows.isReleased(rowIndex)) {
+            throw new IOException("The row " + rowIndex + " was already flushed");
+        }
         TableRowImpl tr = this.tableRows.get(rowIndex);
         if (tr == null) {
-            tr = new TableRowImpl(this.writeUtil, this.xmlUtil, this.stylesContainer, this.format,
-                    this.libreOfficeMode, table, rowIndex, this.columnCapacity);
+            tr = this.createRow(table, rowIndex);
             this.tableRows.set(rowIndex, tr);
             if (rowIndex > this.lastRowIndex) {
                 this.lastRowIndex = rowIndex;
@@ -297,19 +360,38 @@ class TableBuilder {
         return tr;
     }
 
+    private TableRowImpl createRow(final Table table, final int rowIndex) {
+        if (this.rowPool != null) {
+            final TableRowImpl row = this.rowPool.pollRow();
+            if (row != null) {
+                row.reuse(this.rowPool, this.format, rowIndex);
+                return row;
+            }
+        }
+        return new TableRowImpl(this.writeUtil, this.xmlUtil, this.stylesContainer, this.format,
+                this.libreOfficeMode, table, rowIndex, this.columnCapacity, this.rowPool,
+                this.childCellStyleCache, this.columnSchema, this.cellFragmentCache);
+    }
+
     /**
-     * async flush if rowIndex % this.bufferSize == 0. If 0, async flush the begin of the table
-     * else if rowIndex is a multiple of this.bufferSize, flush the preprocessed rows
+     * If the preamble was not written, async flush the begin of the table, else if the flush
+     * policy says so, flush the preprocessed rows
      */
     private void asyncTryToFlush(final TableAppender appender, final int rowIndex)
             throws IOException {
         if (this.tablePreambleWritten) {
-            if (rowIndex > 0 && rowIndex % this.bufferSize == 0) {
-                final OdsAsyncFlusher preprocessedRowsFlusher = PreprocessedRowsFlusher
-                        .create(this.xmlUtil, new ArrayList<TableRowImpl>(
-                                this.tableRows.subList(this.lastFlushedRowIndex, rowIndex)));
-                this.observer.update(preprocessedRowsFlusher); // (0..1023), (1024..2047)
+            this.accountRowsBefore(rowIndex);
+            if (rowIndex > this.lastFlushedRowIndex &&
+                    this.flushPolicy.shouldFlush(rowIndex - this.lastFlushedRowIndex,
+                            this.bufferedSize)) {
+                this.observer.update(this.createRowsFlusher( // (0..1023), (1024..2047)
+                        this.tableRows.subList(this.lastFlushedRowIndex, rowIndex)));
+                if (this.rowPool != null && this.rowsExecutor == null) {
+                    this.recycleRows(this.lastFlushedRowIndex, rowIndex);
+                }
+                this.tableRows.releaseBefore(rowIndex);
                 this.lastFlushedRowIndex = rowIndex;
+                this.bufferedSize = 0;
             }
         } else {
             this.asyncFlushBeginTable(appender);
@@ -317,6 +399,250 @@ class TableBuilder {
         }
     }
 
+    /**
+     * @param rows the rows to flush
+     * @return a flusher for the rows, serialized now or by the rows executor
+     * @throws IOException never
+     */
+    private OdsAsyncFlusher createRowsFlusher(final List<TableRowImpl> rows) throws IOException {
+        final List<TableRowImpl> copy = new ArrayList<TableRowImpl>(rows);
+        if (this.rowsExecutor == null) {
+            return PreprocessedRowsFlusher.create(this.xmlUtil, copy);
+        } else {
+            return FutureRowsFlusher.create(this.rowsExecutor, copy);
+        }
+    }
+
+    /**
+     * Add the estimated sizes of the rows before rowIndex that were not accounted yet. Those
+     * rows are supposed to be (mostly) filled: a row is accounted once, and the later edits of
+     * the row are ignored (see FlushPolicy).
+     */
+    private void accountRowsBefore(final int rowIndex) {
+        final int fromIndex = Math.max(this.accountedRowIndex, this.lastFlushedRowIndex);
+        for (int r = fromIndex; r < rowIndex; r++) {
+            final TableRowImpl row = this.tableRows.get(r);
+            if (row != null) {
+                this.bufferedSize += row.getEstimatedSize();
+            }
+        }
+        if (rowIndex > this.accountedRowIndex) {
+            this.accountedRowIndex = rowIndex;
+        }
+    }
+
+    /**
+     * Set the policy that decides when the rows are flushed.
+     *
+     * @param flushPolicy the policy
+     */
+    public void setFlushPolicy(final FlushPolicy flushPolicy) {
+        this.flushPolicy = flushPolicy;
+    }
+
+    /**
+     * Set the executor that serializes the flushed rows (streaming only). If null, the rows
+     * are serialized by the producer thread. The rows are not recycled if an executor is set,
+     * since they may be serialized after the flush.
+     *
+     * @param rowsExecutor the executor or null
+     */
+    public void setRowsExecutor(final Executor rowsExecutor) {
+        this.rowsExecutor = rowsExecutor;
+    }
+
+    /**
+     * The rows were serialized: give them back to the pool
+     */
+    private void recycleRows(final int fromIndex, final int toIndex) {
+        for (int r = fromIndex; r < toIndex; r++) {
+            final TableRowImpl row = this.tableRows.get(r);
+            if (row != null) {
+                this.rowPool.release(row);
+            }
+        }
+    }
+
+    /**
+     * Enable or disable the row recycling mode. In this mode, the rows and the cells are reused
+     * once they are flushed. This is only safe for forward-only producers, that do not keep any
+     * reference on a row or a cell.
+     *
+     * @param rowRecycling true to enable the row recycling mode
+     */
+    public void setRowRecycling(final boolean rowRecycling) {
+        if (rowRecycling) {
+            if (this.rowPool == null) {
+                this.rowPool = new TableRowPool();
+            }
+        } else {
+            this.rowPool = null;
+        }
+    }
+
+    /**
+     * Bulk load: set float values in consecutive cells of a row. The style is registered once.
+     *
+     * @param table    the table
+     * @param appender the appender
+     * @param rowIndex the row index
+     * @param colIndex the index of the first cell
+     * @param values   the values
+     * @param style    the style of the cells, or null
+     * @throws IOException if an I/O error occurs
+     */
+    public void setRowValues(final Table table, final TableAppender appender, final int rowIndex,
+                             final int colIndex, final double[] values,
+                             final TableCellStyle style) throws IOException {
+        TableBuilder.checkCol(colIndex);
+        this.registerCellStyle(style);
+        this.getRow(table, appender, rowIndex).setFloatValues(colIndex, values, style);
+    }
+
+    /**
+     * Bulk load: set float values in consecutive cells of a column. The style is registered
+     * once.
+     *
+     * @param table    the table
+     * @param appender the appender
+     * @param rowIndex the index of the first row
+     * @param colIndex the column index
+     * @param values   the values
+     * @param style    the style of the cells, or null
+     * @throws IOException if an I/O error occurs
+     */
+    public void setColumnValues(final Table table, final TableAppender appender,
+                                final int rowIndex, final int colIndex, final double[] values,
+                                final TableCellStyle style) throws IOException {
+        TableBuilder.checkCol(colIndex);
+        this.registerCellStyle(style);
+        final int length = values.length;
+        for (int i = 0; i < length; i++) {
+            this.getRow(table, appender, rowIndex + i).setFloatValue(colIndex, values[i], style);
+        }
+    }
+
+    /**
+     * Bulk load: append rows after the last row, with a converter that uses the currency of
+     * the data styles.
+     *
+     * @param table    the table
+     * @param appender the appender
+     * @param rows     the values of the rows
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendRows(final Table table, final TableAppender appender, final Object[][] rows)
+            throws IOException {
+        if (this.defaultConverter == null) {
+            this.defaultConverter = new ObjectToCellValueConverter(
+                    this.format.getCurrencyDataStyle().getCurrencySymbol());
+        }
+        this.appendRows(table, appender, rows, this.defaultConverter);
+    }
+
+    /**
+     * Bulk load: append rows after the last row.
+     *
+     * @param table     the table
+     * @param appender  the appender
+     * @param rows      the values of the rows
+     * @param converter the converter for the values that are not strings or numbers
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendRows(final Table table, final TableAppender appender, final Object[][] rows,
+                           final ToCellValueConverter converter) throws IOException {
+        int rowIndex = this.getRowCount();
+        for (final Object[] values : rows) {
+            this.getRow(table, appender, rowIndex).setValues(0, values, converter);
+            rowIndex++;
+        }
+    }
+
+    private void registerCellStyle(final TableCellStyle style) {
+        if (style != null) {
+            this.stylesContainer.addContentFontFaceContainerStyle(style);
+        }
+    }
+
+    /**
+     * Set the types and styles of the columns. The effective cell style of each column is
+     * computed and registered once, hence a default cell style of a column set afterwards is
+     * ignored by the typed cells of this column.
+     *
+     * @param specs the specs of the first columns, a null spec for an untyped column
+     * @throws IOException declared by the XML util that builds the XML prefixes of the columns.
+     *                     The prefixes are built in memory: not thrown in practice.
+     */
+    public void setColumnSchema(final ColumnSpec... specs) throws IOException {
+        final int count = specs.length;
+        final TableCellStyle[] styles = new TableCellStyle[count];
+        for (int c = 0; c < count; c++) {
+            if (specs[c] != null) {
+                styles[c] = this.getSchemaCellStyle(c, specs[c]);
+            }
+        }
+        this.columnSchema.set(this.xmlUtil, specs, styles);
+    }
+
+    /**
+     * Set the string pool for the columns that don't have their own pool.
+     *
+     * @param stringPool the pool, or null to disable the pooling
+     */
+    public void setStringPool(final StringPool stringPool) {
+        this.columnSchema.setDefaultStringPool(stringPool);
+    }
+
+    /**
+     * @param colIndex the column index
+     * @param spec     the spec of the column
+     * @return the registered cell style of the cells of the column, or null if the cells keep
+     * the default style
+     */
+    private TableCellStyle getSchemaCellStyle(final int colIndex, final ColumnSpec spec) {
+        final TableCellStyle specCellStyle = spec.getCellStyle();
+        DataStyle dataStyle = spec.getDataStyle();
+        if (dataStyle == null) {
+            dataStyle = this.getImplicitDataStyle(spec.getType());
+        }
+        if (dataStyle == null) {
+            this.registerCellStyle(specCellStyle);
+            return specCellStyle;
+        }
+        final TableCellStyle cellStyle;
+        if (specCellStyle == null) {
+            cellStyle = this.findDefaultCellStyle(colIndex);
+        } else {
+            cellStyle = specCellStyle;
+        }
+        return this.childCellStyleCache.getChildCellStyle(cellStyle, dataStyle);
+    }
+
+    private DataStyle getImplicitDataStyle(final CellType type) {
+        switch (type) {
+            case BOOLEAN:
+                return this.format.getBooleanDataStyle();
+            case CURRENCY:
+                return this.format.getCurrencyDataStyle();
+            case DATE:
+                return this.format.getDateDataStyle();
+            case PERCENTAGE:
+                return this.format.getPercentageDataStyle();
+            case TIME:
+                return this.format.getTimeDataStyle();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @param rowIndex the first index
+     * @return the index of the first row that exists at or after rowIndex, or the used size
+     */
+    public int getNextTableRowIndex(final int rowIndex) {
+        return this.tableRows.nextIndex(rowIndex);
+    }
+
     /**
      * Get the current Table Style
      *
@@ -501,8 +827,7 @@ class TableBuilder {
             throws IOException {
         for (int r = rowIndex + 1; r < rowIndex + n; r++) {
             final TableRowImpl row = this.getRowSecure(table, appender, r, false);
-            final TableCell cell = row.getOrCreateCell(colIndex);
-            cell.setCovered();
+            row.coverCells(colIndex, colIndex + 1);
         }
     }
 
@@ -590,14 +915,14 @@ class TableBuilder {
      * @param value the value
      */
     public void setAttribute(final String attribute, final CharSequence value) {
-        if (this.customValueByAttribute == null) {
-            this.customValueByAttribute = new HashMap<String, CharSequence>();
-        }
-        this.customValueByAttribute.put(attribute, value);
+        this.customAttributes = this.customAttributes.with(attribute, value);
     }
 
-    public Map<String, CharSequence> getCustomValueByAttribute() {
-        return this.customValueByAttribute;
+    /**
+     * @return the custom attributes of the table
+     */
+    public AttributeSet getCustomAttributes() {
+        return this.customAttributes;
     }
 
     public List<XMLConvertible> getForms() {
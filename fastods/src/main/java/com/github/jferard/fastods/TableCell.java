@@ -112,6 +112,14 @@ public interface TableCell {
      */
     void setDateValue(Date date);
 
+    /**
+     * Set the date value of the cell. Type will be CellType.DATE and data style the
+     * default data style for date.
+     *
+     * @param epochMillis the number of milliseconds since 1970-01-01T00:00:00.000Z
+     */
+    void setDateValue(long epochMillis);
+
     /**
      * Set the float value of the cell. Type will be CellType.FLOAT and data style the
      * default data style for float.
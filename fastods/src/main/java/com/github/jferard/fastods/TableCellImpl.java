@@ -30,14 +30,14 @@ import com.github.jferard.fastods.datastyle.DataStyle;
 import com.github.jferard.fastods.datastyle.DataStyles;
 import com.github.jferard.fastods.odselement.StylesContainer;
 import com.github.jferard.fastods.style.TableCellStyle;
+import com.github.jferard.fastods.util.DateTimeUtil;
+import com.github.jferard.fastods.util.StringPool;
 import com.github.jferard.fastods.util.WriteUtil;
 import com.github.jferard.fastods.util.XMLUtil;
 
 import java.io.IOException;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.TimeZone;
 
 /**
  * WHERE ? content.xml/office:document-content/office:body/office:spreadsheet/
@@ -48,26 +48,17 @@ import java.util.TimeZone;
  */
 public class TableCellImpl implements WritableTableCell {
     /**
-     * The default date format
+     * The estimated size of the type and value attributes, without the value itself
      */
-    final static SimpleDateFormat DATE_VALUE_FORMAT;
+    private static final int VALUE_SIZE_ESTIMATE = 40;
 
-    static {
-        /*
-         * XML Schema Part 2, 3.2.7 dateTime
-         * Z and UTC time zone for universal time.
-         */
-        DATE_VALUE_FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-        DATE_VALUE_FORMAT.setTimeZone(TimeZone.getTimeZone("UTC"));
-    }
-
-    private final TableRowImpl parentRow;
     private final WriteUtil writeUtil;
     private final XMLUtil xmlUtil;
     private final StylesContainer stylesContainer;
-    private final DataStyles dataStyles;
     private final boolean libreOfficeMode;
-    private final int columnIndex;
+    private TableRowImpl parentRow;
+    private DataStyles dataStyles;
+    private int columnIndex;
     private TableCellStyle style;
     private CellType type;
     private TableColdCell coldCell;
@@ -98,45 +89,197 @@ public class TableCellImpl implements WritableTableCell {
         this.columnIndex = columnIndex;
     }
 
+    /**
+     * Row recycling mode: remove the value, the style and the cold data of this cell.
+     */
+    void clear() {
+        this.style = null;
+        this.type = null;
+        this.coldCell = null;
+        this.value = null;
+    }
+
+    /**
+     * Row recycling mode: give a new position to a cleared cell.
+     *
+     * @param dataStyles  the styles
+     * @param parentRow   the parent row
+     * @param columnIndex index in parent row
+     */
+    void reuse(final DataStyles dataStyles, final TableRowImpl parentRow, final int columnIndex) {
+        this.dataStyles = dataStyles;
+        this.parentRow = parentRow;
+        this.columnIndex = columnIndex;
+    }
+
     @Override
     public void appendXMLToTableRow(final XMLUtil util, final Appendable appendable)
             throws IOException {
-        final boolean covered = this.isCovered();
+        this.appendXMLToTableRow(util, this.parentRow.getCellFragmentCache(), appendable, 1);
+    }
+
+    /**
+     * Append the XML of this cell, repeated.
+     *
+     * @param util            an util
+     * @param fragmentCache   the cache of the serializing thread
+     * @param appendable      the destination
+     * @param columnsRepeated the number of times the cell is repeated
+     * @throws IOException if an I/O error occurs
+     */
+    void appendXMLToTableRow(final XMLUtil util, final CellFragmentCache fragmentCache,
+                             final Appendable appendable, final int columnsRepeated)
+            throws IOException {
+        final boolean coldCovered = this.hasColdCell() && this.coldCell.isCovered();
+        final boolean covered =
+                coldCovered || this.parentRow.isInCoveredRange(this.columnIndex);
         if (covered) {
             appendable.append("<table:covered-table-cell");
         } else {
+            if (columnsRepeated == 1 && !this.hasColdCell()) {
+                this.appendPlainXMLToTableRow(util, fragmentCache, appendable);
+                return;
+            }
             appendable.append("<table:table-cell");
         }
+        if (columnsRepeated > 1) {
+            util.appendAttribute(appendable, "table:number-columns-repeated", columnsRepeated);
+        }
+        this.appendStyleAndValueAttributes(util, appendable, this.getWrittenStyle());
+        if (this.hasColdCell()) {
+            this.coldCell.appendXMLToTable(util, appendable);
+        } else {
+            appendable.append("/>");
+        }
+    }
+
+    /**
+     * Append the XML of a cell that has no cold cell, is not covered and is not repeated. The
+     * fragments of the small values are cached.
+     *
+     * @param util          an util
+     * @param fragmentCache the cache of the serializing thread
+     * @param appendable    the destination
+     * @throws IOException if an I/O error occurs
+     */
+    private void appendPlainXMLToTableRow(final XMLUtil util,
+                                          final CellFragmentCache fragmentCache,
+                                          final Appendable appendable) throws IOException {
+        if (fragmentCache.accepts(this.type, this.value)) {
+            final TableCellStyle writtenStyle = this.getWrittenStyle();
+            String fragment = fragmentCache.get(this.type, writtenStyle, this.value);
+            if (fragment == null &&
+                    fragmentCache.admits(this.type, writtenStyle, this.value)) {
+                final StringBuilder sb = new StringBuilder("<table:table-cell");
+                this.appendStyleAndValueAttributes(util, sb, writtenStyle);
+                fragment = sb.append("/>").toString();
+                fragmentCache.put(this.type, writtenStyle, this.value, fragment);
+            }
+            if (fragment != null) {
+                appendable.append(fragment);
+                return;
+            }
+        }
+
+        final String prefix =
+                this.parentRow.getSchemaPrefix(this.columnIndex, this.type, this.style);
+        if (prefix != null) { // the style and the type match the column schema
+            appendable.append(prefix);
+            this.appendEscapedValue(util, appendable);
+            appendable.append("\"/>");
+            return;
+        }
+        appendable.append("<table:table-cell");
+        this.appendStyleAndValueAttributes(util, appendable, this.getWrittenStyle());
+        appendable.append("/>");
+    }
 
+    /**
+     * Append the escaped value. The escaped form of a pooled string is cached, the other values
+     * are escaped while appending.
+     *
+     * @param util       an util
+     * @param appendable the destination
+     * @throws IOException if an I/O error occurs
+     */
+    private void appendEscapedValue(final XMLUtil util, final Appendable appendable)
+            throws IOException {
+        if (this.type == CellType.STRING) {
+            final StringPool stringPool = this.parentRow.getStringPool(this.columnIndex);
+            if (stringPool != null) {
+                appendable.append(stringPool.escapeXMLAttribute(util, this.value));
+                return;
+            }
+        }
+        util.appendEscapedAttribute(appendable, this.value);
+    }
+
+    /**
+     * @return the style whose name is written, or null
+     */
+    private TableCellStyle getWrittenStyle() {
         if (this.style != null) {
-            util.appendEAttribute(appendable, "table:style-name", this.style.getName());
+            return this.style;
         } else if (this.libreOfficeMode) {
             // looks for a parent style to set
-            util.appendEAttribute(appendable, "table:style-name", this.getCurCellStyle().getName());
+            return this.getCurCellStyle();
+        } else {
+            return null;
+        }
+    }
+
+    private void appendStyleAndValueAttributes(final XMLUtil util, final Appendable appendable,
+                                               final TableCellStyle writtenStyle)
+            throws IOException {
+        if (writtenStyle != null) {
+            util.appendEAttribute(appendable, "table:style-name", writtenStyle.getName());
         }
 
         if (this.type != null) {
             util.appendAttribute(appendable, "office:value-type", this.type);
-            util.appendEAttribute(appendable, this.type.getValueAttribute(), this.value);
+            appendable.append(' ').append(this.type.getValueAttribute()).append("=\"");
+            this.appendEscapedValue(util, appendable);
+            appendable.append('"');
             if (this.type == CellType.CURRENCY) {
                 final String currency = this.getCurrency();
                 util.appendEAttribute(appendable, "office:currency", currency);
             }
         }
+    }
 
-        if (this.hasColdCell()) {
-            this.coldCell.appendXMLToTable(util, appendable);
-        } else {
-            appendable.append("/>");
+    /**
+     * @param other the next cell
+     * @return true if both cells have the same XML, and can be written as one repeated cell
+     */
+    boolean isRepeatedBy(final TableCellImpl other) {
+        if (this.hasColdCell() || other.hasColdCell() || this.type != other.type ||
+                this.value == null || !this.value.equals(other.value)) {
+            return false;
+        }
+        if (this.style != null || other.style != null || this.libreOfficeMode) {
+            return this.getStyleName().equals(other.getStyleName());
         }
+        return true;
+    }
+
+    private String getStyleName() {
+        final TableCellStyle writtenStyle = this.getWrittenStyle();
+        if (writtenStyle == null) {
+            return "";
+        }
+        return writtenStyle.getName();
     }
 
     @Override
     public boolean isCovered() {
-        return this.hasColdCell() && this.coldCell.isCovered();
+        return this.hasColdCell() && this.coldCell.isCovered() ||
+                this.parentRow.isInCoveredRange(this.columnIndex);
     }
 
-    private boolean hasColdCell() {
+    /**
+     * @return true if this cell has a cold cell (e.g. a formula, a tooltip, a span)
+     */
+    boolean hasColdCell() {
         return this.coldCell != null;
     }
 
@@ -187,8 +330,7 @@ public class TableCellImpl implements WritableTableCell {
 
     @Override
     public void setBooleanValue(final boolean value) {
-        this.value = value ? "true" : "false";
-        this.type = CellType.BOOLEAN;
+        this.setValue(CellType.BOOLEAN, value ? "true" : "false");
         this.setImplicitDataStyle(this.dataStyles.getBooleanDataStyle());
     }
 
@@ -208,8 +350,7 @@ public class TableCellImpl implements WritableTableCell {
     }
 
     private void setCurrencyValue(final String valueAsString, final String currency) {
-        this.value = valueAsString;
-        this.type = CellType.CURRENCY;
+        this.setValue(CellType.CURRENCY, valueAsString);
         this.setImplicitDataStyle(this.dataStyles.getCurrencyDataStyle());
 
         this.ensureColdCell();
@@ -229,6 +370,19 @@ public class TableCellImpl implements WritableTableCell {
     private void ensureColdCell() {
         if (this.coldCell == null) {
             this.coldCell = TableColdCell.create(this.xmlUtil);
+            if (this.parentRow.isInCoveredRange(this.columnIndex)) {
+                this.coldCell.setCovered();
+            }
+        }
+    }
+
+    /**
+     * Called when the cell is covered by a range of the row: the cold cell, if any, is covered
+     * (a cold cell created later will be covered on creation).
+     */
+    void coverColdCell() {
+        if (this.hasColdCell()) {
+            this.coldCell.setCovered();
         }
     }
 
@@ -238,14 +392,13 @@ public class TableCellImpl implements WritableTableCell {
             return;
         }
 
-        this.stylesContainer.addDataStyle(dataStyle);
+        final ChildCellStyleCache cache = this.parentRow.getChildCellStyleCache();
         final TableCellStyle curStyle = this.getCurCellStyle();
         final DataStyle curDataStyle = curStyle.getDataStyle();
         if (curDataStyle == null) { // no data style yet: create a custom child style
-            this.style = this.stylesContainer.addChildCellStyle(curStyle, dataStyle);
+            this.style = cache.getChildCellStyle(curStyle, dataStyle);
         } else { // a style and a data style => create a custom sibling cell style
-            this.style = this.stylesContainer
-                    .addChildCellStyle(curStyle.getParentCellStyle(), dataStyle);
+            this.style = cache.getChildCellStyle(curStyle.getParentCellStyle(), dataStyle);
         }
     }
 
@@ -259,17 +412,18 @@ public class TableCellImpl implements WritableTableCell {
      */
     private void setImplicitDataStyle(final DataStyle dataStyle) {
         assert dataStyle != null;
+        if (this.style != null &&
+                this.style == this.parentRow.getSchemaCellStyle(this.columnIndex, this.type)) {
+            return; // the data style of the column schema wins
+        }
 
+        final ChildCellStyleCache cache = this.parentRow.getChildCellStyleCache();
         final TableCellStyle curStyle = this.getCurCellStyle();
         final DataStyle curDataStyle = curStyle.getDataStyle();
         if (curDataStyle == null) { // no data style yet: create a custom child style
-            this.stylesContainer.addDataStyle(dataStyle);
-            this.style = this.stylesContainer.addChildCellStyle(curStyle, dataStyle);
+            this.style = cache.getChildCellStyle(curStyle, dataStyle);
         } else {
-            // TODO: Can't we add this on first style use, once for all?
-            this.stylesContainer.addDataStyle(curDataStyle);
-            this.style = this.stylesContainer
-                    .addChildCellStyle(curStyle.getParentCellStyle(), curDataStyle);
+            this.style = cache.getChildCellStyle(curStyle.getParentCellStyle(), curDataStyle);
         }
     }
 
@@ -288,22 +442,43 @@ public class TableCellImpl implements WritableTableCell {
 
     @Override
     public void setDateValue(final Calendar cal) {
-        this.setDateValue(cal.getTime());
+        this.setDateValue(cal.getTimeInMillis());
     }
 
     @Override
     public void setDateValue(final Date value) {
-        this.value = TableCellImpl.DATE_VALUE_FORMAT.format(value);
-        this.type = CellType.DATE;
+        this.setDateValue(value.getTime());
+    }
+
+    @Override
+    public void setDateValue(final long epochMillis) {
+        /*
+         * XML Schema Part 2, 3.2.7 dateTime
+         * Z and UTC time zone for universal time.
+         */
+        this.setValue(CellType.DATE, DateTimeUtil.formatDateTime(epochMillis));
         this.setImplicitDataStyle(this.dataStyles.getDateDataStyle());
     }
 
     private void setFloatValue(final String valueAsString) {
-        this.value = valueAsString;
-        this.type = CellType.FLOAT;
+        this.setValue(CellType.FLOAT, valueAsString);
 //        this.setImplicitDataStyle(this.dataStyles.getFloatDataStyle());
     }
 
+    /**
+     * Bulk load: set a float value and a style that was already registered in the styles
+     * container.
+     *
+     * @param value           the value
+     * @param registeredStyle the style, or null
+     */
+    void setFloatValue(final double value, final TableCellStyle registeredStyle) {
+        this.setFloatValue(Double.toString(value));
+        if (registeredStyle != null) {
+            this.applyStyle(registeredStyle);
+        }
+    }
+
     @Override
     public void setFloatValue(final float value) {
         this.setFloatValue(Float.toString(value));
@@ -325,8 +500,7 @@ public class TableCellImpl implements WritableTableCell {
     }
 
     private void setPercentageValue(final String valueAsString) {
-        this.value = valueAsString;
-        this.type = CellType.PERCENTAGE;
+        this.setValue(CellType.PERCENTAGE, valueAsString);
         this.setImplicitDataStyle(this.dataStyles.getPercentageDataStyle());
     }
 
@@ -342,8 +516,12 @@ public class TableCellImpl implements WritableTableCell {
 
     @Override
     public void setStringValue(final String value) {
-        this.value = value;
-        this.type = CellType.STRING;
+        final StringPool stringPool = this.parentRow.getStringPool(this.columnIndex);
+        if (stringPool == null) {
+            this.setValue(CellType.STRING, value);
+        } else {
+            this.setValue(CellType.STRING, stringPool.intern(value));
+        }
     }
 
     @Override
@@ -353,7 +531,15 @@ public class TableCellImpl implements WritableTableCell {
         }
 
         this.stylesContainer.addContentFontFaceContainerStyle(style);
+        this.applyStyle(style);
+    }
 
+    /**
+     * Set a style that was already registered in the styles container.
+     *
+     * @param style the style, not null
+     */
+    private void applyStyle(final TableCellStyle style) {
         final TableCellStyle curStyle = this.style;
 
         if (curStyle == null) { // we know that data style is null
@@ -372,8 +558,7 @@ public class TableCellImpl implements WritableTableCell {
     public void setText(final Text text) {
         this.ensureColdCell();
         this.coldCell.setText(text);
-        this.value = "";
-        this.type = CellType.STRING;
+        this.setValue(CellType.STRING, "");
         text.addEmbeddedStylesFromCell(this.stylesContainer);
     }
 
@@ -390,31 +575,31 @@ public class TableCellImpl implements WritableTableCell {
 
     @Override
     public void setTimeValue(final long timeInMillis) {
+        final String valueAsString;
         if (timeInMillis < 0) {
-            this.value = this.xmlUtil
+            valueAsString = this.xmlUtil
                     .formatNegTimeInterval(0, 0, 0, 0, 0, (double) -timeInMillis / 1000);
         } else {
-            this.value =
+            valueAsString =
                     this.xmlUtil.formatTimeInterval(0, 0, 0, 0, 0, (double) timeInMillis / 1000);
         }
-        this.type = CellType.TIME;
+        this.setValue(CellType.TIME, valueAsString);
         this.setImplicitDataStyle(this.dataStyles.getTimeDataStyle());
     }
 
     @Override
     public void setTimeValue(final long years, final long months, final long days, final long hours,
                              final long minutes, final double seconds) {
-        this.value = this.xmlUtil.formatTimeInterval(years, months, days, hours, minutes, seconds);
-        this.type = CellType.TIME;
+        this.setValue(CellType.TIME,
+                this.xmlUtil.formatTimeInterval(years, months, days, hours, minutes, seconds));
         this.setImplicitDataStyle(this.dataStyles.getTimeDataStyle());
     }
 
     @Override
     public void setNegTimeValue(final long years, final long months, final long days,
                                 final long hours, final long minutes, final double seconds) {
-        this.value =
-                this.xmlUtil.formatNegTimeInterval(years, months, days, hours, minutes, seconds);
-        this.type = CellType.TIME;
+        this.setValue(CellType.TIME,
+                this.xmlUtil.formatNegTimeInterval(years, months, days, hours, minutes, seconds));
         this.setImplicitDataStyle(this.dataStyles.getTimeDataStyle());
     }
 
@@ -438,10 +623,41 @@ public class TableCellImpl implements WritableTableCell {
         this.coldCell.setTooltip(tooltip);
     }
 
+    /**
+     * Set the value and the type, and update the estimated size of the parent row. A cell
+     * without explicit style takes the schema style of the new type: the schema style of the
+     * previous type is dropped.
+     *
+     * @param type          the new type
+     * @param valueAsString the new value
+     */
+    private void setValue(final CellType type, final String valueAsString) {
+        this.parentRow.addEstimatedSize(
+                TableCellImpl.estimateSize(valueAsString) - TableCellImpl.estimateSize(this.value));
+        this.value = valueAsString;
+        final CellType previousType = this.type;
+        this.type = type;
+        if (this.style == null || previousType != type &&
+                this.style == this.parentRow.getSchemaCellStyle(this.columnIndex, previousType)) {
+            this.style = this.parentRow.getSchemaCellStyle(this.columnIndex, type);
+        }
+    }
+
+    /**
+     * @param valueAsString the value
+     * @return a cheap estimation of the serialized size of the value, including the type
+     * attributes
+     */
+    private static int estimateSize(final String valueAsString) {
+        if (valueAsString == null) {
+            return 0;
+        }
+        return VALUE_SIZE_ESTIMATE + valueAsString.length();
+    }
+
     @Override
     public void setVoidValue() {
-        this.value = "";
-        this.type = CellType.VOID;
+        this.setValue(CellType.VOID, "");
     }
 
     @Override
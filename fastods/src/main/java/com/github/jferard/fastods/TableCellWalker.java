@@ -219,6 +219,11 @@ public class TableCellWalker implements RowCellWalker, TableRowWalker, TableColu
         this.cell.setDateValue(cal);
     }
 
+    @Override
+    public void setDateValue(final long epochMillis) {
+        this.cell.setDateValue(epochMillis);
+    }
+
     @Override
     public void setFloatValue(final float value) {
         this.cell.setFloatValue(value);
@@ -25,12 +25,11 @@
 package com.github.jferard.fastods;
 
 import com.github.jferard.fastods.attribute.Length;
+import com.github.jferard.fastods.util.AttributeSet;
 import com.github.jferard.fastods.util.SVGRectangle;
 import com.github.jferard.fastods.util.XMLUtil;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * 9.1.4 table:table-cell
@@ -60,7 +59,7 @@ class TableColdCell {
     private String formula;
     private int matrixRowsSpanned;
     private int matrixColumnsSpanned;
-    private Map<String, CharSequence> customValueByAttribute;
+    private AttributeSet customAttributes;
 
     /**
      * Create an new "cold cell"
@@ -69,6 +68,7 @@ class TableColdCell {
      */
     TableColdCell(final XMLUtil xmlUtil) {
         this.xmlUtil = xmlUtil;
+        this.customAttributes = AttributeSet.EMPTY;
     }
 
     /**
@@ -172,11 +172,7 @@ class TableColdCell {
             }
         }
 
-        if (this.customValueByAttribute != null) {
-            for (final Map.Entry<String, CharSequence> entry : this.customValueByAttribute.entrySet()) {
-                util.appendAttribute(appendable, entry.getKey(), entry.getValue());
-            }
-        }
+        this.customAttributes.appendAttributes(util, appendable);
 
         if (this.text == null && this.tooltip == null) {
             appendable.append("/>");
@@ -242,9 +238,6 @@ class TableColdCell {
     }
 
     public void setAttribute(final String attribute, final CharSequence value) {
-        if (this.customValueByAttribute == null) {
-            this.customValueByAttribute = new HashMap<String, CharSequence>();
-        }
-        this.customValueByAttribute.put(attribute, value);
+        this.customAttributes = this.customAttributes.with(attribute, value);
     }
 }
@@ -26,12 +26,11 @@ package com.github.jferard.fastods;
 
 import com.github.jferard.fastods.style.TableCellStyle;
 import com.github.jferard.fastods.style.TableColumnStyle;
+import com.github.jferard.fastods.util.AttributeSet;
 import com.github.jferard.fastods.util.EqualityUtil;
 import com.github.jferard.fastods.util.XMLUtil;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * 9.1.6 <table:table-column>
@@ -49,7 +48,7 @@ public class TableColumnImpl implements TableColumn {
 
     private TableColumnStyle columnStyle;
     private TableCellStyle defaultCellStyle;
-    private Map<String, CharSequence> customValueByAttribute;
+    private AttributeSet customAttributes = AttributeSet.EMPTY;
 
     @Override
     public void setColumnStyle(final TableColumnStyle columnStyle) {
@@ -58,10 +57,7 @@ public class TableColumnImpl implements TableColumn {
 
     @Override
     public void setColumnAttribute(final String attribute, final CharSequence value) {
-        if (this.customValueByAttribute == null) {
-            this.customValueByAttribute = new HashMap<String, CharSequence>();
-        }
-        this.customValueByAttribute.put(attribute, value);
+        this.customAttributes = this.customAttributes.with(attribute, value);
     }
 
     public TableCellStyle getColumnDefaultCellStyle() {
@@ -91,12 +87,7 @@ public class TableColumnImpl implements TableColumn {
         }
         util.appendEAttribute(appendable, "table:default-cell-style-name",
                 this.getDefaultCellStyleName());
-        if (this.customValueByAttribute != null) {
-            for (final Map.Entry<String, CharSequence> entry : this.customValueByAttribute
-                    .entrySet()) {
-                util.appendAttribute(appendable, entry.getKey(), entry.getValue());
-            }
-        }
+        this.customAttributes.appendAttributes(util, appendable);
         appendable.append("/>");
     }
 
@@ -126,13 +117,13 @@ public class TableColumnImpl implements TableColumn {
         }
         final TableColumnImpl other = (TableColumnImpl) o;
         return EqualityUtil.equal(this.columnStyle, other.columnStyle) &&
-                EqualityUtil.equal(this.customValueByAttribute, other.customValueByAttribute) &&
+                this.customAttributes.equals(other.customAttributes) &&
                 EqualityUtil.equal(this.defaultCellStyle, other.defaultCellStyle);
     }
 
     @Override
     public int hashCode() {
         return EqualityUtil
-                .hashObjects(this.columnStyle, this.customValueByAttribute, this.defaultCellStyle);
+                .hashObjects(this.columnStyle, this.customAttributes, this.defaultCellStyle);
     }
 }
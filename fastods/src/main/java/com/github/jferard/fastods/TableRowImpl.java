@@ -24,17 +24,18 @@
 
 package com.github.jferard.fastods;
 
+import com.github.jferard.fastods.attribute.CellType;
 import com.github.jferard.fastods.datastyle.DataStyles;
 import com.github.jferard.fastods.odselement.StylesContainer;
 import com.github.jferard.fastods.style.TableCellStyle;
 import com.github.jferard.fastods.style.TableRowStyle;
-import com.github.jferard.fastods.util.FastFullList;
+import com.github.jferard.fastods.util.AttributeSet;
+import com.github.jferard.fastods.util.SegmentedFullList;
+import com.github.jferard.fastods.util.StringPool;
 import com.github.jferard.fastods.util.WriteUtil;
 import com.github.jferard.fastods.util.XMLUtil;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * 9.1.3 <table:table-row>
@@ -46,7 +47,7 @@ public class TableRowImpl implements TableRow {
     /**
      * Append the XML corresponding to a given row to the appendable
      *
-     * @param row        a TableRow
+     * @param row        a TableRow, or null for a blank row
      * @param xmlUtil    an instance of xml util
      * @param appendable where to append the row XML
      * @throws IOException if an error occurs
@@ -54,24 +55,79 @@ public class TableRowImpl implements TableRow {
     public static void appendXMLToTable(final TableRowImpl row, final XMLUtil xmlUtil,
                                         final Appendable appendable) throws IOException {
         if (row == null) {
-            appendable.append("<row />");
+            TableRowImpl.appendBlankRows(xmlUtil, appendable, 1);
         } else {
             row.appendXMLToTable(xmlUtil, appendable);
         }
     }
 
+    /**
+     * Append the XML corresponding to a given row to the appendable
+     *
+     * @param row           a TableRow, or null for a blank row
+     * @param xmlUtil       an instance of xml util
+     * @param fragmentCache the cache of the serializing thread
+     * @param appendable    where to append the row XML
+     * @throws IOException if an error occurs
+     */
+    static void appendXMLToTable(final TableRowImpl row, final XMLUtil xmlUtil,
+                                 final CellFragmentCache fragmentCache,
+                                 final Appendable appendable) throws IOException {
+        if (row == null) {
+            TableRowImpl.appendBlankRows(xmlUtil, appendable, 1);
+        } else {
+            row.appendXMLToTable(xmlUtil, fragmentCache, appendable);
+        }
+    }
+
+    /**
+     * Append the XML of blank rows to the appendable
+     *
+     * @param xmlUtil    an instance of xml util
+     * @param appendable where to append the rows XML
+     * @param count      the number of blank rows
+     * @throws IOException if an error occurs
+     */
+    public static void appendBlankRows(final XMLUtil xmlUtil, final Appendable appendable,
+                                       final int count) throws IOException {
+        appendable.append("<table:table-row");
+        if (count > 1) {
+            xmlUtil.appendAttribute(appendable, "table:number-rows-repeated", count);
+        }
+        xmlUtil.appendAttribute(appendable, "table:style-name", "ro1");
+        appendable.append("><table:table-cell/></table:table-row>");
+    }
+
+    /**
+     * The estimated size of the row tags
+     */
+    private static final int ROW_SIZE_ESTIMATE = 40;
+    /**
+     * The estimated size of the cell tags and style, without the value
+     */
+    private static final int CELL_SIZE_ESTIMATE = 40;
+    /**
+     * The cells are stored in segments of 32 cells: a far cell does not allocate the whole row
+     */
+    private static final int CELL_SEGMENT_SHIFT = 5;
 
     private final Table parentTable;
-    private final int rowIndex;
     private final StylesContainer stylesContainer;
     private final WriteUtil writeUtil;
     private final XMLUtil xmlUtil;
-    private final FastFullList<WritableTableCell> cells;
+    private final SegmentedFullList<WritableTableCell> cells;
     private final boolean libreOfficeMode;
+    private TableRowPool pool;
+    private int rowIndex;
     private DataStyles dataStyles;
     private TableRowStyle rowStyle;
     private TableCellStyle defaultCellStyle;
-    private Map<String, CharSequence> customValueByAttribute;
+    private AttributeSet customAttributes;
+    private int estimatedSize;
+    private ColumnRanges coveredRanges;
+    private final ChildCellStyleCache childCellStyleCache;
+    private final ColumnSchema columnSchema;
+    private final CellFragmentCache cellFragmentCache;
 
     /**
      * Create a new TableRow
@@ -84,11 +140,17 @@ public class TableRowImpl implements TableRow {
      * @param parentTable     the parent table
      * @param rowIndex        the index of this row
      * @param columnCapacity  the max column
+     * @param pool            the pool for the row recycling mode, or null
+     * @param styleCache      the cache of the child cell styles of the table
+     * @param columnSchema    the column schema of the table
+     * @param fragmentCache   the cache of the cell fragments of the table
      */
     TableRowImpl(final WriteUtil writeUtil, final XMLUtil xmlUtil,
                  final StylesContainer stylesContainer, final DataStyles dataStyles,
                  final boolean libreOfficeMode, final Table parentTable, final int rowIndex,
-                 final int columnCapacity) {
+                 final int columnCapacity, final TableRowPool pool,
+                 final ChildCellStyleCache styleCache, final ColumnSchema columnSchema,
+                 final CellFragmentCache fragmentCache) {
         this.writeUtil = writeUtil;
         this.stylesContainer = stylesContainer;
         this.xmlUtil = xmlUtil;
@@ -97,7 +159,46 @@ public class TableRowImpl implements TableRow {
         this.parentTable = parentTable;
         this.rowIndex = rowIndex;
         this.rowStyle = TableRowStyle.DEFAULT_TABLE_ROW_STYLE;
-        this.cells = FastFullList.newListWithCapacity(columnCapacity);
+        this.cells = SegmentedFullList.newListWithCapacity(columnCapacity, CELL_SEGMENT_SHIFT);
+        this.pool = pool;
+        this.childCellStyleCache = styleCache;
+        this.columnSchema = columnSchema;
+        this.cellFragmentCache = fragmentCache;
+        this.customAttributes = AttributeSet.EMPTY;
+    }
+
+    /**
+     * Row recycling mode: clear this row and give its cells to the pool. The cell array is kept.
+     *
+     * @param pool the pool
+     */
+    void clear(final TableRowPool pool) {
+        final int size = this.cells.usedSize();
+        for (int c = this.cells.nextIndex(0); c < size; c = this.cells.nextIndex(c + 1)) {
+            final WritableTableCell cell = this.cells.get(c);
+            if (cell instanceof TableCellImpl) {
+                pool.releaseCell((TableCellImpl) cell);
+            }
+        }
+        this.cells.clear();
+        this.rowStyle = TableRowStyle.DEFAULT_TABLE_ROW_STYLE;
+        this.defaultCellStyle = null;
+        this.customAttributes = AttributeSet.EMPTY;
+        this.estimatedSize = 0;
+        this.coveredRanges = null;
+    }
+
+    /**
+     * Row recycling mode: give a new index to a cleared row.
+     *
+     * @param pool       the pool where the new cells will be taken
+     * @param dataStyles the data styles
+     * @param rowIndex   the new index of this row
+     */
+    void reuse(final TableRowPool pool, final DataStyles dataStyles, final int rowIndex) {
+        this.pool = pool;
+        this.dataStyles = dataStyles;
+        this.rowIndex = rowIndex;
     }
 
     /**
@@ -110,24 +211,80 @@ public class TableRowImpl implements TableRow {
      */
     public void appendXMLToTable(final XMLUtil util, final Appendable appendable)
             throws IOException {
+        this.appendXMLToTable(util, this.cellFragmentCache, appendable);
+    }
+
+    /**
+     * Write the XML dataStyles for this object.
+     *
+     * @param util          a util for XML writing
+     * @param fragmentCache the cache of the serializing thread
+     * @param appendable    where to write the XML
+     * @throws IOException If an I/O error occurs
+     */
+    void appendXMLToTable(final XMLUtil util, final CellFragmentCache fragmentCache,
+                          final Appendable appendable) throws IOException {
         this.appendRowOpenTag(util, appendable);
         int nullFieldCounter = 0;
 
-        final int size = this.cells.usedSize();
-        for (int c = 0; c < size; c++) {
+        final int size = this.getColumnCount();
+        int c = 0;
+        while (c < size) {
+            final int coveredEnd = this.getCoveredEnd(c);
             final WritableTableCell cell = this.cells.get(c);
-            if (this.hasNoValue(cell)) {
+            if (cell == null) { // skip the unallocated segments
+                final int nextCellIndex = this.getNextCellIndex(c, size);
+                if (coveredEnd == -1) {
+                    final int end = Math.min(nextCellIndex, this.getNextCoveredStart(c));
+                    nullFieldCounter += end - c;
+                    c = end;
+                } else {
+                    this.insertBlankCells(util, appendable, nullFieldCounter);
+                    nullFieldCounter = 0;
+                    final int end = Math.min(nextCellIndex, coveredEnd);
+                    this.insertCoveredCells(util, appendable, end - c);
+                    c = end;
+                }
+                continue;
+            } else if (coveredEnd == -1 && !cell.hasValue()) {
                 nullFieldCounter++;
+                c++;
                 continue;
             }
             this.insertBlankCells(util, appendable, nullFieldCounter);
             nullFieldCounter = 0;
-            cell.appendXMLToTableRow(util, appendable);
+            if (cell instanceof TableCellImpl) {
+                final int limit = coveredEnd == -1 ?
+                        Math.min(size, this.getNextCoveredStart(c)) : coveredEnd;
+                final int columnsRepeated =
+                        this.countRepeatedCells((TableCellImpl) cell, c, limit);
+                ((TableCellImpl) cell).appendXMLToTableRow(util, fragmentCache, appendable,
+                        columnsRepeated);
+                c += columnsRepeated;
+            } else {
+                cell.appendXMLToTableRow(util, appendable);
+                c++;
+            }
         }
 
         appendable.append("</table:table-row>");
     }
 
+    /**
+     * @return true if a cell of this row has a cold cell. Such a row is never repeated, as a
+     * cell with a cold cell is never repeated (see `TableCellImpl.isRepeatedBy`).
+     */
+    boolean hasColdCells() {
+        final int size = this.cells.usedSize();
+        for (int c = this.cells.nextIndex(0); c < size; c = this.cells.nextIndex(c + 1)) {
+            final WritableTableCell cell = this.cells.get(c);
+            if (cell instanceof TableCellImpl && ((TableCellImpl) cell).hasColdCell()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void appendRowOpenTag(final XMLUtil util, final Appendable appendable)
             throws IOException {
         appendable.append("<table:table-row");
@@ -138,13 +295,59 @@ public class TableRowImpl implements TableRow {
             util.appendEAttribute(appendable, "table:default-cell-style-name",
                     this.defaultCellStyle.getName());
         }
-        if (this.customValueByAttribute != null) {
-            for (final Map.Entry<String, CharSequence> entry : this.customValueByAttribute
-                    .entrySet()) {
-                util.appendAttribute(appendable, entry.getKey(), entry.getValue());
+        this.customAttributes.appendAttributes(util, appendable);
+        appendable.append(">");
+    }
+
+    /**
+     * @return the number of consecutive cells, from colIndex, that have the same XML
+     */
+    private int countRepeatedCells(final TableCellImpl cell, final int colIndex,
+                                   final int size) {
+        int c = colIndex + 1;
+        while (c < size) {
+            final WritableTableCell nextCell = this.cells.get(c);
+            if (!(nextCell instanceof TableCellImpl) ||
+                    !cell.isRepeatedBy((TableCellImpl) nextCell)) {
+                break;
             }
+            c++;
         }
-        appendable.append(">");
+        return c - colIndex;
+    }
+
+    /**
+     * @return the index of the next cell that exists, or size
+     */
+    private int getNextCellIndex(final int colIndex, final int size) {
+        final int nextIndex = this.cells.nextIndex(colIndex + 1);
+        if (nextIndex < this.cells.usedSize()) {
+            return nextIndex;
+        }
+        return size;
+    }
+
+    private int getCoveredEnd(final int colIndex) {
+        if (this.coveredRanges == null) {
+            return -1;
+        }
+        return this.coveredRanges.getEnd(colIndex);
+    }
+
+    private int getNextCoveredStart(final int colIndex) {
+        if (this.coveredRanges == null) {
+            return Integer.MAX_VALUE;
+        }
+        return this.coveredRanges.getNextStart(colIndex);
+    }
+
+    private void insertCoveredCells(final XMLUtil util, final Appendable appendable,
+                                    final int count) throws IOException {
+        appendable.append("<table:covered-table-cell");
+        if (count >= 2) {
+            util.appendAttribute(appendable, "table:number-columns-repeated", count);
+        }
+        appendable.append("/>");
     }
 
     private void insertBlankCells(final XMLUtil util, final Appendable appendable,
@@ -160,10 +363,6 @@ public class TableRowImpl implements TableRow {
         appendable.append("/>");
     }
 
-    private boolean hasNoValue(final TableCell cell) {
-        return cell == null || !cell.hasValue();
-    }
-
     /**
      * @return a CellWalker on the row
      */
@@ -197,9 +396,38 @@ public class TableRowImpl implements TableRow {
      * @param n        the number of cells to cover
      */
     public void coverRightCells(final int colIndex, final int n) {
-        for (int c = colIndex + 1; c < colIndex + n; c++) {
-            this.getOrCreateCell(c).setCovered();
+        this.coverCells(colIndex + 1, colIndex + n);
+    }
+
+    /**
+     * Cover a range of cells. No cell is created: the range is expanded when the row is
+     * written. The existing cells of the range are covered now, hence the serialization does
+     * not modify the cells.
+     *
+     * @param fromIndex the first index
+     * @param toIndex   the last index + 1
+     */
+    void coverCells(final int fromIndex, final int toIndex) {
+        if (this.coveredRanges == null) {
+            this.coveredRanges = new ColumnRanges();
         }
+        this.coveredRanges.add(fromIndex, toIndex);
+        final int size = Math.min(toIndex, this.cells.usedSize());
+        for (int c = this.cells.nextIndex(fromIndex); c < size;
+             c = this.cells.nextIndex(c + 1)) {
+            final WritableTableCell cell = this.cells.get(c);
+            if (cell instanceof TableCellImpl) {
+                ((TableCellImpl) cell).coverColdCell();
+            }
+        }
+    }
+
+    /**
+     * @param colIndex the index
+     * @return true if the index is in a covered range
+     */
+    boolean isInCoveredRange(final int colIndex) {
+        return this.coveredRanges != null && this.coveredRanges.contains(colIndex);
     }
 
     /**
@@ -262,13 +490,84 @@ public class TableRowImpl implements TableRow {
     public TableCell getOrCreateCell(final int colIndex) {
         WritableTableCell cell = this.cells.get(colIndex);
         if (cell == null) {
-            cell = new TableCellImpl(this.writeUtil, this.xmlUtil, this.stylesContainer,
-                    this.dataStyles, this.libreOfficeMode, this, colIndex);
+            cell = this.createCell(colIndex);
             this.cells.set(colIndex, cell);
+            this.estimatedSize += CELL_SIZE_ESTIMATE;
         }
         return cell;
     }
 
+    private WritableTableCell createCell(final int colIndex) {
+        if (this.pool != null) {
+            final TableCellImpl cell = this.pool.pollCell();
+            if (cell != null) {
+                cell.reuse(this.dataStyles, this, colIndex);
+                return cell;
+            }
+        }
+        return new TableCellImpl(this.writeUtil, this.xmlUtil, this.stylesContainer,
+                this.dataStyles, this.libreOfficeMode, this, colIndex);
+    }
+
+    /**
+     * Bulk load: set float values in consecutive cells.
+     *
+     * @param colIndex        the index of the first cell
+     * @param values          the values
+     * @param registeredStyle a style already registered in the styles container, or null
+     */
+    void setFloatValues(final int colIndex, final double[] values,
+                        final TableCellStyle registeredStyle) {
+        final int length = values.length;
+        for (int i = 0; i < length; i++) {
+            this.setFloatValue(colIndex + i, values[i], registeredStyle);
+        }
+    }
+
+    /**
+     * Bulk load: set a float value.
+     *
+     * @param colIndex        the index of the cell
+     * @param value           the value
+     * @param registeredStyle a style already registered in the styles container, or null
+     */
+    void setFloatValue(final int colIndex, final double value,
+                       final TableCellStyle registeredStyle) {
+        final TableCell cell = this.getOrCreateCell(colIndex);
+        if (cell instanceof TableCellImpl) {
+            ((TableCellImpl) cell).setFloatValue(value, registeredStyle);
+        } else {
+            cell.setFloatValue(value);
+            cell.setStyle(registeredStyle);
+        }
+    }
+
+    /**
+     * Bulk load: set values in consecutive cells. A null value leaves the cell empty.
+     *
+     * @param colIndex  the index of the first cell
+     * @param values    the values
+     * @param converter the converter for the values that are not strings or numbers
+     */
+    void setValues(final int colIndex, final Object[] values,
+                   final ToCellValueConverter converter) {
+        final int length = values.length;
+        for (int i = 0; i < length; i++) {
+            final Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            final TableCell cell = this.getOrCreateCell(colIndex + i);
+            if (value instanceof String) {
+                cell.setStringValue((String) value);
+            } else if (value instanceof Number) {
+                cell.setFloatValue((Number) value);
+            } else {
+                converter.from(value).setToCell(cell);
+            }
+        }
+    }
+
     /**
      * Set a custom table cell at a given index.
      *
@@ -287,7 +586,10 @@ public class TableRowImpl implements TableRow {
 
     @Override
     public int getColumnCount() {
-        return this.cells.usedSize();
+        if (this.coveredRanges == null) {
+            return this.cells.usedSize();
+        }
+        return Math.max(this.cells.usedSize(), this.coveredRanges.getLastEnd());
     }
 
     /**
@@ -295,6 +597,9 @@ public class TableRowImpl implements TableRow {
      * @return true if the cell at the colIndex is covered by a span
      */
     public boolean isCovered(final int colIndex) {
+        if (this.isInCoveredRange(colIndex)) {
+            return true;
+        }
         final TableCell cell = this.cells.get(colIndex);
         return cell != null && cell.isCovered();
     }
@@ -321,6 +626,66 @@ public class TableRowImpl implements TableRow {
         this.defaultCellStyle = ts;
     }
 
+    /**
+     * @return the cache of the child cell styles of the table
+     */
+    ChildCellStyleCache getChildCellStyleCache() {
+        return this.childCellStyleCache;
+    }
+
+    /**
+     * @param colIndex the column index
+     * @return the string pool for this column, or null
+     */
+    StringPool getStringPool(final int colIndex) {
+        return this.columnSchema.getStringPool(colIndex);
+    }
+
+    /**
+     * @return the cache of the cell fragments of the table
+     */
+    CellFragmentCache getCellFragmentCache() {
+        return this.cellFragmentCache;
+    }
+
+    /**
+     * @param colIndex the column index
+     * @param type     the type of the value
+     * @return the cell style given by the column schema, or null if the column is not typed with
+     * this type or this row has a default cell style
+     */
+    TableCellStyle getSchemaCellStyle(final int colIndex, final CellType type) {
+        if (this.defaultCellStyle != null) {
+            return null;
+        }
+        return this.columnSchema.getStyle(colIndex, type);
+    }
+
+    /**
+     * @param colIndex the column index
+     * @param type     the type of the value
+     * @param style    the style of the cell
+     * @return the precomputed beginning of the XML cell, or null if the cell does not match the
+     * column schema
+     */
+    String getSchemaPrefix(final int colIndex, final CellType type, final TableCellStyle style) {
+        return this.columnSchema.getPrefix(colIndex, type, style);
+    }
+
+    /**
+     * @param delta the variation of the estimated size of a cell value
+     */
+    void addEstimatedSize(final int delta) {
+        this.estimatedSize += delta;
+    }
+
+    /**
+     * @return a cheap estimation of the serialized size of this row. Used by the flush policy.
+     */
+    int getEstimatedSize() {
+        return ROW_SIZE_ESTIMATE + this.estimatedSize;
+    }
+
     @Override
     public int rowIndex() {
         return this.rowIndex;
@@ -333,9 +698,6 @@ public class TableRowImpl implements TableRow {
 
     @Override
     public void setRowAttribute(final String attribute, final CharSequence value) {
-        if (this.customValueByAttribute == null) {
-            this.customValueByAttribute = new HashMap<String, CharSequence>();
-        }
-        this.customValueByAttribute.put(attribute, value);
+        this.customAttributes = this.customAttributes.with(attribute, value);
     }
 }
\ No newline at end of file
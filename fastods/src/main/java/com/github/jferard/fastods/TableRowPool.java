@@ -0,0 +1,92 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A pool of rows and cells, for the row recycling mode: once a block of rows was serialized
+ * by the PreprocessedRowsFlusher, the rows and their cells are cleared and reused for the
+ * next rows.
+ * <p>
+ * Only for forward-only producers, that do not keep any reference on a row or a cell.
+ *
+ * @author Julien Férard
+ */
+class TableRowPool {
+    private final List<TableRowImpl> freeRows;
+    private final List<TableCellImpl> freeCells;
+
+    /**
+     * Create a new empty pool
+     */
+    TableRowPool() {
+        this.freeRows = new ArrayList<TableRowImpl>();
+        this.freeCells = new ArrayList<TableCellImpl>();
+    }
+
+    /**
+     * @return a cleared row, or null if the pool is empty
+     */
+    public TableRowImpl pollRow() {
+        final int size = this.freeRows.size();
+        if (size == 0) {
+            return null;
+        }
+        return this.freeRows.remove(size - 1);
+    }
+
+    /**
+     * @return a cleared cell, or null if the pool is empty
+     */
+    public TableCellImpl pollCell() {
+        final int size = this.freeCells.size();
+        if (size == 0) {
+            return null;
+        }
+        return this.freeCells.remove(size - 1);
+    }
+
+    /**
+     * Clear a row and its cells, and put them in the pool
+     *
+     * @param row the row, that is not used anymore
+     */
+    public void release(final TableRowImpl row) {
+        row.clear(this);
+        this.freeRows.add(row);
+    }
+
+    /**
+     * Put a cleared cell in the pool
+     *
+     * @param cell the cell, that is not used anymore
+     */
+    public void releaseCell(final TableCellImpl cell) {
+        cell.clear();
+        this.freeCells.add(cell);
+    }
+}
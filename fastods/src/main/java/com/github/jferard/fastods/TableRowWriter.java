@@ -0,0 +1,169 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.datastyle.DataStyles;
+import com.github.jferard.fastods.style.TableCellStyle;
+import com.github.jferard.fastods.style.TableRowStyle;
+import com.github.jferard.fastods.util.XMLUtil;
+
+import java.io.IOException;
+
+/**
+ * A forward-only writer for the rows of a table (streaming only). The caller sets the cell
+ * values of the current row, then calls `endRow`: the XML of the row is immediately
+ * appended to a buffer and the row is cleared to be reused as the next row. When the buffer
+ * is full, it is sent to the file writer. Hence, the memory used does not depend on the number
+ * of rows. Identical consecutive rows are written as one repeated row. At the end of the table,
+ * the current row is written if it has cells, even if `endRow` was not called.
+ * <p>
+ * Spans over rows are not supported. The table can't be accessed by the row index anymore.
+ *
+ * @author Julien Férard
+ */
+public class TableRowWriter implements TableRow {
+    private static final int BUFFER_SIZE = 32 * 1024;
+
+    private final NamedOdsFileWriter observer;
+    private final XMLUtil xmlUtil;
+    private final DataStyles format;
+    private final TableRowPool pool;
+    private final TableRowImpl row;
+    private StringBuilder buffer;
+    private RepeatedRowsAppender rowsAppender;
+    private int rowIndex;
+
+    /**
+     * Create a new row writer
+     *
+     * @param observer the file writer
+     * @param xmlUtil  an util
+     * @param format   the data styles
+     * @param pool     the pool for the cells
+     * @param row      the row that will be reused
+     * @param rowIndex the index of the first row
+     */
+    TableRowWriter(final NamedOdsFileWriter observer, final XMLUtil xmlUtil,
+                   final DataStyles format, final TableRowPool pool, final TableRowImpl row,
+                   final int rowIndex) {
+        this.observer = observer;
+        this.xmlUtil = xmlUtil;
+        this.format = format;
+        this.pool = pool;
+        this.row = row;
+        this.rowIndex = rowIndex;
+        this.buffer = new StringBuilder(BUFFER_SIZE);
+        this.rowsAppender = new RepeatedRowsAppender(xmlUtil, this.buffer);
+    }
+
+    /**
+     * Get the cell of the current row at given index. If the cell was not created before,
+     * then it is created by this method.
+     *
+     * @param colIndex the index of the cell in the row
+     * @return a cell
+     */
+    public TableCell getOrCreateCell(final int colIndex) {
+        return this.row.getOrCreateCell(colIndex);
+    }
+
+    /**
+     * Write the current row and move to the next row.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void endRow() throws IOException {
+        this.rowsAppender.appendRow(this.row);
+        this.row.clear(this.pool);
+        this.rowIndex++;
+        this.row.reuse(this.pool, this.format, this.rowIndex);
+        if (this.buffer.length() >= BUFFER_SIZE) {
+            this.flush();
+        }
+    }
+
+    /**
+     * Send the buffered rows to the file writer. The current row is not written.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void flush() throws IOException {
+        this.rowsAppender.flush();
+        if (this.buffer.length() == 0) {
+            return;
+        }
+        this.observer.update(new PreprocessedRowsFlusher(this.buffer));
+        this.buffer = new StringBuilder(BUFFER_SIZE);
+        this.rowsAppender = new RepeatedRowsAppender(this.xmlUtil, this.buffer);
+    }
+
+    /**
+     * Write the current row if it has cells, and send the buffered rows to the file writer.
+     * Called at the end of the table.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    void close() throws IOException {
+        if (this.row.getColumnCount() > 0) {
+            this.endRow();
+        }
+        this.flush();
+    }
+
+    @Override
+    public void setRowFormat(final DataStyles format) {
+        this.row.setRowFormat(format);
+    }
+
+    @Override
+    public void setRowStyle(final TableRowStyle rowStyle) {
+        this.row.setRowStyle(rowStyle);
+    }
+
+    @Override
+    public int getColumnCount() {
+        return this.row.getColumnCount();
+    }
+
+    @Override
+    public void setRowDefaultCellStyle(final TableCellStyle ts) {
+        this.row.setRowDefaultCellStyle(ts);
+    }
+
+    @Override
+    public int rowIndex() {
+        return this.rowIndex;
+    }
+
+    @Override
+    public void removeRowStyle() {
+        this.row.removeRowStyle();
+    }
+
+    @Override
+    public void setRowAttribute(final String attribute, final CharSequence value) {
+        this.row.setRowAttribute(attribute, value);
+    }
+}
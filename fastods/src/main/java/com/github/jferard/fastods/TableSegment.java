@@ -0,0 +1,186 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.XMLUtil;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A table of a streamed document that is built and serialized by its own thread. The segments
+ * are written to content.xml in the order of the tables, whatever the order of completion: the
+ * writer waits for a segment when it is its turn.
+ * <p>
+ * The worker thread fills the table, then calls `complete`: the XML of the table is serialized
+ * into a buffer of the segment. If the worker fails, it has to call `abort`, otherwise the
+ * writer would wait forever. The table has its own XML util, and the styles container is
+ * shared under a lock, but the styles should be registered (and frozen) before the first table,
+ * as usual in streaming mode.
+ * <p>
+ * The rows of the table are kept in memory until the serialization: the table is not
+ * flushed while it is filled, and `Table.rowWriter` is not available.
+ * <p>
+ * If the writer has a cancellation token, the writer stops waiting for the segment when the
+ * export is cancelled or when the deadline is passed.
+ *
+ * @author Julien Férard
+ */
+public class TableSegment {
+    /**
+     * The max duration of a wait between two checks of the token
+     */
+    private static final long CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Table table;
+    private final XMLUtil xmlUtil;
+    private final CancellationToken cancellationToken;
+    private final CountDownLatch completed;
+    private volatile boolean done;
+    private StringBuilder buffer;
+    private Throwable failure;
+
+    /**
+     * Create a new segment
+     *
+     * @param table   the table, not observed
+     * @param xmlUtil the XML util of the table, not shared with other threads
+     */
+    public TableSegment(final Table table, final XMLUtil xmlUtil) {
+        this(table, xmlUtil, null);
+    }
+
+    /**
+     * Create a new segment
+     *
+     * @param table             the table, not observed
+     * @param xmlUtil           the XML util of the table, not shared with other threads
+     * @param cancellationToken the token of the writer, checked while the writer waits for the
+     *                          segment, or null
+     */
+    public TableSegment(final Table table, final XMLUtil xmlUtil,
+                        final CancellationToken cancellationToken) {
+        this.table = table;
+        this.xmlUtil = xmlUtil;
+        this.cancellationToken = cancellationToken;
+        this.completed = new CountDownLatch(1);
+        this.done = false;
+    }
+
+    /**
+     * @return the table to fill. Only the worker thread should use it.
+     */
+    public Table getTable() {
+        return this.table;
+    }
+
+    /**
+     * Serialize the table into the buffer and release the writer. To be called by the worker
+     * thread once the table is filled.
+     *
+     * @throws IOException if the table was already completed or aborted, or if the
+     *                     serialization fails (the segment is aborted)
+     */
+    public void complete() throws IOException {
+        this.checkNotDone();
+        final StringBuilder sb = new StringBuilder();
+        try {
+            this.table.appendXMLContent(this.xmlUtil, sb);
+        } catch (final IOException e) {
+            this.abort(e);
+            throw e;
+        } catch (final RuntimeException e) {
+            this.abort(e);
+            throw e;
+        }
+        this.buffer = sb;
+        this.done = true;
+        this.completed.countDown();
+    }
+
+    /**
+     * Release the writer after a failure of the worker thread. The save of the document will
+     * fail.
+     *
+     * @param cause the cause of the failure
+     */
+    public void abort(final Throwable cause) {
+        if (this.done) {
+            return;
+        }
+        this.failure = cause;
+        this.done = true;
+        this.completed.countDown();
+    }
+
+    /**
+     * @return true if the segment was completed or aborted
+     */
+    public boolean isDone() {
+        return this.done;
+    }
+
+    /**
+     * Wait for the completion of the segment and append the XML of the table.
+     *
+     * @param appendable the destination
+     * @throws IOException if the segment was aborted, if the wait was interrupted or if the
+     *                     export was cancelled (InterruptedIOException)
+     */
+    void appendTo(final Appendable appendable) throws IOException {
+        try {
+            this.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(
+                    "Interrupted while waiting for table " + this.table.getName());
+        }
+        if (this.failure != null) {
+            throw new IOException("Can't write table " + this.table.getName(), this.failure);
+        }
+        appendable.append(this.buffer);
+        this.buffer = null;
+    }
+
+    private void await() throws InterruptedException, InterruptedIOException {
+        if (this.cancellationToken == null) {
+            this.completed.await();
+            return;
+        }
+        while (!this.completed.await(
+                Math.min(this.cancellationToken.remainingNanos(), CHECK_NANOS),
+                TimeUnit.NANOSECONDS)) {
+            this.cancellationToken.check();
+        }
+    }
+
+    private void checkNotDone() throws IOException {
+        if (this.done) {
+            throw new IOException("Table segment " + this.table.getName() + " is done");
+        }
+    }
+}
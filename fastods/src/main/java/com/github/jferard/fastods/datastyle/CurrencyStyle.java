@@ -103,6 +103,13 @@ public class CurrencyStyle implements DataStyle {
                 .append("</number:currency-symbol>");
     }
 
+    /**
+     * @return the currency symbol
+     */
+    public String getCurrencySymbol() {
+        return this.currencySymbol;
+    }
+
     @Override
     public String getName() {
         return this.floatStyle.getName();
@@ -24,7 +24,9 @@
 
 package com.github.jferard.fastods.odselement;
 
+import com.github.jferard.fastods.CancellationToken;
 import com.github.jferard.fastods.Table;
+import com.github.jferard.fastods.TableSegment;
 import com.github.jferard.fastods.attribute.CellType;
 import com.github.jferard.fastods.datastyle.DataStyle;
 import com.github.jferard.fastods.datastyle.DataStyles;
@@ -168,6 +170,26 @@ public class ContentElement implements OdsElement {
                         columnCapacity, this.stylesContainer, this.format, this.libreOfficeMode);
     }
 
+    /**
+     * Create a table that may be built and serialized by another thread: it has its own utils
+     * and shares the (thread safe) styles container.
+     *
+     * @param name           the name of the table
+     * @param rowCapacity    estimated rows
+     * @param columnCapacity    estimated columns
+     * @param cancellationToken the token of the writer, or null
+     * @return the segment that holds the table
+     */
+    public TableSegment createTableSegment(final String name, final int rowCapacity,
+                                           final int columnCapacity,
+                                           final CancellationToken cancellationToken) {
+        final XMLUtil segmentXMLUtil = XMLUtil.create();
+        final Table table = Table.create(this, this.positionUtil, WriteUtil.create(),
+                segmentXMLUtil, name, rowCapacity, columnCapacity, this.stylesContainer,
+                this.format, this.libreOfficeMode);
+        return new TableSegment(table, segmentXMLUtil, cancellationToken);
+    }
+
     /**
      * @return the last table in the document or null
      */
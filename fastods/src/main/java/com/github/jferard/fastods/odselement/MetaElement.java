@@ -29,11 +29,9 @@ import com.github.jferard.fastods.util.XMLUtil;
 import com.github.jferard.fastods.util.ZipUTF8Writer;
 
 import java.io.IOException;
-import java.text.SimpleDateFormat;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TimeZone;
 
 /**
  * 3.1.3.4 office:document-meta
@@ -46,26 +44,6 @@ public class MetaElement implements OdsElement {
     public static final String GENERATOR = "FastOds/0.7.3";
     public static final String OFFICE_VERSION = "1.2";
 
-    /**
-     * the date format: 2017-12-31
-     */
-    final static SimpleDateFormat DF_DATE;
-
-    static {
-        DF_DATE = new SimpleDateFormat("yyyy-MM-dd");
-        DF_DATE.setTimeZone(TimeZone.getTimeZone("UTC"));
-    }
-
-    /**
-     * the time format: 18:12:59
-     */
-    final static SimpleDateFormat DF_TIME;
-
-    static {
-        DF_TIME = new SimpleDateFormat("HH:mm:ss");
-        DF_TIME.setTimeZone(TimeZone.getTimeZone("UTC"));
-    }
-
     public static MetaElementBuilder builder() {
         return new MetaElementBuilder();
     }
@@ -24,6 +24,8 @@
 
 package com.github.jferard.fastods.odselement;
 
+import com.github.jferard.fastods.util.DateTimeUtil;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
@@ -44,9 +46,9 @@ public class MetaElementBuilder {
     private String initialCreator;
 
     public MetaElementBuilder() {
-        final Date dt = new Date();
+        final long now = System.currentTimeMillis();
         this.creator = System.getProperty("user.name");
-        this.dateTime = MetaElement.DF_DATE.format(dt) + "T" + MetaElement.DF_TIME.format(dt);
+        this.dateTime = DateTimeUtil.formatDate(now) + "T" + DateTimeUtil.formatTime(now);
         this.description = null;
         this.language = Locale.getDefault().getLanguage();
         this.title = null;
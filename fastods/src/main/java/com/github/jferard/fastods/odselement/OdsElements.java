@@ -24,11 +24,14 @@
 
 package com.github.jferard.fastods.odselement;
 
+import com.github.jferard.fastods.CancellationToken;
 import com.github.jferard.fastods.FinalizeFlusher;
 import com.github.jferard.fastods.ImmutableElementsFlusher;
 import com.github.jferard.fastods.NamedOdsFileWriter;
 import com.github.jferard.fastods.PrepareContentFlusher;
 import com.github.jferard.fastods.Table;
+import com.github.jferard.fastods.TableSegment;
+import com.github.jferard.fastods.TableSegmentFlusher;
 import com.github.jferard.fastods.attribute.CellType;
 import com.github.jferard.fastods.datastyle.DataStyle;
 import com.github.jferard.fastods.datastyle.DataStyles;
@@ -50,6 +53,7 @@ import com.github.jferard.fastods.util.XMLUtil;
 import com.github.jferard.fastods.util.ZipUTF8Writer;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -156,7 +160,9 @@ public class OdsElements implements StylesContainer {
     private final StylesContainerImpl stylesContainer;
     private final StylesElement stylesElement;
     private final Set<OdsElement> extraElements;
+    private final List<TableSegment> pendingSegments;
     private NamedOdsFileWriter observer;
+    private CancellationToken cancellationToken;
 
     /**
      * Create a new instance from elements
@@ -183,6 +189,7 @@ public class OdsElements implements StylesContainer {
         this.stylesElement = stylesElement;
         this.stylesContainer = stylesContainer;
         this.extraElements = new HashSet<OdsElement>();
+        this.pendingSegments = new ArrayList<TableSegment>();
     }
 
     /**
@@ -194,6 +201,14 @@ public class OdsElements implements StylesContainer {
         this.observer = o;
     }
 
+    /**
+     * @param cancellationToken the token of the writer: the writer stops waiting for the table
+     *                          segments when the export is cancelled.
+     */
+    public void setCancellationToken(final CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
 
     /**
      * Add a cell style for a given data type. Use only if you want to flush data before the end
@@ -362,6 +377,38 @@ public class OdsElements implements StylesContainer {
         return add;
     }
 
+    /**
+     * Add a new table segment to content: the table will be built and serialized by another
+     * thread. The previous table is async flushed, but the segment itself is flushed when the
+     * next regular table is added or when the document is saved. Hence, the segments added
+     * in a row are built in parallel and written in order.
+     *
+     * @param name           name of the table
+     * @param rowCapacity    estimated rows
+     * @param columnCapacity estimated columns
+     * @return the segment or null if a table with the same name exists
+     * @throws IOException if the OdsElements is not observed or if there is a write exception
+     */
+    public TableSegment addTableSegmentToContent(final String name, final int rowCapacity,
+                                                 final int columnCapacity) throws IOException {
+        if (this.observer == null) {
+            throw new IOException(
+                    "Can't add a table segment to an anonymous writer (there is no file)");
+        }
+        final Table previousTable = this.contentElement.getLastTable();
+        final TableSegment segment =
+                this.contentElement.createTableSegment(name, rowCapacity, columnCapacity,
+                        this.cancellationToken);
+        final Table table = segment.getTable();
+        if (!this.contentElement.addTable(table)) {
+            return null;
+        }
+        this.settingsElement.addTableConfig(table.getConfigEntry());
+        this.asyncFlushEndOfPreviousTable(previousTable);
+        this.pendingSegments.add(segment);
+        return segment;
+    }
+
     public Table createTable(final String name, final int rowCapacity, final int columnCapacity) {
         return this.contentElement.createTable(name, rowCapacity, columnCapacity);
     }
@@ -377,13 +424,30 @@ public class OdsElements implements StylesContainer {
     private void asyncFlushPreviousTable(final Table previousTable, final Table table)
             throws IOException {
         table.addObserver(this.observer);
+        this.asyncFlushEndOfPreviousTable(previousTable);
+        this.asyncFlushPendingSegments();
+    }
+
+    /**
+     * If there is no previous table, meta, styles and the preamble of content are async
+     * flushed. If the previous table is a regular table, its end is async flushed. If it is a
+     * segment, nothing is flushed: the segment is pending.
+     */
+    private void asyncFlushEndOfPreviousTable(final Table previousTable) throws IOException {
         if (previousTable == null) {
             this.observer.update(new PrepareContentFlusher(this, this.contentElement));
-        } else {
+        } else if (this.pendingSegments.isEmpty()) {
             previousTable.asyncFlushEndTable();
         }
     }
 
+    private void asyncFlushPendingSegments() throws IOException {
+        for (final TableSegment segment : this.pendingSegments) {
+            this.observer.update(new TableSegmentFlusher(segment));
+        }
+        this.pendingSegments.clear();
+    }
+
     /**
      * Prepare the elements for writing.
      * Performs an async flush.
@@ -401,11 +465,8 @@ public class OdsElements implements StylesContainer {
      */
     public void saveAsync() throws IOException {
         final Table previousTable = this.contentElement.getLastTable();
-        if (previousTable == null) {
-            this.observer.update(new PrepareContentFlusher(this, this.contentElement));
-        } else {
-            previousTable.asyncFlushEndTable();
-        }
+        this.asyncFlushEndOfPreviousTable(previousTable);
+        this.asyncFlushPendingSegments();
 
         this.observer.update(new FinalizeFlusher(this.contentElement, this));
     }
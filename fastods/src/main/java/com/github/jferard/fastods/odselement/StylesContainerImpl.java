@@ -43,12 +43,16 @@ import com.github.jferard.fastods.util.XMLUtil;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
 
 /**
  * content.xml/office:document-content
+ * <p>
+ * The container is thread safe: the tables of a document (e.g. the table segments) may
+ * register their styles from several threads, while the writer thread writes the styles.
  *
  * @author Julien Férard
  * @author Martin Schulz
@@ -107,6 +111,12 @@ public class StylesContainerImpl implements StylesContainer {
     private final Container<String, PageLayoutStyle> pageLayoutStylesContainer;
     private final MultiContainer<String, Dest, ObjectStyle> objectStylesContainer;
     private final Set<FontFace> fontFaces;
+    /**
+     * The cell styles that were registered by this container and were not replaced since. The
+     * styles are compared by identity.
+     */
+    private final Map<TableCellStyle, Boolean> registeredCellStyles;
+    private int registrationModCount;
 
     /**
      * Create a styles container
@@ -122,10 +132,13 @@ public class StylesContainerImpl implements StylesContainer {
         this.anonymousStyleByChildCellStyle = new HashMap<ChildCellStyle, TableCellStyle>();
         this.fontFaces = new HashSet<FontFace>();
         this.fontFaces.add(DEFAULT_FONT_FACE);
+        this.registeredCellStyles = new IdentityHashMap<TableCellStyle, Boolean>();
+        this.registrationModCount = this.objectStylesContainer.getModCount();
     }
 
     @Override
-    public TableCellStyle addChildCellStyle(final TableCellStyle style, final DataStyle dataStyle) {
+    public synchronized TableCellStyle addChildCellStyle(final TableCellStyle style,
+                                                         final DataStyle dataStyle) {
         final ChildCellStyle childKey = new ChildCellStyle(style, dataStyle);
         TableCellStyle anonymousStyle = this.anonymousStyleByChildCellStyle.get(childKey);
         if (anonymousStyle == null) {
@@ -150,7 +163,11 @@ public class StylesContainerImpl implements StylesContainer {
     }
 
     @Override
-    public boolean addContentFontFaceContainerStyle(final FontFaceContainerStyle ffcStyle) {
+    public synchronized boolean addContentFontFaceContainerStyle(
+            final FontFaceContainerStyle ffcStyle) {
+        if (ffcStyle instanceof TableCellStyle) {
+            return this.addContentCellStyle((TableCellStyle) ffcStyle);
+        }
         final FontFace fontFace = ffcStyle.getFontFace();
         if (fontFace != null) {
             this.fontFaces.add(fontFace);
@@ -158,8 +175,52 @@ public class StylesContainerImpl implements StylesContainer {
         return this.addContentStyle(ffcStyle);
     }
 
+    /**
+     * If a cell style was registered by this container and was not replaced since, the
+     * registration is skipped.
+     *
+     * @param style the cell style
+     * @return true if the style was added or updated (or would be)
+     */
+    private boolean addContentCellStyle(final TableCellStyle style) {
+        if (this.isCellStyleRegistered(style)) {
+            return this.objectStylesContainer.getMode() != Mode.CREATE;
+        }
+        final FontFace fontFace = style.getFontFace();
+        if (fontFace != null) {
+            this.fontFaces.add(fontFace);
+        }
+        final boolean added = this.addContentStyle(style);
+        if (added) {
+            this.clearRegistrationsIfModified();
+            this.registeredCellStyles.put(style, Boolean.TRUE);
+        }
+        return added;
+    }
+
+    /**
+     * @param style the cell style
+     * @return true if the style is still registered
+     */
+    synchronized boolean isCellStyleRegistered(final TableCellStyle style) {
+        this.clearRegistrationsIfModified();
+        return this.registeredCellStyles.containsKey(style);
+    }
+
+    /**
+     * Clear the memo if a registered style may have been replaced.
+     */
+    private void clearRegistrationsIfModified() {
+        final int modCount = this.objectStylesContainer.getModCount();
+        if (modCount != this.registrationModCount) {
+            this.registeredCellStyles.clear();
+            this.registrationModCount = modCount;
+        }
+    }
+
     @Override
-    public boolean addStylesFontFaceContainerStyle(final FontFaceContainerStyle ffcStyle) {
+    public synchronized boolean addStylesFontFaceContainerStyle(
+            final FontFaceContainerStyle ffcStyle) {
         final FontFace fontFace = ffcStyle.getFontFace();
         if (fontFace != null) {
             this.fontFaces.add(fontFace);
@@ -168,7 +229,7 @@ public class StylesContainerImpl implements StylesContainer {
     }
 
     @Override
-    public boolean addDataStyle(final DataStyle dataStyle) {
+    public synchronized boolean addDataStyle(final DataStyle dataStyle) {
         if (dataStyle.isHidden()) {
             return this.dataStylesContainer
                     .add(dataStyle.getName(), Dest.CONTENT_AUTOMATIC_STYLES, dataStyle);
@@ -179,12 +240,12 @@ public class StylesContainerImpl implements StylesContainer {
     }
 
     @Override
-    public void setDataStylesMode(final Mode mode) {
+    public synchronized void setDataStylesMode(final Mode mode) {
         this.dataStylesContainer.setMode(mode);
     }
 
     @Override
-    public boolean addMasterPageStyle(final MasterPageStyle masterPageStyle) {
+    public synchronized boolean addMasterPageStyle(final MasterPageStyle masterPageStyle) {
         if (this.masterPageStylesContainer.add(masterPageStyle.getName(), masterPageStyle)) {
             masterPageStyle.addEmbeddedStyles(this);
             return true;
@@ -194,48 +255,48 @@ public class StylesContainerImpl implements StylesContainer {
     }
 
     @Override
-    public void setMasterPageStyleMode(final Mode mode) {
+    public synchronized void setMasterPageStyleMode(final Mode mode) {
         this.masterPageStylesContainer.setMode(mode);
     }
 
     @Override
-    public boolean addNewDataStyleFromCellStyle(final TableCellStyle style) {
+    public synchronized boolean addNewDataStyleFromCellStyle(final TableCellStyle style) {
         final boolean ret = this.addContentStyle(style);
         return this.addDataStyle(style.getDataStyle()) && ret;
     }
 
     @Override
-    public void setPageLayoutStyleMode(final Mode mode) {
+    public synchronized void setPageLayoutStyleMode(final Mode mode) {
         this.pageLayoutStylesContainer.setMode(mode);
     }
 
 
     @Override
-    public boolean addPageLayoutStyle(final PageLayoutStyle pageLayoutStyle) {
+    public synchronized boolean addPageLayoutStyle(final PageLayoutStyle pageLayoutStyle) {
         return this.pageLayoutStylesContainer.add(pageLayoutStyle.getName(), pageLayoutStyle);
     }
 
     @Override
-    public void setPageStyleMode(final Mode mode) {
+    public synchronized void setPageStyleMode(final Mode mode) {
         this.setMasterPageStyleMode(mode);
         this.setPageLayoutStyleMode(mode);
     }
 
 
     @Override
-    public boolean addPageStyle(final PageStyle ps) {
+    public synchronized boolean addPageStyle(final PageStyle ps) {
         boolean ret = this.addMasterPageStyle(ps.getMasterPageStyle());
         ret = this.addPageLayoutStyle(ps.getPageLayoutStyle()) && ret;
         return ret;
     }
 
     @Override
-    public void setObjectStyleMode(final Mode mode) {
+    public synchronized void setObjectStyleMode(final Mode mode) {
         this.objectStylesContainer.setMode(mode);
     }
 
     @Override
-    public boolean addContentStyle(final ObjectStyle objectStyle) {
+    public synchronized boolean addContentStyle(final ObjectStyle objectStyle) {
         if (objectStyle.isHidden()) {
             return this.objectStylesContainer
                     .add(objectStyle.getKey(), Dest.CONTENT_AUTOMATIC_STYLES, objectStyle);
@@ -246,7 +307,7 @@ public class StylesContainerImpl implements StylesContainer {
     }
 
     @Override
-    public boolean addStylesStyle(final ObjectStyle objectStyle) {
+    public synchronized boolean addStylesStyle(final ObjectStyle objectStyle) {
         if (objectStyle.isHidden()) {
             return this.objectStylesContainer
                     .add(objectStyle.getKey(), Dest.STYLES_AUTOMATIC_STYLES, objectStyle);
@@ -259,7 +320,7 @@ public class StylesContainerImpl implements StylesContainer {
     /**
      * Enable debug mode
      */
-    public void debug() {
+    public synchronized void debug() {
         this.objectStylesContainer.debug();
         this.dataStylesContainer.debug();
         this.masterPageStylesContainer.debug();
@@ -269,7 +330,7 @@ public class StylesContainerImpl implements StylesContainer {
     /**
      * Freeze the container: no more add is allowed
      */
-    public void freeze() {
+    public synchronized void freeze() {
         this.objectStylesContainer.freeze();
         this.dataStylesContainer.freeze();
         this.masterPageStylesContainer.freeze();
@@ -279,7 +340,7 @@ public class StylesContainerImpl implements StylesContainer {
     /**
      * @return a "double boolean"
      */
-    public HasFooterHeader hasFooterHeader() {
+    public synchronized HasFooterHeader hasFooterHeader() {
         boolean hasHeader = false;
         boolean hasFooter = false;
 
@@ -307,7 +368,8 @@ public class StylesContainerImpl implements StylesContainer {
      * @param appendable the destination
      * @throws IOException if the styles can't be written
      */
-    public void writeContentAutomaticStyles(final XMLUtil util, final Appendable appendable)
+    public synchronized void writeContentAutomaticStyles(final XMLUtil util,
+                                                         final Appendable appendable)
             throws IOException {
         final Iterable<ObjectStyle> styles =
                 this.objectStylesContainer.getValues(Dest.CONTENT_AUTOMATIC_STYLES);
@@ -325,7 +387,7 @@ public class StylesContainerImpl implements StylesContainer {
      * @param appendable the destination
      * @throws IOException if the styles can't be written
      */
-    public void writeHiddenDataStyles(final XMLUtil util, final Appendable appendable)
+    public synchronized void writeHiddenDataStyles(final XMLUtil util, final Appendable appendable)
             throws IOException {
         for (final DataStyle dataStyle : this.dataStylesContainer
                 .getValues(Dest.CONTENT_AUTOMATIC_STYLES)) {
@@ -342,7 +404,7 @@ public class StylesContainerImpl implements StylesContainer {
      * @param appendable the destination
      * @throws IOException if an I/O error occurs
      */
-    public void writePageLayoutStyles(final XMLUtil util, final Appendable appendable)
+    public synchronized void writePageLayoutStyles(final XMLUtil util, final Appendable appendable)
             throws IOException {
         for (final PageLayoutStyle ps : this.pageLayoutStylesContainer.getValues()) {
             assert ps.isHidden();
@@ -358,7 +420,7 @@ public class StylesContainerImpl implements StylesContainer {
      * @param appendable the destination
      * @throws IOException if an I/O error occurs
      */
-    public void writeMasterPageStyles(final XMLUtil util, final Appendable appendable)
+    public synchronized void writeMasterPageStyles(final XMLUtil util, final Appendable appendable)
             throws IOException {
         for (final MasterPageStyle ps : this.masterPageStylesContainer.getValues()) {
             ps.appendXMLToMasterStyle(util, appendable);
@@ -372,7 +434,8 @@ public class StylesContainerImpl implements StylesContainer {
      * @param appendable the destination
      * @throws IOException if an I/O error occurs
      */
-    public void writeStylesAutomaticStyles(final XMLUtil util, final Appendable appendable)
+    public synchronized void writeStylesAutomaticStyles(final XMLUtil util,
+                                                        final Appendable appendable)
             throws IOException {
         final Iterable<ObjectStyle> styles =
                 this.objectStylesContainer.getValues(Dest.STYLES_AUTOMATIC_STYLES);
@@ -390,7 +453,8 @@ public class StylesContainerImpl implements StylesContainer {
      * @param appendable the destination
      * @throws IOException if an I/O error occurs
      */
-    public void writeStylesCommonStyles(final XMLUtil util, final Appendable appendable)
+    public synchronized void writeStylesCommonStyles(final XMLUtil util,
+                                                     final Appendable appendable)
             throws IOException {
         final Iterable<ObjectStyle> styles =
                 this.objectStylesContainer.getValues(Dest.STYLES_COMMON_STYLES);
@@ -409,7 +473,7 @@ public class StylesContainerImpl implements StylesContainer {
      * @param appendable the destination
      * @throws IOException if an I/O error occurs
      */
-    public void writeVisibleDataStyles(final XMLUtil util, final Appendable appendable)
+    public synchronized void writeVisibleDataStyles(final XMLUtil util, final Appendable appendable)
             throws IOException {
         final Iterable<DataStyle> dataStyles =
                 this.dataStylesContainer.getValues(Dest.STYLES_COMMON_STYLES);
@@ -426,7 +490,7 @@ public class StylesContainerImpl implements StylesContainer {
      * @param appendable where to write
      * @throws IOException if the font face declarations were not written
      */
-    public void writeFontFaceDecls(final XMLUtil util, final Appendable appendable)
+    public synchronized void writeFontFaceDecls(final XMLUtil util, final Appendable appendable)
             throws IOException {
         appendable.append("<office:font-face-decls>");
         for (final FontFace fontFace : this.fontFaces) {
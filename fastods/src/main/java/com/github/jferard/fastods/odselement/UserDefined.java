@@ -25,6 +25,7 @@
 package com.github.jferard.fastods.odselement;
 
 import com.github.jferard.fastods.XMLConvertible;
+import com.github.jferard.fastods.util.DateTimeUtil;
 import com.github.jferard.fastods.util.XMLUtil;
 
 import java.io.IOException;
@@ -49,7 +50,8 @@ public class UserDefined implements XMLConvertible {
      * @return the user defined metadata
      */
     public static UserDefined fromDate(final String name, final Date value) {
-        return new UserDefined(name, MetaValueType.DATE, MetaElement.DF_DATE.format(value));
+        return new UserDefined(name, MetaValueType.DATE,
+                DateTimeUtil.formatDate(value.getTime()));
     }
 
     /**
@@ -67,7 +69,8 @@ public class UserDefined implements XMLConvertible {
      * @return the user defined metadata
      */
     public static UserDefined fromTime(final String name, final Date value) {
-        return new UserDefined(name, MetaValueType.TIME, MetaElement.DF_TIME.format(value));
+        return new UserDefined(name, MetaValueType.TIME,
+                DateTimeUtil.formatTime(value.getTime()));
     }
 
     /**
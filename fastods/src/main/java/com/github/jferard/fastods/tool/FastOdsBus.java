@@ -24,27 +24,40 @@
 
 package com.github.jferard.fastods.tool;
 
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.Collection;
 import java.util.NoSuchElementException;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
+ * A bus between producers and a consumer. If the bus is bounded, the producers wait while the
+ * bus is full. The consumer should drain the elements by batches. Closing the bus is the
+ * poison pill: the consumer gets the remaining elements, and then the bus is closed.
+ * <p>
  * Usage:
  * <pre><code>
- * final FastOdsBus{@literal <E>} bus = new FastOdsBus{@literal <E>}();
+ * final FastOdsBus{@literal <E>} bus = new FastOdsBus{@literal <E>}(1024);
  *
  * Thread consumer = new Thread() {
  *     {@literal @}Override
  *     public void run() {
- *     while (!bus.isClosed()) {
- *          final E element = bus.get();
- *          // do something with E
+ *         final List{@literal <E>} batch = new ArrayList{@literal <E>}();
+ *         while (bus.drainTo(batch, 256) {@literal >} 0) {
+ *             for (final E element : batch) {
+ *                 // do something with E
+ *             }
+ *             batch.clear();
+ *         }
  *     }
  * }
  *
  * consumer.start()
  *
- * // put whatever in the bus with bus put.
+ * // put whatever in the bus with bus put, then close the bus.
  *
  * try {
  *     consumer.join();
@@ -58,62 +71,202 @@ import java.util.Queue;
  */
 public class FastOdsBus<E> {
     private final Queue<E> elements;
+    private final int capacity;
+    /**
+     * Guards the elements and the closed flag. A ReentrantLock does not pin the carrier thread of
+     * a virtual thread, unlike a monitor.
+     */
+    private final Lock lock;
+    /**
+     * Signalled when an element is added or when the bus is closed
+     */
+    private final Condition notEmptyOrClosed;
+    /**
+     * Signalled when elements are removed or when the bus is closed
+     */
+    private final Condition notFullOrClosed;
     private boolean closed;
 
     /**
-     * Create a new bus
+     * Create a new unbounded bus
      */
     public FastOdsBus() {
-        this.elements = new LinkedList<E>();
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create a new bounded bus
+     *
+     * @param capacity the max number of elements in the bus
+     */
+    public FastOdsBus(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.elements = new ArrayDeque<E>(Math.min(capacity, 1024));
+        this.lock = new ReentrantLock();
+        this.notEmptyOrClosed = this.lock.newCondition();
+        this.notFullOrClosed = this.lock.newCondition();
         this.closed = false;
     }
 
     /**
-     * close the bus
+     * close the bus. The waiting consumers and producers are woken up. The remaining elements
+     * may still be read.
      */
     public void close() {
-        this.closed = true;
+        this.lock.lock();
+        try {
+            this.closed = true;
+            this.notEmptyOrClosed.signalAll();
+            this.notFullOrClosed.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     /**
      * Get an element from the bus. Blocking method.
      *
      * @return the next element in the bus
+     * @throws NoSuchElementException if the bus is closed and empty
+     */
+    public E get() {
+        this.lock.lock();
+        try {
+            while (this.elements.isEmpty()) {
+                if (this.closed) {
+                    throw new NoSuchElementException();
+                }
+                this.notEmptyOrClosed.await();
+            }
+            return this.remove();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Get an element from the bus, waiting at most the given time.
+     *
+     * @param timeout the max time to wait
+     * @param unit    the unit of the timeout
+     * @return the next element in the bus, or null if the time elapsed or if the bus is closed
+     * and empty
+     * @throws InterruptedException if the thread is interrupted while waiting
      */
-    synchronized public E get() {
-        if (this.isClosed()) {
-            throw new NoSuchElementException();
+    public E poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        this.lock.lockInterruptibly();
+        try {
+            while (this.elements.isEmpty()) {
+                if (this.closed || nanos <= 0) {
+                    return null;
+                }
+                nanos = this.notEmptyOrClosed.awaitNanos(nanos);
+            }
+            return this.remove();
+        } finally {
+            this.lock.unlock();
         }
+    }
 
-        while (this.elements.isEmpty()) {
-            try {
-                this.wait();
-            } catch (final InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException(e);
+    /**
+     * Move a batch of elements to a collection. Blocking method: waits for at least one element,
+     * unless the bus is closed.
+     *
+     * @param collection  the destination
+     * @param maxElements the max number of elements to move
+     * @return the number of elements moved, 0 if and only if the bus is closed and empty
+     * @throws IllegalArgumentException if maxElements is not positive
+     */
+    public int drainTo(final Collection<? super E> collection, final int maxElements) {
+        if (maxElements <= 0) {
+            throw new IllegalArgumentException("Max elements must be positive: " + maxElements);
+        }
+        this.lock.lock();
+        try {
+            while (this.elements.isEmpty()) {
+                if (this.closed) {
+                    return 0;
+                }
+                this.notEmptyOrClosed.await();
+            }
+            final int count = Math.min(maxElements, this.elements.size());
+            for (int i = 0; i < count; i++) {
+                collection.add(this.elements.remove());
             }
+            this.notFullOrClosed.signalAll(); // count free slots
+            return count;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            this.lock.unlock();
         }
-        return this.elements.remove();
     }
 
     /**
      * @return true if the bus was closed
      */
-    synchronized public boolean isClosed() {
-        return this.closed && this.elements.isEmpty();
+    public boolean isClosed() {
+        this.lock.lock();
+        try {
+            return this.closed && this.elements.isEmpty();
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     /**
-     * Add an element to the bus
+     * @return the number of elements in the bus
+     */
+    public int size() {
+        this.lock.lock();
+        try {
+            return this.elements.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Add an element to the bus. Blocking method: waits while the bus is full.
      *
-     * @param element the element
+     * @param element the element, not null
+     * @throws NullPointerException  if the element is null
+     * @throws IllegalStateException if the bus is closed, even while waiting
      */
-    synchronized public void put(final E element) {
-        if (this.closed) {
-            throw new IllegalStateException("Bus is closed");
+    public void put(final E element) {
+        if (element == null) {
+            throw new NullPointerException("Null elements are not allowed in the bus");
         }
+        this.lock.lock();
+        try {
+            while (this.elements.size() >= this.capacity && !this.closed) {
+                this.notFullOrClosed.await();
+            }
+            if (this.closed) {
+                throw new IllegalStateException("Bus is closed");
+            }
+
+            this.elements.add(element);
+            this.notEmptyOrClosed.signal(); // one element, one consumer
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            this.lock.unlock();
+        }
+    }
 
-        this.elements.add(element);
-        this.notifyAll();
+    private E remove() {
+        final E element = this.elements.remove();
+        this.notFullOrClosed.signal(); // one slot, one producer
+        return element;
     }
-}
\ No newline at end of file
+}
@@ -24,6 +24,7 @@
 
 package com.github.jferard.fastods.tool;
 
+import com.github.jferard.fastods.CancellationToken;
 import com.github.jferard.fastods.CellValue;
 import com.github.jferard.fastods.DataWrapper;
 import com.github.jferard.fastods.FastOdsException;
@@ -48,6 +49,11 @@ import java.util.logging.Logger;
  * @author Julien Férard
  */
 public final class ResultSetDataWrapper implements DataWrapper {
+    /**
+     * the token is checked every CHECK_INTERVAL rows
+     */
+    private static final int CHECK_INTERVAL = 1024;
+
     /**
      * @param rs the result set
      * @return the data wrapper
@@ -75,7 +81,7 @@ public final class ResultSetDataWrapper implements DataWrapper {
     private final ResultSet resultSet;
     private final Map<Integer, CellType> cellTypeByColIndex;
     private final CellValue nullValue;
-
+    private final CancellationToken cancellationToken;
 
     /**
      * @param logger             a logger
@@ -93,6 +99,30 @@ public final class ResultSetDataWrapper implements DataWrapper {
                                 final TableCellStyle headCellStyle, final boolean autoFilter,
                                 final Map<Integer, CellType> cellTypeByColIndex,
                                 final CellValue nullValue, final int max) {
+        this(logger, converter, rangeName, rs, headCellStyle, autoFilter, cellTypeByColIndex,
+                nullValue, max, null);
+    }
+
+    /**
+     * @param logger             a logger
+     * @param converter          a converter SQL -> OpenDocument
+     * @param rangeName          the name of the range
+     * @param rs                 the result cell
+     * @param headCellStyle      a style for header, null if none
+     * @param autoFilter         set an auto filter if true
+     * @param cellTypeByColIndex a hint for cell types
+     * @param nullValue          the default value for NULL
+     * @param max                the maximum number of rows, -1 for unlimited
+     * @param cancellationToken  a token checked every 1024 rows, null if none. The exception
+     *                           does not abort the writer: the caller must catch it and call
+     *                           {@link com.github.jferard.fastods.OdsFileDirectWriter#abort()}
+     */
+    public ResultSetDataWrapper(final Logger logger, final ToCellValueConverter converter,
+                                final String rangeName, final ResultSet rs,
+                                final TableCellStyle headCellStyle, final boolean autoFilter,
+                                final Map<Integer, CellType> cellTypeByColIndex,
+                                final CellValue nullValue, final int max,
+                                final CancellationToken cancellationToken) {
         this.logger = logger;
         this.converter = converter;
         this.rangeName = rangeName;
@@ -102,6 +132,7 @@ public final class ResultSetDataWrapper implements DataWrapper {
         this.cellTypeByColIndex = cellTypeByColIndex;
         this.nullValue = nullValue;
         this.max = max;
+        this.cancellationToken = cancellationToken;
     }
 
     @Override
@@ -117,7 +148,11 @@ public final class ResultSetDataWrapper implements DataWrapper {
 
                 this.writeFirstLineDataTo(walker, metadata);
                 if (this.resultSet.next()) {
+                    int readCount = 0;
                     do {
+                        if (this.cancellationToken != null && ++readCount % CHECK_INTERVAL == 0) {
+                            this.cancellationToken.check();
+                        }
                         if (this.max == -1 || ++rowCount <= this.max) {
                             walker.nextRow();
                             walker.to(c1);
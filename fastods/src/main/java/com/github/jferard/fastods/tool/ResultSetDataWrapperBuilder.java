@@ -24,6 +24,7 @@
 
 package com.github.jferard.fastods.tool;
 
+import com.github.jferard.fastods.CancellationToken;
 import com.github.jferard.fastods.CellValue;
 import com.github.jferard.fastods.StringValue;
 import com.github.jferard.fastods.TimeValue;
@@ -60,6 +61,7 @@ public class ResultSetDataWrapperBuilder {
     private boolean autoFilter;
     private int max;
     private CellValue nullValue;
+    private CancellationToken cancellationToken;
 
 
     /**
@@ -196,6 +198,21 @@ public class ResultSetDataWrapperBuilder {
         return this;
     }
 
+    /**
+     * Set a cancellation token. The wrapper stops reading the result set if the token is
+     * cancelled, and throws an {@link java.io.InterruptedIOException}. This exception does not
+     * abort the writer: the caller must catch it and call
+     * {@link com.github.jferard.fastods.OdsFileDirectWriter#abort()} to delete the partial file.
+     *
+     * @param cancellationToken the token
+     * @return this for fluent style
+     */
+    public ResultSetDataWrapperBuilder cancellationToken(
+            final CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+        return this;
+    }
+
     /**
      * @return the data wrapper
      */
@@ -206,6 +223,6 @@ public class ResultSetDataWrapperBuilder {
                 this.cellTypeByIndex.isEmpty() ? null : this.cellTypeByIndex;
         return new ResultSetDataWrapper(this.logger, sqlToCellValueConverter, this.rangeName,
                 this.rs, this.headerStyle, this.autoFilter, cellTypeByIndexOrNull, this.nullValue,
-                this.max);
+                this.max, this.cancellationToken);
     }
 }
@@ -0,0 +1,203 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * An immutable set of custom attributes, in insertion order. `with` returns a new set (copy on
+ * write). The sets are shared: every set remembers its last transitions, hence the cells that
+ * are tagged with the same attributes share the same instance. The serialized form is computed
+ * once.
+ * <p>
+ * The values are not escaped.
+ *
+ * @author Julien Férard
+ */
+public final class AttributeSet {
+    /**
+     * The empty set
+     */
+    public static final AttributeSet EMPTY = new AttributeSet(new String[0], new String[0]);
+
+    private static final int TRANSITION_COUNT = 8;
+    private static final int TRANSITION_MASK = TRANSITION_COUNT - 1;
+
+    /**
+     * A transition: this set + (name, value) -&gt; result
+     */
+    private static final class Transition {
+        private final String name;
+        private final String value;
+        private final AttributeSet result;
+
+        private Transition(final String name, final String value, final AttributeSet result) {
+            this.name = name;
+            this.value = value;
+            this.result = result;
+        }
+    }
+
+    private final String[] names;
+    private final String[] values;
+    private Transition[] transitions;
+    private String serialized;
+
+    private AttributeSet(final String[] names, final String[] values) {
+        this.names = names;
+        this.values = values;
+    }
+
+    /**
+     * @param name  the attribute name
+     * @param value the value
+     * @return a set with this attribute, that replaces the previous value if any
+     */
+    public AttributeSet with(final String name, final CharSequence value) {
+        final String valueAsString = value.toString();
+        final int slot = (name.hashCode() * 31 + valueAsString.hashCode()) & TRANSITION_MASK;
+        Transition[] curTransitions = this.transitions;
+        if (curTransitions == null) {
+            curTransitions = new Transition[TRANSITION_COUNT];
+            this.transitions = curTransitions;
+        } else {
+            final Transition transition = curTransitions[slot];
+            if (transition != null && transition.name.equals(name) &&
+                    transition.value.equals(valueAsString)) {
+                return transition.result;
+            }
+        }
+        final AttributeSet result = this.createWith(name, valueAsString);
+        curTransitions[slot] = new Transition(name, valueAsString, result);
+        return result;
+    }
+
+    private AttributeSet createWith(final String name, final String value) {
+        final int index = this.indexOf(name);
+        if (index >= 0) {
+            if (this.values[index].equals(value)) {
+                return this;
+            }
+            final String[] newValues = this.values.clone();
+            newValues[index] = value;
+            return new AttributeSet(this.names, newValues);
+        }
+        final int size = this.names.length;
+        final String[] newNames = Arrays.copyOf(this.names, size + 1);
+        final String[] newValues = Arrays.copyOf(this.values, size + 1);
+        newNames[size] = name;
+        newValues[size] = value;
+        return new AttributeSet(newNames, newValues);
+    }
+
+    private int indexOf(final String name) {
+        for (int i = 0; i < this.names.length; i++) {
+            if (this.names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param name the attribute name
+     * @return the value, or null
+     */
+    public String get(final String name) {
+        final int index = this.indexOf(name);
+        if (index == -1) {
+            return null;
+        }
+        return this.values[index];
+    }
+
+    /**
+     * @return the number of attributes
+     */
+    public int size() {
+        return this.names.length;
+    }
+
+    /**
+     * @return true if the set is empty
+     */
+    public boolean isEmpty() {
+        return this.names.length == 0;
+    }
+
+    /**
+     * Append the attributes: ` name1="value1" name2="value2"...`
+     *
+     * @param util       an util
+     * @param appendable the destination
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendAttributes(final XMLUtil util, final Appendable appendable)
+            throws IOException {
+        if (this.names.length == 0) {
+            return;
+        }
+        String curSerialized = this.serialized;
+        if (curSerialized == null) {
+            final StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < this.names.length; i++) {
+                util.appendAttribute(sb, this.names[i], this.values[i]);
+            }
+            curSerialized = sb.toString();
+            this.serialized = curSerialized;
+        }
+        appendable.append(curSerialized);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof AttributeSet)) {
+            return false;
+        }
+        final AttributeSet other = (AttributeSet) o;
+        return Arrays.equals(this.names, other.names) && Arrays.equals(this.values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return EqualityUtil.hashObjects(Arrays.hashCode(this.names), Arrays.hashCode(this.values));
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AttributeSet[");
+        for (int i = 0; i < this.names.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(this.names[i]).append('=').append(this.values[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+/**
+ * An util to format UTC dates and times (XML Schema Part 2, 3.2.7 dateTime), without
+ * `Calendar` or `SimpleDateFormat`.
+ * <p>
+ * The formatting relies on day number arithmetic (proleptic gregorian calendar) and on a
+ * lazily filled cache of the "yyyy-MM-dd" strings. The class is stateless, apart from this
+ * cache of immutable strings: it is safe to use it from several threads.
+ *
+ * @author Julien Férard
+ */
+public final class DateTimeUtil {
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    /**
+     * Days from 0000-03-01 to 1970-01-01
+     */
+    private static final int DAYS_0000_TO_1970 = 719468;
+    private static final int DAYS_PER_ERA = 146097;
+    /**
+     * Days from 1970-01-01 back to 1900-01-01
+     */
+    private static final int FIRST_CACHED_DAY = -25567;
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_COUNT = 128;
+    private static final String[][] DAY_CHUNKS = new String[CHUNK_COUNT][];
+    private static final int DATE_LENGTH = 10;
+    private static final int DATE_TIME_LENGTH = 24;
+
+    private DateTimeUtil() {
+    }
+
+    /**
+     * @param epochMillis the number of milliseconds since 1970-01-01T00:00:00.000Z
+     * @return the date time, e.g. "2017-12-31T18:12:59.123Z"
+     */
+    public static String formatDateTime(final long epochMillis) {
+        final long day = floorDiv(epochMillis, MILLIS_PER_DAY);
+        final int millisOfDay = (int) (epochMillis - day * MILLIS_PER_DAY);
+        final String date = getDate(day);
+        final int dateLength = date.length();
+        final char[] chars = new char[dateLength + DATE_TIME_LENGTH - DATE_LENGTH];
+        date.getChars(0, dateLength, chars, 0);
+        chars[dateLength] = 'T';
+        final int i = fillTime(chars, dateLength + 1, millisOfDay / 1000);
+        chars[i] = '.';
+        fillDigits(chars, i + 1, millisOfDay % 1000, 3);
+        chars[i + 4] = 'Z';
+        return new String(chars);
+    }
+
+    /**
+     * @param epochMillis the number of milliseconds since 1970-01-01T00:00:00.000Z
+     * @return the date, e.g. "2017-12-31"
+     */
+    public static String formatDate(final long epochMillis) {
+        return getDate(floorDiv(epochMillis, MILLIS_PER_DAY));
+    }
+
+    /**
+     * @param epochMillis the number of milliseconds since 1970-01-01T00:00:00.000Z
+     * @return the time, e.g. "18:12:59"
+     */
+    public static String formatTime(final long epochMillis) {
+        final long day = floorDiv(epochMillis, MILLIS_PER_DAY);
+        final int millisOfDay = (int) (epochMillis - day * MILLIS_PER_DAY);
+        final char[] chars = new char[8];
+        fillTime(chars, 0, millisOfDay / 1000);
+        return new String(chars);
+    }
+
+    /**
+     * @param day the number of days since 1970-01-01
+     * @return the date, from the cache if possible
+     */
+    private static String getDate(final long day) {
+        final long index = day - FIRST_CACHED_DAY;
+        if (index < 0 || index >= CHUNK_COUNT * CHUNK_SIZE) {
+            return computeDate(day);
+        }
+
+        // benign races: the worst case is a recomputation of immutable strings.
+        final int chunkIndex = (int) (index >>> CHUNK_SHIFT);
+        String[] chunk = DAY_CHUNKS[chunkIndex];
+        if (chunk == null) {
+            chunk = new String[CHUNK_SIZE];
+            DAY_CHUNKS[chunkIndex] = chunk;
+        }
+        final int i = (int) (index & (CHUNK_SIZE - 1));
+        String date = chunk[i];
+        if (date == null) {
+            date = computeDate(day);
+            chunk[i] = date;
+        }
+        return date;
+    }
+
+    /**
+     * See http://howardhinnant.github.io/date_algorithms.html#civil_from_days
+     *
+     * @param day the number of days since 1970-01-01
+     * @return the date
+     */
+    static String computeDate(final long day) {
+        final long z = day + DAYS_0000_TO_1970;
+        final long era = floorDiv(z, DAYS_PER_ERA);
+        final int dayOfEra = (int) (z - era * DAYS_PER_ERA); // [0, 146096]
+        final int yearOfEra =
+                (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final int mp = (5 * dayOfYear + 2) / 153; // March = 0
+        final int dayOfMonth = dayOfYear - (153 * mp + 2) / 5 + 1;
+        final int month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400;
+        if (month <= 2) {
+            year++;
+        }
+
+        final char[] chars;
+        final int i;
+        if (0 <= year && year <= 9999) {
+            chars = new char[DATE_LENGTH];
+            fillDigits(chars, 0, (int) year, 4);
+            i = 4;
+        } else {
+            final String yearAsString = year < 0 ? "-" + pad4(-year) : Long.toString(year);
+            i = yearAsString.length();
+            chars = new char[i + DATE_LENGTH - 4];
+            yearAsString.getChars(0, i, chars, 0);
+        }
+        chars[i] = '-';
+        fillDigits(chars, i + 1, month, 2);
+        chars[i + 3] = '-';
+        fillDigits(chars, i + 4, dayOfMonth, 2);
+        return new String(chars);
+    }
+
+    private static String pad4(final long value) {
+        final String s = Long.toString(value);
+        switch (s.length()) {
+            case 1:
+                return "000" + s;
+            case 2:
+                return "00" + s;
+            case 3:
+                return "0" + s;
+            default:
+                return s;
+        }
+    }
+
+    /**
+     * Fill the chars with HH:mm:ss
+     *
+     * @return the next index
+     */
+    private static int fillTime(final char[] chars, final int start, final int secondsOfDay) {
+        fillDigits(chars, start, secondsOfDay / 3600, 2);
+        chars[start + 2] = ':';
+        fillDigits(chars, start + 3, (secondsOfDay / 60) % 60, 2);
+        chars[start + 5] = ':';
+        fillDigits(chars, start + 6, secondsOfDay % 60, 2);
+        return start + 8;
+    }
+
+    private static void fillDigits(final char[] chars, final int start, int value,
+                                   final int count) {
+        for (int i = start + count - 1; i >= start; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static long floorDiv(final long x, final long y) {
+        final long q = x / y;
+        if ((x % y != 0) && ((x ^ y) < 0)) {
+            return q - 1;
+        }
+        return q;
+    }
+}
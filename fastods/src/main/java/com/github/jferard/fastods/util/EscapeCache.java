@@ -0,0 +1,139 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded LRU cache for escaped strings, with counters. The strings that are too long are
+ * not cached, nor the strings that don't need any escaping.
+ *
+ * @author Julien Férard
+ */
+class EscapeCache {
+    private final Map<String, String> escapedByString;
+    private final int maxCachedLength;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long bypassCount;
+
+    /**
+     * @param capacity        the max number of cached strings
+     * @param maxCachedLength the max length of a cached string
+     */
+    EscapeCache(final int capacity, final int maxCachedLength) {
+        this.maxCachedLength = maxCachedLength;
+        this.escapedByString = new LinkedHashMap<String, String>(2 * capacity, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+                if (this.size() > capacity) {
+                    EscapeCache.this.evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param s the string
+     * @return true if the string is not too long to be cached
+     */
+    boolean accepts(final String s) {
+        if (s.length() > this.maxCachedLength) {
+            this.bypassCount++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Count a string that was not cached because there is nothing to escape.
+     */
+    void bypass() {
+        this.bypassCount++;
+    }
+
+    /**
+     * @param s the string
+     * @return the escaped string, or null
+     */
+    String get(final String s) {
+        final String escaped = this.escapedByString.get(s);
+        if (escaped == null) {
+            this.missCount++;
+        } else {
+            this.hitCount++;
+        }
+        return escaped;
+    }
+
+    /**
+     * @param s       the string
+     * @param escaped the escaped string
+     */
+    void put(final String s, final String escaped) {
+        this.escapedByString.put(s, escaped);
+    }
+
+    /**
+     * @return the number of cached strings
+     */
+    int size() {
+        return this.escapedByString.size();
+    }
+
+    /**
+     * @return the number of strings found in the cache
+     */
+    long getHitCount() {
+        return this.hitCount;
+    }
+
+    /**
+     * @return the number of strings not found in the cache
+     */
+    long getMissCount() {
+        return this.missCount;
+    }
+
+    /**
+     * @return the number of strings removed from the cache
+     */
+    long getEvictionCount() {
+        return this.evictionCount;
+    }
+
+    /**
+     * @return the number of strings that were not cached: too long, or nothing to escape
+     */
+    long getBypassCount() {
+        return this.bypassCount;
+    }
+}
@@ -152,6 +152,14 @@ public class FastFullList<E> implements Iterable<E> {
         }
     }
 
+    /**
+     * Remove all the elements, but keep the capacity.
+     */
+    public void clear() {
+        Arrays.fill(this.arr, 0, this.size, this.blankElement);
+        this.size = 0;
+    }
+
     /**
      * post condition: this.size == index + 1
      */
@@ -24,19 +24,32 @@
 
 package com.github.jferard.fastods.util;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
 
 /**
  * The FastOdsXMLEscaper class is an utility class to escape XML special chars.
+ * <p>
+ * The escaped strings are kept in two bounded LRU caches (attributes and contents). The long
+ * strings and the strings that don't need any escaping are not cached: the caches help for
+ * repetitive values, without growing with unique values.
  *
  * @author Julien Férard
  */
 @SuppressWarnings("PMD.UnusedLocalVariable")
 public class FastOdsXMLEscaper implements XMLEscaper {
     private static final int BUFFER_SIZE = 65536;
+    /**
+     * The default max number of strings in each cache
+     */
+    public static final int DEFAULT_CACHE_CAPACITY = 4096;
+    /**
+     * The default max length of a cached string
+     */
+    public static final int DEFAULT_MAX_CACHED_LENGTH = 64;
     private static final char[][] CHAR_SUBSTITUTES_IN_ATTRIBUTE;
     private static final char[][] CHAR_SUBSTITUTES_IN_CONTENT;
+    private static final String[] STRING_SUBSTITUTES_IN_ATTRIBUTE;
+    private static final String[] STRING_SUBSTITUTES_IN_CONTENT;
 
     /**
      * @return an xml escaper with the default buffer size (65536 bytes)
@@ -72,10 +85,58 @@ public class FastOdsXMLEscaper implements XMLEscaper {
                         "&amp;".toCharArray(), null, null, null, null, null, null, null, null, null,
                         null, null, null, null, null, null, null, null, null, null, null, null,
                         "&lt;".toCharArray(), null, "&gt;".toCharArray()};
+        STRING_SUBSTITUTES_IN_ATTRIBUTE = toStrings(CHAR_SUBSTITUTES_IN_ATTRIBUTE);
+        STRING_SUBSTITUTES_IN_CONTENT = toStrings(CHAR_SUBSTITUTES_IN_CONTENT);
+    }
+
+    private static String[] toStrings(final char[][] charSubstitutes) {
+        final String[] stringSubstitutes = new String[charSubstitutes.length];
+        for (int i = 0; i < charSubstitutes.length; i++) {
+            if (charSubstitutes[i] != null) {
+                stringSubstitutes[i] = new String(charSubstitutes[i]);
+            }
+        }
+        return stringSubstitutes;
+    }
+
+    /**
+     * Append the chars. The runs of safe chars are appended in one call.
+     *
+     * @param appendable  the destination
+     * @param s           the input chars
+     * @param substitutes the substitutes of the special chars (indexed by char)
+     * @throws IOException if an I/O error occurs
+     */
+    private static void appendEscaped(final Appendable appendable, final CharSequence s,
+                                      final String[] substitutes) throws IOException {
+        if (s == null) {
+            appendable.append(null);
+            return;
+        }
+        final int length = s.length();
+        int safeRunStart = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c <= '>') {
+                final String substitute = substitutes[c];
+                if (substitute != null) {
+                    if (i > safeRunStart) {
+                        appendable.append(s, safeRunStart, i);
+                    }
+                    appendable.append(substitute);
+                    safeRunStart = i + 1;
+                }
+            }
+        }
+        if (safeRunStart == 0) {
+            appendable.append(s);
+        } else if (safeRunStart < length) {
+            appendable.append(s, safeRunStart, length);
+        }
     }
 
-    private final Map<String, String> attrCacheMap;
-    private final Map<String, String> contentCacheMap;
+    private final EscapeCache attrCache;
+    private final EscapeCache contentCache;
     private char[] buffer;
 
     /**
@@ -84,8 +145,20 @@ public class FastOdsXMLEscaper implements XMLEscaper {
      * @param bufferSize the buffer size
      */
     public FastOdsXMLEscaper(final int bufferSize) {
-        this.attrCacheMap = new HashMap<String, String>();
-        this.contentCacheMap = new HashMap<String, String>();
+        this(bufferSize, DEFAULT_CACHE_CAPACITY, DEFAULT_MAX_CACHED_LENGTH);
+    }
+
+    /**
+     * Creates an xml escaper with a specified buffer size and caches
+     *
+     * @param bufferSize      the buffer size
+     * @param cacheCapacity   the max number of strings in each cache
+     * @param maxCachedLength the max length of a cached string
+     */
+    public FastOdsXMLEscaper(final int bufferSize, final int cacheCapacity,
+                             final int maxCachedLength) {
+        this.attrCache = new EscapeCache(cacheCapacity, maxCachedLength);
+        this.contentCache = new EscapeCache(cacheCapacity, maxCachedLength);
         this.buffer = new char[bufferSize];
     }
 
@@ -95,22 +168,63 @@ public class FastOdsXMLEscaper implements XMLEscaper {
             return null;
         }
 
-        final String cached = this.attrCacheMap.get(s);
+        return this.getEscapedString(s, CHAR_SUBSTITUTES_IN_ATTRIBUTE, this.attrCache);
+    }
+
+    private String getEscapedString(final String s, final char[][] charSubstitutes,
+                                    final EscapeCache cache) {
+        if (!cache.accepts(s)) {
+            return this.getEscapedString(s, charSubstitutes, 0);
+        }
+
+        // the strings that don't need any escaping are neither looked up nor cached
+        final int firstSpecialCharIndex =
+                FastOdsXMLEscaper.getFirstSpecialCharIndex(s, charSubstitutes);
+        if (firstSpecialCharIndex == -1) {
+            cache.bypass();
+            return s;
+        }
+
+        final String cached = cache.get(s);
         if (cached != null) {
             return cached;
         }
 
-        final String escaped = this.getEscapedString(s, CHAR_SUBSTITUTES_IN_ATTRIBUTE);
-        this.attrCacheMap.put(s, escaped);
+        final String escaped = this.getEscapedString(s, charSubstitutes, firstSpecialCharIndex);
+        cache.put(s, escaped);
         return escaped;
     }
 
-    private String getEscapedString(final String s, final char[][] charSubstitutes) {
+    /**
+     * @param s               the string
+     * @param charSubstitutes the substitutes of the special chars (indexed by char)
+     * @return the index of the first special char, or -1
+     */
+    private static int getFirstSpecialCharIndex(final String s, final char[][] charSubstitutes) {
+        final int length = s.length();
+        for (int i = 0; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c <= '>' && charSubstitutes[c] != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param s               the string
+     * @param charSubstitutes the substitutes of the special chars (indexed by char)
+     * @param fromIndex       the index of the first char to check: there is no special char
+     *                        before this index
+     * @return the escaped string
+     */
+    private String getEscapedString(final String s, final char[][] charSubstitutes,
+                                    final int fromIndex) {
         final int sourceLength = s.length();
         int previousDestIndex = 0;
         int firstIdenticalCharInSourceIndex = 0;
         boolean oneSpecialChar = false;
-        for (int sourceIndex = 0; sourceIndex < sourceLength; sourceIndex++) {
+        for (int sourceIndex = fromIndex; sourceIndex < sourceLength; sourceIndex++) {
             final char c = s.charAt(sourceIndex);
             if (c <= '>') {
                 final char[] toCopy = charSubstitutes[c];
@@ -186,13 +300,67 @@ public class FastOdsXMLEscaper implements XMLEscaper {
             return null;
         }
 
-        final String cached = this.contentCacheMap.get(s);
-        if (cached != null) {
-            return cached;
-        }
+        return this.getEscapedString(s, CHAR_SUBSTITUTES_IN_CONTENT, this.contentCache);
+    }
 
-        final String escaped = this.getEscapedString(s, CHAR_SUBSTITUTES_IN_CONTENT);
-        this.contentCacheMap.put(s, escaped);
-        return escaped;
+    /**
+     * Escape the chars as an attribute and append them, without intermediate string.
+     *
+     * @param appendable the destination
+     * @param s          the input chars. If null, "null" is appended, like
+     *                   `Appendable.append`.
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendEscapedAttribute(final Appendable appendable, final CharSequence s)
+            throws IOException {
+        FastOdsXMLEscaper.appendEscaped(appendable, s, STRING_SUBSTITUTES_IN_ATTRIBUTE);
+    }
+
+    /**
+     * Escape the chars as a content (text node) and append them, without intermediate string.
+     *
+     * @param appendable the destination
+     * @param s          the input chars. If null, "null" is appended, like
+     *                   `Appendable.append`.
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendEscapedContent(final Appendable appendable, final CharSequence s)
+            throws IOException {
+        FastOdsXMLEscaper.appendEscaped(appendable, s, STRING_SUBSTITUTES_IN_CONTENT);
+    }
+
+    /**
+     * @return the number of strings found in the caches
+     */
+    public long getCacheHitCount() {
+        return this.attrCache.getHitCount() + this.contentCache.getHitCount();
+    }
+
+    /**
+     * @return the number of strings not found in the caches
+     */
+    public long getCacheMissCount() {
+        return this.attrCache.getMissCount() + this.contentCache.getMissCount();
+    }
+
+    /**
+     * @return the number of strings removed from the caches
+     */
+    public long getCacheEvictionCount() {
+        return this.attrCache.getEvictionCount() + this.contentCache.getEvictionCount();
+    }
+
+    /**
+     * @return the number of strings that were not cached: too long, or nothing to escape
+     */
+    public long getCacheBypassCount() {
+        return this.attrCache.getBypassCount() + this.contentCache.getBypassCount();
+    }
+
+    /**
+     * @return the number of strings in the caches
+     */
+    public int getCacheSize() {
+        return this.attrCache.size() + this.contentCache.size();
     }
 }
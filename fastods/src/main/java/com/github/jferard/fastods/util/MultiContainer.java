@@ -49,6 +49,7 @@ public class MultiContainer<K, S extends Enum<S>, V> {
     private boolean closed;
     private boolean debug;
     private Mode mode;
+    private int modCount;
 
     /**
      * Create a new multi container
@@ -75,6 +76,25 @@ public class MultiContainer<K, S extends Enum<S>, V> {
      */
     public void setMode(final Mode mode) {
         this.mode = mode;
+        this.modCount++;
+    }
+
+    /**
+     * @return the current mode
+     */
+    public Mode getMode() {
+        return this.mode;
+    }
+
+    /**
+     * The modification count is incremented each time a value that was already added is
+     * replaced by another value or moved to another sub container, or the mode changes. Adding
+     * a new key does not change the count.
+     *
+     * @return the modification count
+     */
+    public int getModCount() {
+        return this.modCount;
     }
 
     /**
@@ -104,6 +124,7 @@ public class MultiContainer<K, S extends Enum<S>, V> {
                             "MultiContainer put(" + key + ", " + value + ") in " + subContainer);
                 }
                 this.valueByKeyBySubContainer.get(curSubContainer).remove(key);
+                this.modCount++;
             }
         }
 
@@ -119,7 +140,10 @@ public class MultiContainer<K, S extends Enum<S>, V> {
         } else if (this.debug && !valueByKey.containsKey(key)) {
             this.logger.severe("MultiContainer put(" + key + ", " + value + ") in " + subContainer);
         }
-        valueByKey.put(key, value);
+        final V previousValue = valueByKey.put(key, value);
+        if (previousValue != null && previousValue != value) {
+            this.modCount++;
+        }
         return true;
     }
 
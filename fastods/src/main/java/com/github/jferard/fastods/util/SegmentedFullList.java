@@ -0,0 +1,277 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A SegmentedFullList is similar to a FastFullList (an infinite list where every element that
+ * was not set is null), but the elements are stored in fixed size segments. A segment is
+ * allocated only when an element is set inside it, and the segments before a given index may
+ * be released: the memory depends on the window of used elements, not on the highest index.
+ *
+ * @param <E> type of the elements
+ * @author J. Férard
+ */
+public class SegmentedFullList<E> {
+    private static final int DEFAULT_SEGMENT_SHIFT = 10;
+
+    /**
+     * @param capacity the expected capacity
+     * @param <F>      the type of the elements
+     * @return a new full list, with segments of 1024 elements
+     */
+    public static <F> SegmentedFullList<F> newListWithCapacity(final int capacity) {
+        return new SegmentedFullList<F>(capacity, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    /**
+     * @param capacity     the expected capacity
+     * @param segmentShift log2 of the size of a segment
+     * @param <F>          the type of the elements
+     * @return a new full list
+     */
+    public static <F> SegmentedFullList<F> newListWithCapacity(final int capacity,
+                                                               final int segmentShift) {
+        return new SegmentedFullList<F>(capacity, segmentShift);
+    }
+
+    private final int segmentShift;
+    private final int segmentSize;
+    private final int segmentMask;
+    private Object[][] segments;
+    private int size;
+    private int releasedIndex;
+
+    /**
+     * @param capacity     the expected capacity
+     * @param segmentShift log2 of the size of a segment
+     */
+    public SegmentedFullList(final int capacity, final int segmentShift) {
+        this.segmentShift = segmentShift;
+        this.segmentSize = 1 << segmentShift;
+        this.segmentMask = this.segmentSize - 1;
+        this.segments = new Object[(capacity >>> segmentShift) + 1][];
+        this.size = 0;
+        this.releasedIndex = 0;
+    }
+
+    /**
+     * @return the size really used, that is the index of the last non null element + 1.
+     */
+    public int usedSize() {
+        return this.size;
+    }
+
+    /**
+     * @param index the index
+     * @return the element at the index, null if the element was not set or was released
+     */
+    @SuppressWarnings("unchecked")
+    public E get(final int index) {
+        if (index >= this.size) {
+            return null;
+        }
+        final Object[] segment = this.segments[index >>> this.segmentShift];
+        if (segment == null) {
+            return null;
+        }
+        return (E) segment[index & this.segmentMask];
+    }
+
+    /**
+     * Set an element
+     *
+     * @param index   the index
+     * @param element the element
+     * @throws IllegalStateException if the element is not null and the index was released
+     */
+    public void set(final int index, final E element) {
+        final int segmentIndex = index >>> this.segmentShift;
+        if (element == null) {
+            if (index >= this.size || index < this.releasedIndex) {
+                return;
+            }
+            final Object[] segment = this.segments[segmentIndex];
+            if (segment != null) {
+                segment[index & this.segmentMask] = null;
+            }
+            if (index == this.size - 1) {
+                this.removeTrail();
+            }
+        } else {
+            if (index < this.releasedIndex) {
+                throw new IllegalStateException("Index " + index + " was released");
+            }
+            this.ensureSegment(segmentIndex)[index & this.segmentMask] = element;
+            if (index >= this.size) {
+                this.size = index + 1;
+            }
+        }
+    }
+
+    private Object[] ensureSegment(final int segmentIndex) {
+        this.ensureSegmentSlot(segmentIndex);
+        Object[] segment = this.segments[segmentIndex];
+        if (segment == null) {
+            segment = new Object[this.segmentSize];
+            this.segments[segmentIndex] = segment;
+        }
+        return segment;
+    }
+
+    /**
+     * Grow the array of segments (but do not allocate any segment)
+     *
+     * @param segmentIndex the index of the segment that must have a slot
+     */
+    private void ensureSegmentSlot(final int segmentIndex) {
+        if (segmentIndex >= this.segments.length) {
+            final Object[][] newSegments =
+                    new Object[Math.max(segmentIndex + 1, 2 * this.segments.length)][];
+            System.arraycopy(this.segments, 0, newSegments, 0, this.segments.length);
+            this.segments = newSegments;
+        }
+    }
+
+    /**
+     * post condition: this.get(this.size - 1) != null
+     */
+    private void removeTrail() {
+        int last = this.size - 2;
+        while (last >= this.releasedIndex) {
+            final Object[] segment = this.segments[last >>> this.segmentShift];
+            if (segment == null) { // skip the whole segment
+                last = (last & ~this.segmentMask) - 1;
+            } else if (segment[last & this.segmentMask] == null) {
+                last--;
+            } else {
+                break;
+            }
+        }
+        this.size = Math.max(last + 1, this.releasedIndex);
+    }
+
+    /**
+     * Release the elements before an index: those elements are lost, and it won't be possible
+     * to set an element before this index. The whole segments are dropped.
+     *
+     * @param index the first index to keep
+     */
+    public void releaseBefore(final int index) {
+        if (index <= this.releasedIndex) {
+            return;
+        }
+        final int lastSegmentIndex = Math.min(index >>> this.segmentShift, this.segments.length);
+        for (int s = this.releasedIndex >>> this.segmentShift; s < lastSegmentIndex; s++) {
+            this.segments[s] = null;
+        }
+        if (lastSegmentIndex < this.segments.length) {
+            final Object[] segment = this.segments[lastSegmentIndex];
+            if (segment != null) {
+                final int from = Math.max(this.releasedIndex, index & ~this.segmentMask);
+                for (int i = from; i < index; i++) {
+                    segment[i & this.segmentMask] = null;
+                }
+            }
+        }
+        this.releasedIndex = index;
+        if (this.size < index) {
+            // every index below the size must have a segment slot
+            this.ensureSegmentSlot((index - 1) >>> this.segmentShift);
+            this.size = index;
+        }
+    }
+
+    /**
+     * @param fromIndex the first index
+     * @return the index of the first non null element at or after fromIndex, or the used size
+     * if there is no such element. The segments that were not allocated are skipped.
+     */
+    public int nextIndex(final int fromIndex) {
+        int index = Math.max(fromIndex, this.releasedIndex);
+        while (index < this.size) {
+            final Object[] segment = this.segments[index >>> this.segmentShift];
+            if (segment == null) { // skip the whole segment
+                index = (index & ~this.segmentMask) + this.segmentSize;
+            } else if (segment[index & this.segmentMask] == null) {
+                index++;
+            } else {
+                return index;
+            }
+        }
+        return this.size;
+    }
+
+    /**
+     * Remove all the elements. The segments are kept for reuse.
+     */
+    public void clear() {
+        final int segmentCount = this.segments.length;
+        for (int s = 0; s < segmentCount && (s << this.segmentShift) < this.size; s++) {
+            final Object[] segment = this.segments[s];
+            if (segment != null) {
+                Arrays.fill(segment, null);
+            }
+        }
+        this.size = this.releasedIndex;
+    }
+
+    /**
+     * @param index the index
+     * @return true if the index was released
+     */
+    public boolean isReleased(final int index) {
+        return index < this.releasedIndex;
+    }
+
+    /**
+     * @param fromIndex starting index
+     * @param toIndex   last index + 1
+     * @return the sublist view.
+     */
+    public List<E> subList(final int fromIndex, final int toIndex) {
+        return new AbstractList<E>() {
+            @Override
+            public E get(final int index) {
+                return SegmentedFullList.this.get(fromIndex + index);
+            }
+
+            @Override
+            public E set(final int index, final E element) {
+                final E previous = SegmentedFullList.this.get(fromIndex + index);
+                SegmentedFullList.this.set(fromIndex + index, element);
+                return previous;
+            }
+
+            @Override
+            public int size() {
+                return toIndex - fromIndex;
+            }
+        };
+    }
+}
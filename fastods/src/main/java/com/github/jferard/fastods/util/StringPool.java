@@ -0,0 +1,175 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+/**
+ * A bounded pool of strings, to collapse the equal values of categorical columns (country,
+ * status...) into one instance. The escaped form of a pooled string is cached next to it.
+ * <p>
+ * The pool is direct mapped. A string is admitted on its second occurrence, and only if it is
+ * more frequent than the string that occupies its slot. The frequencies are approximate and
+ * halved periodically, so that the pool adapts to the data.
+ * <p>
+ * The pool may be shared by several tables: races lose some frequency counts or some cached
+ * escaped forms, but the values are never altered.
+ *
+ * @author Julien Férard
+ */
+public final class StringPool {
+    /**
+     * The default number of slots
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final int ADMISSION_THRESHOLD = 2;
+    private static final int SKETCH_FACTOR = 4;
+    private static final int AGING_FACTOR = 16;
+
+    /**
+     * @return a pool with the default capacity
+     */
+    public static StringPool create() {
+        return StringPool.create(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the number of slots, rounded to the next power of two
+     * @return a pool
+     */
+    public static StringPool create(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity should be positive: " + capacity);
+        }
+        int slotCount = 1;
+        while (slotCount < capacity) {
+            slotCount <<= 1;
+        }
+        return new StringPool(slotCount);
+    }
+
+    /**
+     * A pooled string and its escaped form
+     */
+    private static final class Entry {
+        private final String value;
+        private String escapedAttribute;
+
+        private Entry(final String value) {
+            this.value = value;
+        }
+    }
+
+    private final Entry[] entries;
+    private final int entryMask;
+    private final int[] frequencies;
+    private final int sketchMask;
+    private final int agingPeriod;
+    private int operationCount;
+
+    private StringPool(final int slotCount) {
+        this.entries = new Entry[slotCount];
+        this.entryMask = slotCount - 1;
+        this.frequencies = new int[slotCount * SKETCH_FACTOR];
+        this.sketchMask = this.frequencies.length - 1;
+        this.agingPeriod = slotCount * AGING_FACTOR;
+    }
+
+    private static int spread(final int hashCode) {
+        return hashCode ^ (hashCode >>> 16);
+    }
+
+    /**
+     * @param s the string
+     * @return the pooled instance if there is one, s otherwise
+     */
+    public String intern(final String s) {
+        if (s == null) {
+            return null;
+        }
+        final int hash = StringPool.spread(s.hashCode());
+        final int slot = hash & this.entryMask;
+        final Entry entry = this.entries[slot];
+        final int frequency = this.increment(hash);
+        if (entry != null) {
+            final String pooled = entry.value;
+            if (pooled == s || pooled.equals(s)) {
+                return pooled;
+            }
+            if (frequency <= this.frequencies[StringPool.spread(pooled.hashCode()) &
+                    this.sketchMask]) {
+                return s;
+            }
+        }
+        if (frequency >= ADMISSION_THRESHOLD) {
+            this.entries[slot] = new Entry(s);
+        }
+        return s;
+    }
+
+    private int increment(final int hash) {
+        final int index = hash & this.sketchMask;
+        final int frequency = this.frequencies[index] + 1;
+        this.frequencies[index] = frequency;
+        this.operationCount++;
+        if (this.operationCount >= this.agingPeriod) {
+            this.operationCount = 0;
+            for (int i = 0; i < this.frequencies.length; i++) {
+                this.frequencies[i] >>>= 1;
+            }
+        }
+        return frequency;
+    }
+
+    /**
+     * @param util an util
+     * @param s    the string
+     * @return the escaped string, cached if s is the pooled instance
+     */
+    public String escapeXMLAttribute(final XMLUtil util, final String s) {
+        final Entry entry = this.entries[StringPool.spread(s.hashCode()) & this.entryMask];
+        if (entry == null || entry.value != s) {
+            return util.escapeXMLAttribute(s);
+        }
+        String escaped = entry.escapedAttribute;
+        if (escaped == null) {
+            escaped = util.escapeXMLAttribute(s);
+            entry.escapedAttribute = escaped;
+        }
+        return escaped;
+    }
+
+    /**
+     * @return the number of pooled strings
+     */
+    public int size() {
+        int size = 0;
+        for (final Entry entry : this.entries) {
+            if (entry != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * A buffered UTF-8 writer. The markup of an ODS file is almost pure ASCII: every ASCII char is
+ * stored as a byte in the buffer, without going through a CharsetEncoder. Other chars are
+ * encoded by hand. An unpaired surrogate is written as '?', like an OutputStreamWriter does.
+ * <p>
+ * This writer replaces a BufferedWriter over an OutputStreamWriter: it does not copy the chars
+ * to an intermediate buffer, and `append(CharSequence)` does not create a String.
+ *
+ * @author Julien Férard
+ */
+final class UTF8Writer extends Writer {
+    /**
+     * The minimal size of the buffer: any code point must fit in the buffer.
+     */
+    static final int MIN_BUFFER_SIZE = 16;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int count;
+    private char highSurrogate;
+
+    /**
+     * @param out        the destination
+     * @param bufferSize the size of the byte buffer. Values under MIN_BUFFER_SIZE are ignored
+     */
+    UTF8Writer(final OutputStream out, final int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[Math.max(bufferSize, MIN_BUFFER_SIZE)];
+        this.count = 0;
+        this.highSurrogate = 0;
+    }
+
+    @Override
+    public void write(final int c) throws IOException {
+        this.writeChar((char) c);
+    }
+
+    @Override
+    public void write(final char[] cbuf, final int off, final int len) throws IOException {
+        final int end = off + len;
+        int i = off;
+        while (i < end) {
+            // ASCII run: no check but the buffer limit
+            final int limit = Math.min(end, i + this.buffer.length - this.count);
+            while (i < limit) {
+                final char c = cbuf[i];
+                if (c >= 0x80 || this.highSurrogate != 0) {
+                    break;
+                }
+                this.buffer[this.count++] = (byte) c;
+                i++;
+            }
+            if (i < end) {
+                final char c = cbuf[i];
+                if (c < 0x80 && this.highSurrogate == 0) { // buffer is full
+                    this.flushBuffer();
+                } else {
+                    this.writeChar(c);
+                    i++;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) throws IOException {
+        this.writeChars(str, off, off + len);
+    }
+
+    @Override
+    public Writer append(final CharSequence csq) throws IOException {
+        if (csq == null) {
+            this.writeChars("null", 0, 4);
+        } else {
+            this.writeChars(csq, 0, csq.length());
+        }
+        return this;
+    }
+
+    @Override
+    public Writer append(final CharSequence csq, final int start, final int end)
+            throws IOException {
+        if (csq == null) {
+            this.writeChars("null", start, end);
+        } else {
+            this.writeChars(csq, start, end);
+        }
+        return this;
+    }
+
+    @Override
+    public Writer append(final char c) throws IOException {
+        this.writeChar(c);
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.flushBuffer();
+        this.out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.highSurrogate != 0) {
+            this.highSurrogate = 0;
+            this.writeByte('?');
+        }
+        this.flush();
+        this.out.close();
+    }
+
+    private void writeChars(final CharSequence csq, final int start, final int end)
+            throws IOException {
+        int i = start;
+        while (i < end) {
+            final int limit = Math.min(end, i + this.buffer.length - this.count);
+            while (i < limit) {
+                final char c = csq.charAt(i);
+                if (c >= 0x80 || this.highSurrogate != 0) {
+                    break;
+                }
+                this.buffer[this.count++] = (byte) c;
+                i++;
+            }
+            if (i < end) {
+                final char c = csq.charAt(i);
+                if (c < 0x80 && this.highSurrogate == 0) { // buffer is full
+                    this.flushBuffer();
+                } else {
+                    this.writeChar(c);
+                    i++;
+                }
+            }
+        }
+    }
+
+    private void writeChar(final char c) throws IOException {
+        if (this.highSurrogate != 0) {
+            final char high = this.highSurrogate;
+            this.highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                this.writeCodePoint(Character.toCodePoint(high, c));
+                return;
+            }
+            this.writeByte('?');
+        }
+        if (c < 0x80) {
+            this.writeByte(c);
+        } else if (Character.isHighSurrogate(c)) {
+            this.highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            this.writeByte('?');
+        } else {
+            this.writeCodePoint(c);
+        }
+    }
+
+    private void writeCodePoint(final int cp) throws IOException {
+        if (this.buffer.length - this.count < 4) {
+            this.flushBuffer();
+        }
+        final byte[] b = this.buffer;
+        if (cp < 0x80) {
+            b[this.count++] = (byte) cp;
+        } else if (cp < 0x800) {
+            b[this.count++] = (byte) (0xC0 | (cp >> 6));
+            b[this.count++] = (byte) (0x80 | (cp & 0x3F));
+        } else if (cp < 0x10000) {
+            b[this.count++] = (byte) (0xE0 | (cp >> 12));
+            b[this.count++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            b[this.count++] = (byte) (0x80 | (cp & 0x3F));
+        } else {
+            b[this.count++] = (byte) (0xF0 | (cp >> 18));
+            b[this.count++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+            b[this.count++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            b[this.count++] = (byte) (0x80 | (cp & 0x3F));
+        }
+    }
+
+    private void writeByte(final int b) throws IOException {
+        if (this.count == this.buffer.length) {
+            this.flushBuffer();
+        }
+        this.buffer[this.count++] = (byte) b;
+    }
+
+    private void flushBuffer() throws IOException {
+        if (this.count > 0) {
+            this.out.write(this.buffer, 0, this.count);
+            this.count = 0;
+        }
+    }
+}
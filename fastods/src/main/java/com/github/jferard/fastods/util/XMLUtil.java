@@ -55,6 +55,11 @@ public class XMLUtil {
     }
 
     private final XMLEscaper escaper;
+    /**
+     * The escaper if it can append the escaped chars without intermediate string, else null.
+     * A subclass of FastOdsXMLEscaper may override the escape methods: it is not streamed.
+     */
+    private final FastOdsXMLEscaper streamingEscaper;
 
     /**
      * Create a new util
@@ -63,6 +68,11 @@ public class XMLUtil {
      */
     XMLUtil(final XMLEscaper escaper) {
         this.escaper = escaper;
+        if (escaper != null && escaper.getClass() == FastOdsXMLEscaper.class) {
+            this.streamingEscaper = (FastOdsXMLEscaper) escaper;
+        } else {
+            this.streamingEscaper = null;
+        }
     }
 
     /**
@@ -78,8 +88,9 @@ public class XMLUtil {
      */
     public void appendEAttribute(final Appendable appendable, final CharSequence attrName,
                                  final String attrRawValue) throws IOException {
-        appendable.append(' ').append(attrName).append("=\"")
-                .append(this.escaper.escapeXMLAttribute(attrRawValue)).append('"');
+        appendable.append(' ').append(attrName).append("=\"");
+        this.appendEscapedAttribute(appendable, attrRawValue);
+        appendable.append('"');
     }
 
     /**
@@ -173,9 +184,45 @@ public class XMLUtil {
      */
     public void appendTag(final Appendable appendable, final CharSequence tagName,
                           final String content) throws IOException {
-        appendable.append('<').append(tagName).append('>')
-                .append(this.escaper.escapeXMLContent(content)).append("</").append(tagName)
-                .append('>');
+        appendable.append('<').append(tagName).append('>');
+        this.appendEscapedContent(appendable, content);
+        appendable.append("</").append(tagName).append('>');
+    }
+
+    /**
+     * Escape the chars as an attribute value and append them, without intermediate string.
+     *
+     * @param appendable the destination
+     * @param s          the chars
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendEscapedAttribute(final Appendable appendable, final CharSequence s)
+            throws IOException {
+        if (this.streamingEscaper != null) {
+            this.streamingEscaper.appendEscapedAttribute(appendable, s);
+        } else if (s == null) {
+            appendable.append(null);
+        } else {
+            appendable.append(this.escaper.escapeXMLAttribute(s.toString()));
+        }
+    }
+
+    /**
+     * Escape the chars as a content and append them, without intermediate string.
+     *
+     * @param appendable the destination
+     * @param s          the chars
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendEscapedContent(final Appendable appendable, final CharSequence s)
+            throws IOException {
+        if (this.streamingEscaper != null) {
+            this.streamingEscaper.appendEscapedContent(appendable, s);
+        } else if (s == null) {
+            appendable.append(null);
+        } else {
+            appendable.append(this.escaper.escapeXMLContent(s.toString()));
+        }
     }
 
     /**
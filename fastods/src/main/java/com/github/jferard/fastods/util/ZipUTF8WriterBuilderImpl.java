@@ -27,9 +27,7 @@ package com.github.jferard.fastods.util;
 import com.github.jferard.fastods.odselement.ManifestElement;
 
 import java.io.BufferedOutputStream;
-import java.io.BufferedWriter;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.util.zip.Deflater;
 import java.util.zip.ZipOutputStream;
@@ -42,6 +40,11 @@ import java.util.zip.ZipOutputStream;
 public class ZipUTF8WriterBuilderImpl implements ZipUTF8WriterBuilder {
     private static final int DEFAULT_BUFFER = -1;
     private static final int NO_BUFFER = -2;
+    /**
+     * The size of the byte buffer of the UTF-8 writer: the former BufferedWriter char buffer
+     * (8 k chars) plus the StreamEncoder byte buffer (8 kB).
+     */
+    private static final int DEFAULT_WRITER_BUFFER_SIZE = 16 * 1024;
     private final XMLUtil xmlUtil;
 
     private int level;
@@ -75,21 +78,20 @@ public class ZipUTF8WriterBuilderImpl implements ZipUTF8WriterBuilder {
         final ZipOutputStream zipOut = new ZipOutputStream(bufferedOut);
         zipOut.setMethod(ZipOutputStream.DEFLATED);
         zipOut.setLevel(this.level);
-        final Writer writer = new OutputStreamWriter(zipOut, CharsetUtil.UTF_8);
-        final Writer bufferedWriter;
+        final int writerBufferSize;
         switch (this.writerBufferSize) {
             case NO_BUFFER:
-                bufferedWriter = writer;
+                writerBufferSize = UTF8Writer.MIN_BUFFER_SIZE;
                 break;
             case DEFAULT_BUFFER:
-                bufferedWriter = new BufferedWriter(writer);
+                writerBufferSize = DEFAULT_WRITER_BUFFER_SIZE;
                 break;
             default:
-                bufferedWriter = new BufferedWriter(writer, this.writerBufferSize);
+                writerBufferSize = this.writerBufferSize;
                 break;
         }
-        return new ZipUTF8WriterImpl(this.xmlUtil, zipOut, bufferedWriter,
-                ManifestElement.create());
+        final Writer writer = new UTF8Writer(zipOut, writerBufferSize);
+        return new ZipUTF8WriterImpl(this.xmlUtil, zipOut, writer, ManifestElement.create());
     }
 
     /**
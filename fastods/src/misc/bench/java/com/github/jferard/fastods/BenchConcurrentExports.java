@@ -0,0 +1,152 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.testlib.Bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Many concurrent exports, each with a producer thread and a consumer thread around a
+ * OdsFileWriterAdapter. On a Loom JVM, the threads are virtual threads: a monitor would pin
+ * the carrier threads while a producer or a consumer waits.
+ * <p>
+ * mvn -P bench test -Dtest=BenchmarkTest#concurrentExports
+ */
+public class BenchConcurrentExports extends Bench {
+    private static final int EXPORT_COUNT = 200;
+
+    /**
+     * @return a factory of virtual threads if available (Java 21+), of platform threads
+     * otherwise.
+     */
+    private static ThreadFactory createThreadFactory(final Logger logger) {
+        try {
+            final Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            final Object builder = ofVirtual.invoke(null);
+            final Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            logger.info("Virtual threads");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (final Exception e) {
+            logger.info("Platform threads");
+            return new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable r) {
+                    return new Thread(r);
+                }
+            };
+        }
+    }
+
+    private final Logger logger;
+    private final OdsFactory odsFactory;
+    private final ThreadFactory threadFactory;
+
+    public BenchConcurrentExports(final Logger logger, final int rowCount, final int colCount) {
+        super(logger, "FastODSConcurrentExports", rowCount, colCount);
+        this.logger = logger;
+        this.odsFactory = OdsFactory.create(this.logger, Locale.US);
+        this.threadFactory = createThreadFactory(logger);
+    }
+
+    @Override
+    public long test() throws IOException {
+        this.logger.info("testConcurrentExports: " + EXPORT_COUNT + " exports of " +
+                this.getRowCount() + " rows, " + this.getColCount() + " columns");
+        final long t1 = System.currentTimeMillis();
+        final List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < EXPORT_COUNT; i++) {
+            final OdsFileWriterAdapter writerAdapter = this.odsFactory.createWriterAdapter(
+                    new File("generated_files", "fastods_concurrent_" + i + ".ods"));
+            threads.add(this.threadFactory.newThread(this.consumer(writerAdapter)));
+            threads.add(this.threadFactory.newThread(this.producer(writerAdapter.document(),
+                    new Random(i))));
+        }
+        for (final Thread thread : threads) {
+            thread.start();
+        }
+        try {
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+        } catch (final InterruptedException e) {
+            this.logger.log(Level.SEVERE, "", e);
+        }
+        final long t2 = System.currentTimeMillis();
+        this.logger.info("Exported in " + (t2 - t1) + " ms");
+        return t2 - t1;
+    }
+
+    private Runnable consumer(final OdsFileWriterAdapter writerAdapter) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (writerAdapter.isNotStopped()) {
+                        writerAdapter.waitForData();
+                        writerAdapter.flushAdaptee();
+                    }
+                    writerAdapter.flushAdaptee();
+                } catch (final IOException e) {
+                    BenchConcurrentExports.this.logger.log(Level.SEVERE, "", e);
+                }
+            }
+        };
+    }
+
+    private Runnable producer(final NamedOdsDocument document, final Random random) {
+        final int rowCount = this.getRowCount();
+        final int colCount = this.getColCount();
+        return new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final Table table = document.addTable("test", rowCount, colCount);
+                    table.setFlushPolicy(FlushPolicy.rowCount(64));
+                    final TableCellWalker walker = table.getWalker();
+                    for (int y = 0; y < rowCount; y++) {
+                        for (int x = 0; x < colCount; x++) {
+                            walker.setFloatValue(random.nextInt(1000));
+                            walker.next();
+                        }
+                        walker.nextRow();
+                    }
+                    document.save();
+                } catch (final IOException e) {
+                    BenchConcurrentExports.this.logger.log(Level.SEVERE, "", e);
+                }
+            }
+        };
+    }
+}
@@ -89,6 +89,15 @@ public class BenchmarkTest {
         this.test(6 * BenchmarkTest.ROW_COUNT, 6 * BenchmarkTest.COL_COUNT, BenchmarkTest.TIMES);
     }
 
+    @Test
+    public void concurrentExports() throws IOException {
+        final Bench bench = new BenchConcurrentExports(this.logger, 500, 10);
+        for (int i = 0; i < BenchmarkTest.TIMES; i++) {
+            bench.iteration();
+        }
+        this.logger.info(bench.getWithoutWarmUp().toString());
+    }
+
     //	@Test
     public void checkThreads() throws IOException {
         final Bench bench1c = new BenchFastFlushWithThreads(this.logger, 15, 20);
@@ -0,0 +1,113 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.jferard.fastods;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CancellationTokenTest {
+    @Test
+    public void testCreate() throws InterruptedIOException {
+        final CancellationToken token = CancellationToken.create();
+        Assert.assertFalse(token.isCancelled());
+        Assert.assertEquals(Long.MAX_VALUE, token.remainingNanos());
+        token.check();
+    }
+
+    @Test
+    public void testCancel() {
+        final CancellationToken token = CancellationToken.create();
+        token.cancel();
+        Assert.assertTrue(token.isCancelled());
+        Assert.assertEquals(0, token.remainingNanos());
+        try {
+            token.check();
+            Assert.fail();
+        } catch (final InterruptedIOException e) {
+            Assert.assertEquals("Export cancelled", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDeadline() {
+        final CancellationToken token = CancellationToken.withTimeout(0, TimeUnit.SECONDS);
+        Assert.assertTrue(token.isCancelled());
+        Assert.assertEquals(0, token.remainingNanos());
+        try {
+            token.check();
+            Assert.fail();
+        } catch (final InterruptedIOException e) {
+            Assert.assertEquals("Export deadline exceeded", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testFarDeadline() throws InterruptedIOException {
+        final CancellationToken token = CancellationToken.withTimeout(1, TimeUnit.HOURS);
+        Assert.assertFalse(token.isCancelled());
+        Assert.assertTrue(token.remainingNanos() > 0);
+        token.check();
+    }
+
+    @Test
+    public void testListeners() {
+        final AtomicInteger count = new AtomicInteger();
+        final Runnable listener = new Runnable() {
+            @Override
+            public void run() {
+                count.incrementAndGet();
+            }
+        };
+        final CancellationToken token = CancellationToken.create();
+        token.addCancelListener(listener);
+        Assert.assertEquals(0, count.get());
+        token.cancel();
+        token.cancel();
+        Assert.assertEquals(1, count.get());
+        token.addCancelListener(listener);
+        Assert.assertEquals(2, count.get());
+    }
+
+    @Test
+    public void testRemoveListener() {
+        final AtomicInteger count = new AtomicInteger();
+        final Runnable listener = new Runnable() {
+            @Override
+            public void run() {
+                count.incrementAndGet();
+            }
+        };
+        final CancellationToken token = CancellationToken.create();
+        token.addCancelListener(listener);
+        token.removeCancelListener(listener);
+        token.cancel();
+        Assert.assertEquals(0, count.get());
+    }
+}
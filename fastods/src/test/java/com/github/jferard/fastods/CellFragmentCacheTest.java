@@ -0,0 +1,88 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.style.TableCellStyle;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CellFragmentCacheTest {
+    private CellFragmentCache cache;
+    private TableCellStyle style;
+
+    @Before
+    public void setUp() {
+        this.cache = new CellFragmentCache(2);
+        this.style = TableCellStyle.builder("s").build();
+    }
+
+    @Test
+    public final void testAccepts() {
+        Assert.assertTrue(this.cache.accepts(CellType.STRING, "OPEN"));
+        Assert.assertTrue(this.cache.accepts(CellType.BOOLEAN, "true"));
+        Assert.assertTrue(this.cache.accepts(CellType.FLOAT, "12"));
+        Assert.assertTrue(this.cache.accepts(CellType.FLOAT, "-123"));
+        Assert.assertTrue(this.cache.accepts(CellType.PERCENTAGE, "1"));
+        Assert.assertFalse(this.cache.accepts(null, null));
+        Assert.assertFalse(this.cache.accepts(CellType.CURRENCY, "1"));
+        Assert.assertFalse(this.cache.accepts(CellType.FLOAT, "3.14"));
+        Assert.assertFalse(this.cache.accepts(CellType.FLOAT, "12345"));
+        Assert.assertFalse(this.cache.accepts(CellType.FLOAT, "-"));
+        Assert.assertFalse(this.cache.accepts(CellType.DATE, "2021-01-01T00:00:00"));
+        Assert.assertFalse(this.cache.accepts(CellType.STRING, "a very very long string value"));
+    }
+
+    @Test
+    public final void testAdmits() {
+        Assert.assertFalse(this.cache.admits(CellType.STRING, this.style, "OPEN"));
+        Assert.assertTrue(this.cache.admits(CellType.STRING, this.style, "OPEN"));
+        Assert.assertFalse(this.cache.admits(CellType.FLOAT, this.style, "OPEN"));
+    }
+
+    @Test
+    public final void testGetPut() {
+        Assert.assertNull(this.cache.get(CellType.STRING, this.style, "OPEN"));
+        this.cache.put(CellType.STRING, this.style, "OPEN", "<f/>");
+        Assert.assertEquals("<f/>", this.cache.get(CellType.STRING, this.style, "OPEN"));
+        Assert.assertNull(this.cache.get(CellType.STRING, null, "OPEN"));
+        Assert.assertNull(this.cache.get(CellType.STRING,
+                TableCellStyle.builder("s").build(), "OPEN"));
+        Assert.assertNull(this.cache.get(CellType.FLOAT, this.style, "OPEN"));
+    }
+
+    @Test
+    public final void testLRU() {
+        this.cache.put(CellType.FLOAT, null, "1", "<1/>");
+        this.cache.put(CellType.FLOAT, null, "2", "<2/>");
+        Assert.assertEquals("<1/>", this.cache.get(CellType.FLOAT, null, "1"));
+        this.cache.put(CellType.FLOAT, null, "3", "<3/>");
+        Assert.assertEquals(2, this.cache.size());
+        Assert.assertEquals("<1/>", this.cache.get(CellType.FLOAT, null, "1"));
+        Assert.assertNull(this.cache.get(CellType.FLOAT, null, "2"));
+        Assert.assertEquals("<3/>", this.cache.get(CellType.FLOAT, null, "3"));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.datastyle.BooleanStyleBuilder;
+import com.github.jferard.fastods.datastyle.DataStyle;
+import com.github.jferard.fastods.odselement.StylesContainer;
+import com.github.jferard.fastods.style.TableCellStyle;
+import org.easymock.EasyMock;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.api.easymock.PowerMock;
+
+import java.util.Locale;
+
+public class ChildCellStyleCacheTest {
+    private StylesContainer stc;
+    private ChildCellStyleCache cache;
+
+    @Before
+    public void setUp() {
+        this.stc = PowerMock.createMock(StylesContainer.class);
+        this.cache = new ChildCellStyleCache(this.stc);
+    }
+
+    @Test
+    public void testHit() {
+        final TableCellStyle style = TableCellStyle.builder("s").build();
+        final DataStyle dataStyle = new BooleanStyleBuilder("b", Locale.US).build();
+        final TableCellStyle childStyle = TableCellStyle.builder("c").build();
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.stc.addDataStyle(dataStyle)).andReturn(true);
+        EasyMock.expect(this.stc.addChildCellStyle(style, dataStyle)).andReturn(childStyle);
+
+        PowerMock.replayAll();
+        final TableCellStyle s1 = this.cache.getChildCellStyle(style, dataStyle);
+        final TableCellStyle s2 = this.cache.getChildCellStyle(style, dataStyle);
+
+        PowerMock.verifyAll();
+        Assert.assertSame(childStyle, s1);
+        Assert.assertSame(childStyle, s2);
+    }
+
+    @Test
+    public void testMiss() {
+        final TableCellStyle style1 = TableCellStyle.builder("s1").build();
+        final TableCellStyle style2 = TableCellStyle.builder("s2").build();
+        final DataStyle dataStyle = new BooleanStyleBuilder("b", Locale.US).build();
+        final TableCellStyle childStyle1 = TableCellStyle.builder("c1").build();
+        final TableCellStyle childStyle2 = TableCellStyle.builder("c2").build();
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.stc.addDataStyle(dataStyle)).andReturn(true).times(2);
+        EasyMock.expect(this.stc.addChildCellStyle(style1, dataStyle)).andReturn(childStyle1);
+        EasyMock.expect(this.stc.addChildCellStyle(style2, dataStyle)).andReturn(childStyle2);
+
+        PowerMock.replayAll();
+        final TableCellStyle s1 = this.cache.getChildCellStyle(style1, dataStyle);
+        final TableCellStyle s2 = this.cache.getChildCellStyle(style2, dataStyle);
+
+        PowerMock.verifyAll();
+        Assert.assertSame(childStyle1, s1);
+        Assert.assertSame(childStyle2, s2);
+    }
+}
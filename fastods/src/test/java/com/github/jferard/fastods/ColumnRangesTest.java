@@ -0,0 +1,81 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ColumnRangesTest {
+    private ColumnRanges ranges;
+
+    @Before
+    public void setUp() {
+        this.ranges = new ColumnRanges();
+    }
+
+    @Test
+    public void testEmpty() {
+        Assert.assertEquals(-1, this.ranges.getEnd(0));
+        Assert.assertEquals(Integer.MAX_VALUE, this.ranges.getNextStart(0));
+        Assert.assertEquals(0, this.ranges.getLastEnd());
+    }
+
+    @Test
+    public void testAdd() {
+        this.ranges.add(10, 20);
+        this.ranges.add(1, 3);
+        this.ranges.add(30, 40);
+        Assert.assertFalse(this.ranges.contains(0));
+        Assert.assertEquals(3, this.ranges.getEnd(1));
+        Assert.assertEquals(-1, this.ranges.getEnd(3));
+        Assert.assertEquals(10, this.ranges.getNextStart(3));
+        Assert.assertEquals(20, this.ranges.getEnd(19));
+        Assert.assertEquals(30, this.ranges.getNextStart(19));
+        Assert.assertEquals(40, this.ranges.getLastEnd());
+    }
+
+    @Test
+    public void testMerge() {
+        this.ranges.add(1, 3);
+        this.ranges.add(10, 20);
+        this.ranges.add(30, 40);
+        this.ranges.add(50, 60);
+        this.ranges.add(3, 31); // merge the first three ranges
+        Assert.assertEquals(40, this.ranges.getEnd(1));
+        Assert.assertEquals(50, this.ranges.getNextStart(1));
+        Assert.assertEquals(60, this.ranges.getLastEnd());
+    }
+
+    @Test
+    public void testGrow() {
+        for (int i = 0; i < 20; i++) {
+            this.ranges.add(10 * i, 10 * i + 5);
+        }
+        Assert.assertTrue(this.ranges.contains(194));
+        Assert.assertFalse(this.ranges.contains(195));
+        Assert.assertEquals(195, this.ranges.getLastEnd());
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.style.TableCellStyle;
+import com.github.jferard.fastods.util.StringPool;
+import com.github.jferard.fastods.util.XMLUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class ColumnSchemaTest {
+    private ColumnSchema schema;
+    private TableCellStyle style;
+
+    @Before
+    public void setUp() throws IOException {
+        this.schema = new ColumnSchema();
+        this.style = TableCellStyle.builder("s").build();
+        this.schema.set(XMLUtil.create(), new ColumnSpec[]{
+                        ColumnSpec.of(CellType.FLOAT), null,
+                        new ColumnSpec(CellType.CURRENCY, null, null)},
+                new TableCellStyle[]{this.style, null, this.style});
+    }
+
+    @Test
+    public final void testEmpty() {
+        final ColumnSchema emptySchema = new ColumnSchema();
+        Assert.assertNull(emptySchema.getStyle(0, CellType.FLOAT));
+        Assert.assertNull(emptySchema.getPrefix(0, CellType.FLOAT, this.style));
+    }
+
+    @Test
+    public final void testGetStyle() {
+        Assert.assertSame(this.style, this.schema.getStyle(0, CellType.FLOAT));
+        Assert.assertNull(this.schema.getStyle(0, CellType.STRING));
+        Assert.assertNull(this.schema.getStyle(0, null));
+        Assert.assertNull(this.schema.getStyle(1, CellType.FLOAT));
+        Assert.assertSame(this.style, this.schema.getStyle(2, CellType.CURRENCY));
+        Assert.assertNull(this.schema.getStyle(3, CellType.FLOAT));
+    }
+
+    @Test
+    public final void testStringPool() throws IOException {
+        final StringPool pool = StringPool.create();
+        final StringPool defaultPool = StringPool.create();
+        Assert.assertNull(this.schema.getStringPool(0));
+        this.schema.set(XMLUtil.create(), new ColumnSpec[]{null,
+                        ColumnSpec.of(CellType.STRING).withStringPool(pool)},
+                new TableCellStyle[2]);
+        this.schema.setDefaultStringPool(defaultPool);
+        Assert.assertSame(defaultPool, this.schema.getStringPool(0));
+        Assert.assertSame(pool, this.schema.getStringPool(1));
+        Assert.assertSame(defaultPool, this.schema.getStringPool(2));
+        Assert.assertNull(this.schema.getStyle(1, CellType.STRING));
+    }
+
+    @Test
+    public final void testGetPrefix() {
+        Assert.assertEquals(
+                "<table:table-cell table:style-name=\"s\" office:value-type=\"float\" " +
+                        "office:value=\"", this.schema.getPrefix(0, CellType.FLOAT, this.style));
+        Assert.assertNull(this.schema.getPrefix(0, CellType.FLOAT, null));
+        Assert.assertNull(this.schema.getPrefix(0, CellType.STRING, this.style));
+        Assert.assertNull(this.schema.getPrefix(2, CellType.CURRENCY, this.style));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FlushPolicyTest {
+    @Test
+    public void testRowCount() {
+        final FlushPolicy policy = FlushPolicy.rowCount(10);
+        Assert.assertFalse(policy.shouldFlush(9, Long.MAX_VALUE - 1));
+        Assert.assertTrue(policy.shouldFlush(10, 0));
+        Assert.assertTrue(policy.shouldFlush(11, 0));
+        Assert.assertFalse(policy.shouldFlush(0, 0));
+    }
+
+    @Test
+    public void testByteBudget() {
+        final FlushPolicy policy = FlushPolicy.byteBudget(1000);
+        Assert.assertFalse(policy.shouldFlush(10, 999));
+        Assert.assertTrue(policy.shouldFlush(11, 1000));
+        Assert.assertEquals(Integer.MAX_VALUE, policy.getMaxRowCount());
+        Assert.assertEquals(1000, policy.getMaxByteCount());
+    }
+
+    @Test
+    public void testHeapFraction() {
+        final FlushPolicy policy = FlushPolicy.heapFraction(0.5);
+        Assert.assertEquals(Runtime.getRuntime().maxMemory() / 2, policy.getMaxByteCount(), 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadHeapFraction() {
+        FlushPolicy.heapFraction(1.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadRowCount() {
+        FlushPolicy.rowCount(0);
+    }
+
+    @Test
+    public void testToString() {
+        Assert.assertEquals("FlushPolicy[maxRowCount=10, maxByteCount=20]",
+                new FlushPolicy(10, 20).toString());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.XMLUtil;
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+import org.easymock.Capture;
+import org.easymock.EasyMock;
+import org.easymock.IAnswer;
+import org.junit.Assert;
+import org.junit.Test;
+import org.powermock.api.easymock.PowerMock;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.logging.Logger;
+
+public class FutureRowsFlusherTest {
+    @Test
+    public void testBlocksInOrder() throws IOException {
+        final Table table = OdsFactory.create(Logger.getLogger("rows"), Locale.US).createWriter()
+                .document().addTable("t");
+        final List<List<TableRowImpl>> blocks = new ArrayList<List<TableRowImpl>>();
+        final StringBuilder expected = new StringBuilder();
+        for (int b = 0; b < 4; b++) {
+            final List<TableRowImpl> block = new ArrayList<TableRowImpl>();
+            for (int r = 0; r < 100; r++) {
+                final TableRowImpl row = table.getRow(b * 100 + r);
+                row.getOrCreateCell(0).setStringValue("a<" + (b * 100 + r));
+                row.getOrCreateCell(1).setFloatValue(r);
+                block.add(row);
+            }
+            blocks.add(block);
+            expected.append(PreprocessedRowsFlusher
+                    .serialize(XMLUtil.create(), new ArrayList<TableRowImpl>(block)));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<OdsAsyncFlusher> flushers = new ArrayList<OdsAsyncFlusher>();
+        try {
+            for (final List<TableRowImpl> block : blocks) {
+                flushers.add(FutureRowsFlusher.create(executor, block));
+            }
+            final ZipUTF8Writer writer = PowerMock.createMock(ZipUTF8Writer.class);
+            final StringBuilder actual = new StringBuilder();
+            final Capture<CharSequence> capture = Capture.newInstance();
+
+            PowerMock.resetAll();
+            EasyMock.expect(writer.append(EasyMock.capture(capture))).andAnswer(
+                    new IAnswer<Appendable>() {
+                        @Override
+                        public Appendable answer() {
+                            return actual.append(capture.getValue());
+                        }
+                    }).times(4);
+
+            PowerMock.replayAll();
+            for (final OdsAsyncFlusher flusher : flushers) {
+                Assert.assertFalse(flusher.isEnd());
+                flusher.flushInto(XMLUtil.create(), writer);
+            }
+
+            PowerMock.verifyAll();
+            Assert.assertEquals(expected.toString(), actual.toString());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailure() {
+        final IOException cause = new IOException("cause");
+        final FutureTask<CharSequence> task =
+                new FutureTask<CharSequence>(new Callable<CharSequence>() {
+                    @Override
+                    public CharSequence call() throws IOException {
+                        throw cause;
+                    }
+                });
+        task.run();
+        final ZipUTF8Writer writer = PowerMock.createMock(ZipUTF8Writer.class);
+
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        try {
+            new FutureRowsFlusher(task).flushInto(XMLUtil.create(), writer);
+            Assert.fail();
+        } catch (final IOException e) {
+            Assert.assertSame(cause, e.getCause());
+        }
+
+        PowerMock.verifyAll();
+    }
+}
@@ -36,11 +36,23 @@ import org.junit.Before;
 import org.junit.Test;
 import org.powermock.api.easymock.PowerMock;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.InterruptedIOException;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 /**
  * Created by jferard on 09/05/17.
@@ -82,6 +94,55 @@ public class OdsFactoryTest {
         factory.createWriter();
     }
 
+    @Test
+    public void concurrentDocuments() throws Exception {
+        final OdsFactory factory =
+                OdsFactory.create(Logger.getLogger("concurrentDocuments"), Locale.US);
+        final int threadCount = 4;
+        final List<Future<String>> futures = new ArrayList<Future<String>>();
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            for (int t = 0; t < threadCount; t++) {
+                futures.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        return OdsFactoryTest.this.createContent(factory);
+                    }
+                }));
+            }
+            for (final Future<String> future : futures) {
+                final String content = future.get();
+                Assert.assertEquals(1000, content.split("office:string-value=\"a&lt;b&amp;c",
+                        -1).length - 1);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private String createContent(final OdsFactory factory) throws IOException {
+        final AnonymousOdsFileWriter writer = factory.createWriter();
+        final Table table = writer.document().addTable("t");
+        for (int r = 0; r < 1000; r++) {
+            table.getRow(r).getOrCreateCell(0).setStringValue("a<b&c" + r);
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.save(out);
+        final ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()));
+        ZipEntry entry = zis.getNextEntry();
+        while (!"content.xml".equals(entry.getName())) {
+            entry = zis.getNextEntry();
+        }
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int count = zis.read(buffer);
+        while (count != -1) {
+            content.write(buffer, 0, count);
+            count = zis.read(buffer);
+        }
+        return content.toString("UTF-8");
+    }
+
     @Test
     public void createWriter() throws Exception {
         PowerMock.resetAll();
@@ -106,6 +167,62 @@ public class OdsFactoryTest {
         PowerMock.verifyAll();
     }
 
+    @Test
+    public void createWriterCancelled() throws Exception {
+        final CancellationToken token = CancellationToken.create();
+        final OdsFactory factory = OdsFactory.create(Logger.getLogger("cancel"), Locale.US);
+        final NamedOdsFileWriter writer = factory.createWriter(this.file, token);
+        writer.document().addTable("t");
+        token.cancel();
+        try {
+            writer.save();
+            Assert.fail();
+        } catch (final InterruptedIOException e) {
+            Assert.assertEquals("Export cancelled", e.getMessage());
+        }
+        Assert.assertFalse(this.file.exists());
+    }
+
+    @Test
+    public void createWriterCancelledInTable() throws Exception {
+        final CancellationToken token = CancellationToken.create();
+        final OdsFactory factory = OdsFactory.create(Logger.getLogger("cancel"), Locale.US);
+        final NamedOdsFileWriter writer = factory.createWriter(this.file, token);
+        final Table table = writer.document().addTable("t");
+        table.setFlushPolicy(FlushPolicy.rowCount(100));
+        int r = 0;
+        try {
+            for (; r < 1000; r++) {
+                if (r == 150) {
+                    token.cancel();
+                }
+                table.getRow(r).getOrCreateCell(0).setFloatValue(r);
+            }
+            Assert.fail();
+        } catch (final InterruptedIOException e) {
+            Assert.assertEquals("Export cancelled", e.getMessage());
+        }
+        Assert.assertEquals(200, r);
+        Assert.assertFalse(this.file.exists());
+    }
+
+    @Test
+    public void createWriterCancelledOutside() throws Exception {
+        final CancellationToken token = CancellationToken.create();
+        final OdsFactory factory = OdsFactory.create(Logger.getLogger("cancel"), Locale.US);
+        final OdsFileDirectWriter writer = factory.createWriter(this.file, token);
+        writer.document().addTable("t").getRow(0).getOrCreateCell(0).setStringValue("a");
+        token.cancel();
+        try {
+            token.check(); // e.g. a ResultSetDataWrapper
+            Assert.fail();
+        } catch (final InterruptedIOException e) {
+            writer.abort();
+        }
+        Assert.assertFalse(this.file.exists());
+        writer.abort();
+    }
+
     @Test
     public void createWriterAdapter() throws Exception {
         final Capture<String> msgCapture = Capture.newInstance();
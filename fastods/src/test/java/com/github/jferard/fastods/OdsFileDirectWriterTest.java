@@ -0,0 +1,116 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.FileOpenResult;
+import com.github.jferard.fastods.util.XMLUtil;
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.easymock.EasyMock;
+import org.junit.Test;
+import org.powermock.api.easymock.PowerMock;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.logging.Logger;
+
+public class OdsFileDirectWriterTest {
+    private Logger logger;
+    private XMLUtil util;
+    private NamedOdsDocument document;
+    private ZipUTF8Writer writer;
+    private OutputStream out;
+    private OdsAsyncFlusher flusher;
+
+    @Before
+    public void setUp() {
+        this.logger = PowerMock.createMock(Logger.class);
+        this.util = XMLUtil.create();
+        this.document = PowerMock.createMock(NamedOdsDocument.class);
+        this.writer = PowerMock.createMock(ZipUTF8Writer.class);
+        this.out = PowerMock.createMock(OutputStream.class);
+        this.flusher = PowerMock.createMock(OdsAsyncFlusher.class);
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        final OdsFileDirectWriter dw = new OdsFileDirectWriter(this.logger, this.util,
+                this.document, this.writer, CancellationToken.create(), this.out, null);
+
+        PowerMock.resetAll();
+        this.flusher.flushInto(this.util, this.writer);
+
+        PowerMock.replayAll();
+        dw.update(this.flusher);
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testUpdateCancelled() throws Exception {
+        final CancellationToken token = CancellationToken.create();
+        final OdsFileDirectWriter dw = new OdsFileDirectWriter(this.logger, this.util,
+                this.document, this.writer, token, this.out, null);
+
+        PowerMock.resetAll();
+        this.out.close(); // the zip writer is not closed: no central directory
+
+        PowerMock.replayAll();
+        token.cancel();
+        try {
+            dw.update(this.flusher);
+            Assert.fail();
+        } catch (final InterruptedIOException e) {
+            Assert.assertEquals("Export cancelled", e.getMessage());
+        }
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testAbortAfterOpenResult() throws IOException {
+        final File file = File.createTempFile("fastods", ".ods");
+        file.deleteOnExit();
+        final FileOpenResult result = PowerMock.createMock(FileOpenResult.class);
+
+        PowerMock.resetAll();
+        EasyMock.expect(result.getStream()).andReturn(this.out);
+        EasyMock.expect(this.document.getXMLUtil()).andReturn(this.util);
+        this.out.close();
+
+        PowerMock.replayAll();
+        final OdsFileDirectWriter dw = OdsFileDirectWriter.builder(this.logger, this.document)
+                .file(file).openResult(result).build();
+        dw.abort();
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(file.exists()); // the data went to another stream
+        Assert.assertTrue(file.delete());
+    }
+}
@@ -31,6 +31,7 @@ import org.junit.Test;
 import org.powermock.api.easymock.PowerMock;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.Queue;
@@ -98,7 +99,7 @@ public class OdsFileWriterAdapterTest {
     }
 
     @Test
-    public void testUpdate() {
+    public void testUpdate() throws IOException {
         PowerMock.resetAll();
         this.logger
                 .fine("Add new flusher: EasyMock for interface com.github.jferard.fastods" +
@@ -318,4 +319,112 @@ public class OdsFileWriterAdapterTest {
         this.wa.waitForData();
         PowerMock.verifyAll();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testUpdateWakesConsumer() throws InterruptedException, IOException {
+        final OdsFileWriterAdapter wal = this.wa;
+        final Thread t = new Thread() {
+            @Override
+            public void run() {
+                wal.waitForData();
+            }
+        };
+
+        PowerMock.resetAll();
+        this.logger
+                .fine("Add new flusher: EasyMock for interface com.github.jferard.fastods" +
+                        ".OdsAsyncFlusher");
+
+        PowerMock.replayAll();
+        t.start();
+        Thread.sleep(100);
+        this.wa.update(this.f);
+        t.join(1000);
+
+        PowerMock.verifyAll();
+        Assert.assertFalse(t.isAlive());
+    }
+
+    @Test
+    public void testFlushAdapteeCancelled() throws Exception {
+        final OdsFileDirectWriter dw = PowerMock.createMock(OdsFileDirectWriter.class);
+        final CancellationToken token = CancellationToken.create();
+        final OdsFileWriterAdapter wac =
+                new OdsFileWriterAdapter(this.logger, dw, this.flushers, token);
+        this.flushers.add(this.f);
+
+        PowerMock.resetAll();
+        dw.abort();
+
+        PowerMock.replayAll();
+        token.cancel();
+        try {
+            wac.flushAdaptee();
+            Assert.fail();
+        } catch (final InterruptedIOException e) {
+            Assert.assertEquals("Export cancelled", e.getMessage());
+        }
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(this.flushers.isEmpty());
+        Assert.assertFalse(wac.isNotStopped());
+    }
+
+    @Test
+    public void testUpdateCancelled() throws Exception {
+        final OdsFileDirectWriter dw = PowerMock.createMock(OdsFileDirectWriter.class);
+        final CancellationToken token = CancellationToken.create();
+        final OdsFileWriterAdapter wac =
+                new OdsFileWriterAdapter(this.logger, dw, this.flushers, token);
+
+        PowerMock.resetAll();
+        dw.abort();
+
+        PowerMock.replayAll();
+        token.cancel();
+        try {
+            wac.update(this.f);
+            Assert.fail();
+        } catch (final InterruptedIOException e) {
+            Assert.assertEquals("Export cancelled", e.getMessage());
+        }
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(this.flushers.isEmpty());
+        Assert.assertFalse(wac.isNotStopped());
+    }
+
+    @Test
+    public void testCancelWakesConsumer() throws InterruptedException {
+        final CancellationToken token = CancellationToken.create();
+        final OdsFileWriterAdapter wac = OdsFileWriterAdapter.create(this.logger, this.w, token);
+        final Thread t = new Thread() {
+            @Override
+            public void run() {
+                wac.waitForData();
+            }
+        };
+
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        t.start();
+        Thread.sleep(100);
+        token.cancel();
+        t.join(1000);
+
+        PowerMock.verifyAll();
+        Assert.assertFalse(t.isAlive());
+    }
+
+    @Test
+    public void testUpdateAfterAbort() throws IOException {
+        PowerMock.resetAll();
+
+        PowerMock.replayAll();
+        this.wa.abort();
+        this.wa.update(this.f);
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(this.flushers.isEmpty());
+    }
+}
@@ -86,6 +86,8 @@ public class PreprocessedRowsFlusherTest {
         final List<TableRowImpl> rows = Arrays.asList(r1, r2);
 
         PowerMock.resetAll();
+        EasyMock.expect(r1.hasColdCells()).andReturn(false);
+        EasyMock.expect(r2.hasColdCells()).andReturn(false);
         r1.appendXMLToTable(EasyMock.eq(this.util), EasyMock.anyObject(StringBuilder.class));
         r2.appendXMLToTable(EasyMock.eq(this.util), EasyMock.anyObject(StringBuilder.class));
         EasyMock.expect(this.w.append(EasyMock.anyObject(StringBuilder.class))).andReturn(this.sb);
@@ -98,6 +100,29 @@ public class PreprocessedRowsFlusherTest {
         Assert.assertEquals("", this.sb.toString());
     }
 
+    @Test
+    public void serializeWithCache() throws Exception {
+        final TableRowImpl r1 = PowerMock.createMock(TableRowImpl.class);
+        final TableRowImpl r2 = PowerMock.createMock(TableRowImpl.class);
+        final CellFragmentCache cache = new CellFragmentCache(2);
+        final List<TableRowImpl> rows = Arrays.asList(r1, r2);
+
+        PowerMock.resetAll();
+        EasyMock.expect(r1.hasColdCells()).andReturn(false);
+        EasyMock.expect(r2.hasColdCells()).andReturn(false);
+        r1.appendXMLToTable(EasyMock.eq(this.util), EasyMock.same(cache),
+                EasyMock.anyObject(StringBuilder.class));
+        r2.appendXMLToTable(EasyMock.eq(this.util), EasyMock.same(cache),
+                EasyMock.anyObject(StringBuilder.class));
+
+        PowerMock.replayAll();
+        final StringBuilder xml = PreprocessedRowsFlusher.serialize(this.util, cache, rows);
+
+        PowerMock.verifyAll();
+        Assert.assertEquals("", xml.toString());
+        Assert.assertEquals(Arrays.asList(null, null), rows);
+    }
+
     @Test
     public void flushIntoNullRow() throws Exception {
         final List<TableRowImpl> rows = new ArrayList<TableRowImpl>();
@@ -112,6 +137,27 @@ public class PreprocessedRowsFlusherTest {
         flusher.flushInto(this.util, this.w);
 
         PowerMock.verifyAll();
-        Assert.assertEquals("<row />", capturedArgument.getValue().toString());
+        Assert.assertEquals("<table:table-row table:style-name=\"ro1\"><table:table-cell/>" +
+                "</table:table-row>", capturedArgument.getValue().toString());
+    }
+
+    @Test
+    public void flushIntoNullRows() throws Exception {
+        final List<TableRowImpl> rows = new ArrayList<TableRowImpl>();
+        rows.add(null);
+        rows.add(null);
+
+        PowerMock.resetAll();
+        final Capture<CharSequence> capturedArgument = EasyMock.newCapture();
+        EasyMock.expect(this.w.append(EasyMock.capture(capturedArgument))).andReturn(this.w);
+
+        PowerMock.replayAll();
+        final OdsAsyncFlusher flusher = PreprocessedRowsFlusher.create(this.util, rows);
+        flusher.flushInto(this.util, this.w);
+
+        PowerMock.verifyAll();
+        Assert.assertEquals("<table:table-row table:number-rows-repeated=\"2\" " +
+                        "table:style-name=\"ro1\"><table:table-cell/></table:table-row>",
+                capturedArgument.getValue().toString());
     }
 }
\ No newline at end of file
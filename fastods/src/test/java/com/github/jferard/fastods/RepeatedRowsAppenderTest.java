@@ -0,0 +1,205 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.XMLUtil;
+import org.easymock.EasyMock;
+import org.easymock.IAnswer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.api.easymock.PowerMock;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+public class RepeatedRowsAppenderTest {
+    private static final String ROW_A = "<table:table-row table:style-name=\"ro1\">" +
+            "<table:table-cell office:value-type=\"string\" office:string-value=\"a\"/>" +
+            "</table:table-row>";
+    private static final String ROW_B = "<table:table-row table:style-name=\"ro1\">" +
+            "<table:table-cell/></table:table-row>";
+
+    private XMLUtil util;
+    private StringBuilder sb;
+    private RepeatedRowsAppender appender;
+
+    @Before
+    public void setUp() {
+        this.util = XMLUtil.create();
+        this.sb = new StringBuilder();
+        this.appender = new RepeatedRowsAppender(this.util, this.sb);
+    }
+
+    @Test
+    public void testRepeated() throws IOException {
+        final TableRowImpl a = this.createRow(ROW_A, 3);
+        final TableRowImpl b = this.createRow(ROW_B, 1);
+
+        PowerMock.replayAll();
+        this.appender.appendRow(a);
+        this.appender.appendRow(a);
+        this.appender.appendRow(a);
+        this.appender.appendRow(b);
+        this.appender.flush();
+
+        PowerMock.verifyAll();
+        Assert.assertEquals("<table:table-row table:number-rows-repeated=\"3\" " +
+                "table:style-name=\"ro1\"><table:table-cell office:value-type=\"string\" " +
+                "office:string-value=\"a\"/></table:table-row>" + ROW_B, this.sb.toString());
+    }
+
+    @Test
+    public void testNotRepeated() throws IOException {
+        final TableRowImpl a = this.createRow(ROW_A, 2);
+        final TableRowImpl b = this.createRow(ROW_B, 1);
+
+        PowerMock.replayAll();
+        this.appender.appendRow(a);
+        this.appender.appendRow(b);
+        this.appender.appendRow(a);
+        this.appender.flush();
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(ROW_A + ROW_B + ROW_A, this.sb.toString());
+    }
+
+    @Test
+    public void testAlreadyRepeated() throws IOException {
+        final String rowXML = "<table:table-row table:number-rows-repeated=\"2\">" +
+                "<table:table-cell/></table:table-row>";
+        final TableRowImpl a = this.createRow(rowXML, 2);
+
+        PowerMock.replayAll();
+        this.appender.appendRow(a);
+        this.appender.appendRow(a);
+        this.appender.flush();
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(rowXML + rowXML, this.sb.toString());
+    }
+
+    @Test
+    public void testRepeatedAfterContent() throws IOException {
+        final TableRowImpl a = this.createRow(ROW_A, 2);
+        final TableRowImpl b = this.createRow(ROW_B, 2);
+        this.sb.append("<x/>");
+
+        PowerMock.replayAll();
+        this.appender.appendRow(a);
+        this.appender.appendRow(b);
+        this.appender.appendRow(b);
+        this.appender.appendRow(a);
+        this.appender.flush();
+
+        PowerMock.verifyAll();
+        Assert.assertEquals("<x/>" + ROW_A + "<table:table-row table:number-rows-repeated=\"2\" " +
+                "table:style-name=\"ro1\"><table:table-cell/></table:table-row>" + ROW_A,
+                this.sb.toString());
+    }
+
+    @Test
+    public void testRepeatedNotStringBuilder() throws IOException {
+        final StringWriter writer = new StringWriter();
+        final RepeatedRowsAppender writerAppender = new RepeatedRowsAppender(this.util, writer);
+        final TableRowImpl a = this.createRow(ROW_A, 3);
+        final TableRowImpl b = this.createRow(ROW_B, 1);
+
+        PowerMock.replayAll();
+        writerAppender.appendRow(a);
+        writerAppender.appendRow(a);
+        writerAppender.appendRow(b);
+        writerAppender.appendRow(a);
+        writerAppender.flush();
+
+        PowerMock.verifyAll();
+        Assert.assertEquals("<table:table-row table:number-rows-repeated=\"2\" " +
+                "table:style-name=\"ro1\"><table:table-cell office:value-type=\"string\" " +
+                "office:string-value=\"a\"/></table:table-row>" + ROW_B + ROW_A,
+                writer.toString());
+    }
+
+    @Test
+    public void testColdCellsNotRepeated() throws IOException {
+        final TableRowImpl a = PowerMock.createMock(TableRowImpl.class);
+        EasyMock.expect(a.hasColdCells()).andReturn(true).times(2);
+        this.expectXML(a, ROW_A, 2);
+        final TableRowImpl b = this.createRow(ROW_B, 1);
+
+        PowerMock.replayAll();
+        this.appender.appendRow(b);
+        this.appender.appendRow(a);
+        this.appender.appendRow(a);
+        this.appender.flush();
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(ROW_B + ROW_A + ROW_A, this.sb.toString());
+    }
+
+    @Test
+    public void testAttributeAfterOpenTag() throws IOException {
+        final String rowXML = "<table:table-row table:style-name=\"ro1\">" +
+                "<table:table-cell office:value-type=\"string\" " +
+                "office:string-value=\"table:number-rows-repeated\"/></table:table-row>";
+        final TableRowImpl a = this.createRow(rowXML, 2);
+
+        PowerMock.replayAll();
+        this.appender.appendRow(a);
+        this.appender.appendRow(a);
+        this.appender.flush();
+
+        PowerMock.verifyAll();
+        Assert.assertEquals("<table:table-row table:number-rows-repeated=\"2\" " +
+                rowXML.substring("<table:table-row ".length()), this.sb.toString());
+    }
+
+    @Test
+    public void testEmptyFlush() throws IOException {
+        PowerMock.replayAll();
+        this.appender.flush();
+
+        PowerMock.verifyAll();
+        Assert.assertEquals("", this.sb.toString());
+    }
+
+    private TableRowImpl createRow(final String xml, final int times) throws IOException {
+        final TableRowImpl row = PowerMock.createMock(TableRowImpl.class);
+        EasyMock.expect(row.hasColdCells()).andReturn(false).times(times);
+        this.expectXML(row, xml, times);
+        return row;
+    }
+
+    private void expectXML(final TableRowImpl row, final String xml, final int times)
+            throws IOException {
+        row.appendXMLToTable(EasyMock.eq(this.util), EasyMock.isA(StringBuilder.class));
+        EasyMock.expectLastCall().andAnswer(new IAnswer<Object>() {
+            @Override
+            public Object answer() throws Throwable {
+                ((StringBuilder) EasyMock.getCurrentArguments()[1]).append(xml);
+                return null;
+            }
+        }).times(times);
+    }
+}
@@ -29,6 +29,7 @@ import com.github.jferard.fastods.odselement.StylesContainer;
 import com.github.jferard.fastods.odselement.StylesContainerImpl;
 import com.github.jferard.fastods.style.TableColumnStyle;
 import com.github.jferard.fastods.testlib.DomTester;
+import com.github.jferard.fastods.util.AttributeSet;
 import com.github.jferard.fastods.util.FastFullList;
 import com.github.jferard.fastods.util.SVGRectangle;
 import com.github.jferard.fastods.util.XMLUtil;
@@ -63,7 +64,7 @@ public class TableAppenderTest {
         PowerMock.resetAll();
         EasyMock.expect(this.tb.getName()).andReturn("table1");
         EasyMock.expect(this.tb.getStyleName()).andReturn("table-style1");
-        EasyMock.expect(this.tb.getCustomValueByAttribute()).andReturn(null);
+        EasyMock.expect(this.tb.getCustomAttributes()).andReturn(AttributeSet.EMPTY);
         EasyMock.expect(this.tb.getColumns())
                 .andReturn(FastFullList.<TableColumnImpl>newListWithCapacity(1));
         EasyMock.expect(this.tb.getShapes()).andReturn(Collections.<Shape>emptyList());
@@ -95,7 +96,7 @@ public class TableAppenderTest {
         PowerMock.resetAll();
         EasyMock.expect(this.tb.getName()).andReturn("table1");
         EasyMock.expect(this.tb.getStyleName()).andReturn("table-style1");
-        EasyMock.expect(this.tb.getCustomValueByAttribute()).andReturn(null);
+        EasyMock.expect(this.tb.getCustomAttributes()).andReturn(AttributeSet.EMPTY);
         EasyMock.expect(this.tb.getColumns())
                 .andReturn(FastFullList.<TableColumnImpl>newListWithCapacity(1));
         EasyMock.expect(this.tb.getShapes()).andReturn(Collections.<Shape>singletonList(drawFrame));
@@ -122,7 +123,7 @@ public class TableAppenderTest {
         PowerMock.resetAll();
         EasyMock.expect(this.tb.getName()).andReturn("table1");
         EasyMock.expect(this.tb.getStyleName()).andReturn("table-style1");
-        EasyMock.expect(this.tb.getCustomValueByAttribute()).andReturn(null);
+        EasyMock.expect(this.tb.getCustomAttributes()).andReturn(AttributeSet.EMPTY);
         EasyMock.expect(this.tb.getColumns())
                 .andReturn(FastFullList.newList(this.newTC("x")));
         EasyMock.expect(this.tb.getShapes()).andReturn(Collections.<Shape>emptyList());
@@ -146,7 +147,7 @@ public class TableAppenderTest {
         PowerMock.resetAll();
         EasyMock.expect(this.tb.getName()).andReturn("table1");
         EasyMock.expect(this.tb.getStyleName()).andReturn("table-style1");
-        EasyMock.expect(this.tb.getCustomValueByAttribute()).andReturn(null);
+        EasyMock.expect(this.tb.getCustomAttributes()).andReturn(AttributeSet.EMPTY);
         EasyMock.expect(this.tb.getColumns())
                 .andReturn(FastFullList.newList(this.newTC("x"), this.newTC("x")));
         EasyMock.expect(this.tb.getShapes()).andReturn(Collections.<Shape>emptyList());
@@ -172,7 +173,7 @@ public class TableAppenderTest {
         PowerMock.resetAll();
         EasyMock.expect(this.tb.getName()).andReturn("table1");
         EasyMock.expect(this.tb.getStyleName()).andReturn("table-style1");
-        EasyMock.expect(this.tb.getCustomValueByAttribute()).andReturn(null);
+        EasyMock.expect(this.tb.getCustomAttributes()).andReturn(AttributeSet.EMPTY);
         EasyMock.expect(this.tb.getColumns())
                 .andReturn(FastFullList.newList(x, x, this.newTC("y"), x));
         EasyMock.expect(this.tb.getShapes()).andReturn(Collections.<Shape>emptyList());
@@ -203,7 +204,7 @@ public class TableAppenderTest {
         PowerMock.resetAll();
         EasyMock.expect(this.tb.getName()).andReturn("table1");
         EasyMock.expect(this.tb.getStyleName()).andReturn("table-style1");
-        EasyMock.expect(this.tb.getCustomValueByAttribute()).andReturn(null);
+        EasyMock.expect(this.tb.getCustomAttributes()).andReturn(AttributeSet.EMPTY);
         EasyMock.expect(this.tb.getColumns())
                 .andReturn(FastFullList.newList(x, x, x, x, x, y, y, y, x, x));
         EasyMock.expect(this.tb.getShapes()).andReturn(Collections.<Shape>emptyList());
@@ -234,7 +235,7 @@ public class TableAppenderTest {
         PowerMock.resetAll();
         EasyMock.expect(this.tb.getName()).andReturn("tb");
         EasyMock.expect(this.tb.getStyleName()).andReturn("tb-style");
-        EasyMock.expect(this.tb.getCustomValueByAttribute()).andReturn(null);
+        EasyMock.expect(this.tb.getCustomAttributes()).andReturn(AttributeSet.EMPTY);
         EasyMock.expect(this.tb.getColumns())
                 .andReturn(FastFullList.<TableColumnImpl>builder().build());
         EasyMock.expect(this.tb.getTableRowsUsedSize()).andReturn(0);
@@ -262,7 +263,7 @@ public class TableAppenderTest {
         PowerMock.resetAll();
         EasyMock.expect(this.tb.getName()).andReturn("tb").times(2);
         EasyMock.expect(this.tb.getStyleName()).andReturn("tb-style").times(2);
-        EasyMock.expect(this.tb.getCustomValueByAttribute()).andReturn(null).times(2);
+        EasyMock.expect(this.tb.getCustomAttributes()).andReturn(AttributeSet.EMPTY).times(2);
         EasyMock.expect(this.tb.getColumns()).andReturn(emptyFullList).times(2);
         EasyMock.expect(this.tb.getTableRowsUsedSize()).andReturn(0).times(2);
         EasyMock.expect(this.tb.getShapes()).andReturn(Collections.<Shape>emptyList()).times(2);
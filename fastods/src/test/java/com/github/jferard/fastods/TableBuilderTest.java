@@ -23,6 +23,8 @@
  */
 package com.github.jferard.fastods;
 
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.datastyle.DataStyle;
 import com.github.jferard.fastods.datastyle.DataStyles;
 import com.github.jferard.fastods.datastyle.DataStylesBuilder;
 import com.github.jferard.fastods.odselement.StylesContainer;
@@ -36,8 +38,12 @@ import com.github.jferard.fastods.style.TableColumnStyle;
 import com.github.jferard.fastods.style.TableStyle;
 import com.github.jferard.fastods.util.WriteUtil;
 import com.github.jferard.fastods.util.XMLUtil;
+import com.github.jferard.fastods.util.ZipUTF8Writer;
 import com.google.common.collect.Lists;
+import org.easymock.Capture;
+import org.easymock.CaptureType;
 import org.easymock.EasyMock;
+import org.easymock.IAnswer;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -45,6 +51,9 @@ import org.powermock.api.easymock.PowerMock;
 
 import java.io.IOException;
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
@@ -207,6 +216,7 @@ public class TableBuilderTest {
         PowerMock.resetAll();
         this.builder.addObserver(writer);
         writer.update(EasyMock.isA(BeginTableFlusher.class));
+        writer.update(EasyMock.isA(PreprocessedRowsFlusher.class)); // 3 rows > 2
 
         PowerMock.replayAll();
         this.builder.setCellMerge(this.table, this.appender, 2, 1, 2, 2);
@@ -360,6 +370,349 @@ public class TableBuilderTest {
         PowerMock.verifyAll();
     }
 
+    @Test(expected = IOException.class)
+    public void testGetFlushedRow() throws IOException {
+        final NamedOdsFileWriter o = PowerMock.createMock(NamedOdsFileWriter.class);
+
+        PowerMock.resetAll();
+        o.update(EasyMock.isA(BeginTableFlusher.class));
+        o.update(EasyMock.isA(PreprocessedRowsFlusher.class));
+
+        PowerMock.replayAll();
+        this.builder.addObserver(o);
+        this.builder.getRow(this.table, this.appender, 0);
+        this.builder.getRow(this.table, this.appender, 2);
+        Assert.assertNull(this.builder.getTableRow(0));
+        this.builder.getRow(this.table, this.appender, 1);
+    }
+
+    @Test
+    public void testSetRowValues() throws IOException {
+        final TableCellStyle cs = TableCellStyle.builder("cs").build();
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.stc.addContentFontFaceContainerStyle(cs)).andReturn(true);
+
+        PowerMock.replayAll();
+        this.builder.setRowValues(this.table, this.appender, 1, 2, new double[]{1.5, 2, 2}, cs);
+
+        PowerMock.verifyAll();
+        this.assertRowXMLEquals("<table:table-row table:style-name=\"ro1\">" +
+                "<table:table-cell table:number-columns-repeated=\"2\"/>" +
+                "<table:table-cell table:style-name=\"cs\" office:value-type=\"float\" " +
+                "office:value=\"1.5\"/>" +
+                "<table:table-cell table:number-columns-repeated=\"2\" " +
+                "table:style-name=\"cs\" office:value-type=\"float\" " +
+                "office:value=\"2.0\"/></table:table-row>", this.builder.getTableRow(1));
+    }
+
+    @Test
+    public void testSetColumnValues() throws IOException {
+        PowerMock.resetAll();
+
+        PowerMock.replayAll();
+        this.builder.setColumnValues(this.table, this.appender, 0, 1, new double[]{1, 2}, null);
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(2, this.builder.getRowCount());
+        this.assertRowXMLEquals("<table:table-row table:style-name=\"ro1\">" +
+                "<table:table-cell/><table:table-cell office:value-type=\"float\" " +
+                "office:value=\"2.0\"/></table:table-row>", this.builder.getTableRow(1));
+    }
+
+    @Test
+    public void testAppendRows() throws IOException {
+        PowerMock.resetAll();
+
+        PowerMock.replayAll();
+        this.builder.getRow(this.table, this.appender, 0);
+        this.builder.appendRows(this.table, this.appender,
+                new Object[][]{{"a", 1, null, new StringValue("b")}, {}},
+                new ObjectToCellValueConverter("EUR"));
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(3, this.builder.getRowCount());
+        this.assertRowXMLEquals("<table:table-row table:style-name=\"ro1\">" +
+                "<table:table-cell office:value-type=\"string\" " +
+                "office:string-value=\"a\"/><table:table-cell office:value-type=\"float\" " +
+                "office:value=\"1\"/><table:table-cell/><table:table-cell " +
+                "office:value-type=\"string\" office:string-value=\"b\"/>" +
+                "</table:table-row>", this.builder.getTableRow(1));
+    }
+
+    @Test
+    public void testAppendRowsDefaultConverter() throws IOException {
+        PowerMock.resetAll();
+
+        PowerMock.replayAll();
+        this.builder.appendRows(this.table, this.appender,
+                new Object[][]{{"a", 1, null, new StringBuilder("b")}});
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(1, this.builder.getRowCount());
+        this.assertRowXMLEquals("<table:table-row table:style-name=\"ro1\">" +
+                "<table:table-cell office:value-type=\"string\" " +
+                "office:string-value=\"a\"/><table:table-cell office:value-type=\"float\" " +
+                "office:value=\"1\"/><table:table-cell/><table:table-cell " +
+                "office:value-type=\"string\" office:string-value=\"b\"/>" +
+                "</table:table-row>", this.builder.getTableRow(0));
+    }
+
+    @Test
+    public void testColumnSchema() throws IOException {
+        final TableCellStyle cs = TableCellStyle.builder("cs").build();
+        final TableCellStyle child = TableCellStyle.builder("child").build();
+        final DataStyle booleanDataStyle = this.ds.getBooleanDataStyle();
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.stc.addDataStyle(booleanDataStyle)).andReturn(true);
+        EasyMock.expect(this.stc.addChildCellStyle(TableCellStyle.DEFAULT_CELL_STYLE,
+                booleanDataStyle)).andReturn(child);
+        EasyMock.expect(this.stc.addContentFontFaceContainerStyle(cs)).andReturn(true);
+
+        PowerMock.replayAll();
+        this.builder.setColumnSchema(ColumnSpec.of(CellType.BOOLEAN),
+                new ColumnSpec(CellType.FLOAT, null, cs));
+        final TableRowImpl row0 = this.builder.getRow(this.table, this.appender, 0);
+        row0.getOrCreateCell(0).setBooleanValue(true);
+        row0.getOrCreateCell(1).setFloatValue(1.5f);
+        final TableRowImpl row1 = this.builder.getRow(this.table, this.appender, 1);
+        row1.getOrCreateCell(0).setBooleanValue(false);
+        row1.getOrCreateCell(1).setStringValue("a");
+
+        PowerMock.verifyAll();
+        this.assertRowXMLEquals("<table:table-row table:style-name=\"ro1\">" +
+                "<table:table-cell table:style-name=\"child\" office:value-type=\"boolean\" " +
+                "office:boolean-value=\"true\"/>" +
+                "<table:table-cell table:style-name=\"cs\" office:value-type=\"float\" " +
+                "office:value=\"1.5\"/></table:table-row>", row0);
+        this.assertRowXMLEquals("<table:table-row table:style-name=\"ro1\">" +
+                "<table:table-cell table:style-name=\"child\" office:value-type=\"boolean\" " +
+                "office:boolean-value=\"false\"/>" +
+                "<table:table-cell office:value-type=\"string\" " +
+                "office:string-value=\"a\"/></table:table-row>", row1);
+    }
+
+    @Test
+    public void testColumnSchemaTypeChange() throws IOException {
+        final TableCellStyle child = TableCellStyle.builder("child").build();
+        final DataStyle booleanDataStyle = this.ds.getBooleanDataStyle();
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.stc.addDataStyle(booleanDataStyle)).andReturn(true);
+        EasyMock.expect(this.stc.addChildCellStyle(TableCellStyle.DEFAULT_CELL_STYLE,
+                booleanDataStyle)).andReturn(child);
+
+        PowerMock.replayAll();
+        this.builder.setColumnSchema(ColumnSpec.of(CellType.BOOLEAN));
+        final TableRowImpl row0 = this.builder.getRow(this.table, this.appender, 0);
+        final TableCell cell = row0.getOrCreateCell(0);
+        cell.setBooleanValue(true);
+        cell.setStringValue("a"); // drops the boolean schema style
+
+        PowerMock.verifyAll();
+        this.assertRowXMLEquals("<table:table-row table:style-name=\"ro1\">" +
+                "<table:table-cell office:value-type=\"string\" office:string-value=\"a\"/>" +
+                "</table:table-row>", row0);
+    }
+
+    private void assertRowXMLEquals(final String xml, final TableRowImpl row)
+            throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        row.appendXMLToTable(this.xmlUtil, sb);
+        Assert.assertEquals(xml, sb.toString());
+    }
+
+    @Test
+    public void testByteBudgetFlushPolicy() throws IOException {
+        final NamedOdsFileWriter o = PowerMock.createMock(NamedOdsFileWriter.class);
+        final char[] chars = new char[100];
+        Arrays.fill(chars, 'x');
+
+        PowerMock.resetAll();
+        o.update(EasyMock.isA(BeginTableFlusher.class));
+        o.update(EasyMock.isA(PreprocessedRowsFlusher.class));
+
+        PowerMock.replayAll();
+        this.builder.addObserver(o);
+        this.builder.setFlushPolicy(FlushPolicy.byteBudget(150));
+        final TableRowImpl row0 = this.builder.getRow(this.table, this.appender, 0);
+        row0.getOrCreateCell(0).setStringValue(new String(chars));
+        this.builder.getRow(this.table, this.appender, 1); // flush 0
+        this.builder.getRow(this.table, this.appender, 2);
+        this.builder.getRow(this.table, this.appender, 3);
+
+        PowerMock.verifyAll();
+        Assert.assertNull(this.builder.getTableRow(0));
+        Assert.assertNotNull(this.builder.getTableRow(1));
+    }
+
+    @Test
+    public void testRowCountFromLastFlush() throws IOException {
+        final NamedOdsFileWriter o = PowerMock.createMock(NamedOdsFileWriter.class);
+        final char[] chars = new char[100];
+        Arrays.fill(chars, 'x');
+
+        PowerMock.resetAll();
+        o.update(EasyMock.isA(BeginTableFlusher.class));
+        o.update(EasyMock.isA(PreprocessedRowsFlusher.class));
+        EasyMock.expectLastCall().times(2);
+
+        PowerMock.replayAll();
+        this.builder.addObserver(o);
+        this.builder.setFlushPolicy(new FlushPolicy(3, 150));
+        final TableRowImpl row0 = this.builder.getRow(this.table, this.appender, 0);
+        row0.getOrCreateCell(0).setStringValue(new String(chars));
+        this.builder.getRow(this.table, this.appender, 1); // flush 0
+        this.builder.getRow(this.table, this.appender, 2);
+        this.builder.getRow(this.table, this.appender, 3);
+        Assert.assertNotNull(this.builder.getTableRow(1));
+        this.builder.getRow(this.table, this.appender, 4); // flush 1, 2 & 3
+
+        PowerMock.verifyAll();
+        Assert.assertNull(this.builder.getTableRow(3));
+        Assert.assertNotNull(this.builder.getTableRow(4));
+    }
+
+    @Test
+    public void testRowRecycling() throws IOException {
+        final NamedOdsFileWriter o = PowerMock.createMock(NamedOdsFileWriter.class);
+
+        PowerMock.resetAll();
+        o.update(EasyMock.isA(BeginTableFlusher.class));
+        o.update(EasyMock.isA(PreprocessedRowsFlusher.class));
+
+        PowerMock.replayAll();
+        this.builder.addObserver(o);
+        this.builder.setRowRecycling(true);
+        this.builder.getRow(this.table, this.appender, 0);
+        final TableRowImpl row1 = this.builder.getRow(this.table, this.appender, 1);
+        final TableCell cell1 = row1.getOrCreateCell(1);
+        cell1.setStringValue("v");
+        this.builder.getRow(this.table, this.appender, 2); // flush 0 & 1
+        final TableRowImpl row3 = this.builder.getRow(this.table, this.appender, 3);
+        final TableCell cell3 = row3.getOrCreateCell(1);
+
+        PowerMock.verifyAll();
+        Assert.assertSame(row1, row3);
+        Assert.assertEquals(3, row3.rowIndex());
+        Assert.assertNull(this.builder.getTableRow(1));
+        Assert.assertSame(cell1, cell3);
+        Assert.assertFalse(cell3.hasValue());
+        Assert.assertEquals(2, row3.getColumnCount());
+    }
+
+    @Test
+    public void testRowWriter() throws IOException {
+        final NamedOdsFileWriter o = PowerMock.createMock(NamedOdsFileWriter.class);
+        final ZipUTF8Writer w = PowerMock.createMock(ZipUTF8Writer.class);
+        final Capture<CharSequence> captured = EasyMock.newCapture(CaptureType.ALL);
+
+        PowerMock.resetAll();
+        o.update(EasyMock.isA(BeginTableFlusher.class));
+        o.update(EasyMock.isA(PreprocessedRowsFlusher.class));
+        EasyMock.expectLastCall().andAnswer(new FlushIntoAnswer(w));
+        EasyMock.expectLastCall().times(2);
+        o.update(EasyMock.isA(EndTableFlusher.class));
+        EasyMock.expect(w.append(EasyMock.capture(captured))).andReturn(w).times(2);
+
+        PowerMock.replayAll();
+        this.builder.addObserver(o);
+        this.builder.getRow(this.table, this.appender, 0).getOrCreateCell(0).setStringValue("a");
+        final TableRowWriter rowWriter = this.builder.rowWriter(this.table, this.appender);
+        rowWriter.getOrCreateCell(0).setStringValue("b");
+        rowWriter.endRow();
+        rowWriter.getOrCreateCell(1).setStringValue("c");
+        rowWriter.endRow();
+        Assert.assertEquals(3, this.builder.getRowCount());
+        this.builder.asyncFlushEndTable(this.appender);
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(Arrays.asList("<table:table-row table:style-name=\"ro1\">" +
+                "<table:table-cell office:value-type=\"string\" office:string-value=\"a\"/>" +
+                "</table:table-row>", "<table:table-row table:style-name=\"ro1\">" +
+                "<table:table-cell office:value-type=\"string\" office:string-value=\"b\"/>" +
+                "</table:table-row><table:table-row table:style-name=\"ro1\"><table:table-cell/>" +
+                "<table:table-cell office:value-type=\"string\" office:string-value=\"c\"/>" +
+                "</table:table-row>"), this.toStrings(captured.getValues()));
+    }
+
+    @Test
+    public void testRowWriterUnendedRow() throws IOException {
+        final NamedOdsFileWriter o = PowerMock.createMock(NamedOdsFileWriter.class);
+        final ZipUTF8Writer w = PowerMock.createMock(ZipUTF8Writer.class);
+        final Capture<CharSequence> captured = EasyMock.newCapture(CaptureType.ALL);
+
+        PowerMock.resetAll();
+        o.update(EasyMock.isA(BeginTableFlusher.class));
+        o.update(EasyMock.isA(PreprocessedRowsFlusher.class));
+        EasyMock.expectLastCall().andAnswer(new FlushIntoAnswer(w));
+        o.update(EasyMock.isA(EndTableFlusher.class));
+        EasyMock.expect(w.append(EasyMock.capture(captured))).andReturn(w);
+
+        PowerMock.replayAll();
+        this.builder.addObserver(o);
+        final TableRowWriter rowWriter = this.builder.rowWriter(this.table, this.appender);
+        rowWriter.getOrCreateCell(0).setStringValue("a");
+        rowWriter.endRow();
+        rowWriter.getOrCreateCell(0).setStringValue("b");
+        this.builder.asyncFlushEndTable(this.appender);
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(2, this.builder.getRowCount());
+        Assert.assertEquals(Collections.singletonList("<table:table-row table:style-name=\"ro1\">" +
+                "<table:table-cell office:value-type=\"string\" office:string-value=\"a\"/>" +
+                "</table:table-row><table:table-row table:style-name=\"ro1\">" +
+                "<table:table-cell office:value-type=\"string\" office:string-value=\"b\"/>" +
+                "</table:table-row>"), this.toStrings(captured.getValues()));
+    }
+
+    @Test
+    public void testRowWriterEmptyLastRow() throws IOException {
+        final NamedOdsFileWriter o = PowerMock.createMock(NamedOdsFileWriter.class);
+
+        PowerMock.resetAll();
+        o.update(EasyMock.isA(BeginTableFlusher.class));
+        o.update(EasyMock.isA(EndTableFlusher.class));
+
+        PowerMock.replayAll();
+        this.builder.addObserver(o);
+        this.builder.rowWriter(this.table, this.appender);
+        this.builder.asyncFlushEndTable(this.appender);
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(0, this.builder.getRowCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRowWriterNoRandomAccess() throws IOException {
+        final NamedOdsFileWriter o = PowerMock.createMock(NamedOdsFileWriter.class);
+
+        PowerMock.resetAll();
+        o.update(EasyMock.isA(BeginTableFlusher.class));
+
+        PowerMock.replayAll();
+        this.builder.addObserver(o);
+        this.builder.rowWriter(this.table, this.appender);
+        this.builder.getRow(this.table, this.appender, 0);
+    }
+
+    @Test(expected = IOException.class)
+    public void testRowWriterAnonymous() throws IOException {
+        PowerMock.resetAll();
+
+        PowerMock.replayAll();
+        this.builder.rowWriter(this.table, this.appender);
+    }
+
+    private List<String> toStrings(final List<CharSequence> css) {
+        final List<String> strings = new ArrayList<String>();
+        for (final CharSequence cs : css) {
+            strings.add(cs.toString());
+        }
+        return strings;
+    }
+
     @Test
     public final void testFindDefaultCellStyle() {
         PowerMock.resetAll();
@@ -368,4 +721,19 @@ public class TableBuilderTest {
                 this.builder.findDefaultCellStyle(10));
         PowerMock.verifyAll();
     }
+
+    private static class FlushIntoAnswer implements IAnswer<Object> {
+        private final ZipUTF8Writer writer;
+
+        FlushIntoAnswer(final ZipUTF8Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public Object answer() throws Throwable {
+            final OdsAsyncFlusher flusher = (OdsAsyncFlusher) EasyMock.getCurrentArguments()[0];
+            flusher.flushInto(XMLUtil.create(), this.writer);
+            return null;
+        }
+    }
 }
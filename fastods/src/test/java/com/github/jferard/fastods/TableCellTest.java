@@ -83,7 +83,8 @@ public class TableCellTest {
         this.tcc = TableColdCell.create(this.xmlUtil);
         this.ds = DataStylesBuilder.create(Locale.US).build();
         this.row = new TableRowImpl(writeUtil, this.xmlUtil, this.stc, this.ds, false, this.table,
-                ROW_INDEX, 100);
+                ROW_INDEX, 100, null, new ChildCellStyleCache(this.stc), new ColumnSchema(),
+                new CellFragmentCache(CellFragmentCache.DEFAULT_CAPACITY));
         this.cell = new TableCellImpl(writeUtil, this.xmlUtil, this.stc, this.ds, false, this.row,
                 COLUMN_INDEX);
         this.tcs = TableCellStyle.builder("name").build();
@@ -211,6 +212,23 @@ public class TableCellTest {
                         "office:date-value=\"2009-02-13T23:31:31.011Z\"/>");
     }
 
+    @Test
+    public final void testDateLong() throws IOException {
+        final TableCellStyle cs = PowerMock.createMock(TableCellStyle.class);
+        final DataStyle dateDataStyle = this.ds.getDateDataStyle();
+
+        PowerMock.resetAll();
+        this.playAddStyle(cs, dateDataStyle);
+
+        PowerMock.replayAll();
+        this.cell.setDateValue(TIME_IN_MILLIS);
+
+        PowerMock.verifyAll();
+        this.assertCellXMLEquals(
+                "<table:table-cell table:style-name=\"name\" office:value-type=\"date\" " +
+                        "office:date-value=\"2009-02-13T23:31:31.011Z\"/>");
+    }
+
     @Test
     public final void testFloatNumberDataStyle() throws IOException {
         this.playAndReplayFloat();
@@ -612,7 +630,7 @@ public class TableCellTest {
     public final void testColumnsSpanned() throws IOException {
         PowerMock.resetAll();
         EasyMock.expect(TableColdCell.create(EasyMock.eq(this.xmlUtil))).andReturn(this.tcc)
-                .times(9);
+                .times(2);
 
         PowerMock.replayAll();
         this.cell.setColumnsSpanned(8);
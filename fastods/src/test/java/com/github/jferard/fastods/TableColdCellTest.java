@@ -76,6 +76,15 @@ public class TableColdCellTest {
         this.assertXMLEquals("<table:table-cell table:formula=\"of:=1\"/>");
     }
 
+    @Test
+    public final void testAttributes() throws IOException {
+        this.coldCell.setAttribute("table:content-validation-name", "v");
+        this.coldCell.setAttribute("a", "b");
+        this.coldCell.setAttribute("table:content-validation-name", "w");
+        this.assertXMLEquals(
+                "<table:table-cell table:content-validation-name=\"w\" a=\"b\"/>");
+    }
+
     @Test
     public final void testColSpan() throws IOException {
         this.coldCell.setColumnsSpanned(2);
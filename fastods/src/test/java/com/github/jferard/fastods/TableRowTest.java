@@ -65,7 +65,8 @@ public class TableRowTest {
         this.ds = DataStylesBuilder.create(Locale.US).build();
         this.row =
                 new TableRowImpl(writeUtil, this.xmlUtil, this.stc, this.ds, false, this.table, 10,
-                        100);
+                        100, null, new ChildCellStyleCache(this.stc), new ColumnSchema(),
+                        new CellFragmentCache(CellFragmentCache.DEFAULT_CAPACITY));
         this.tcs = TableCellStyle.builder("---").build();
         PowerMock.mockStatic(TableColdCell.class);
         PowerMock.resetAll();
@@ -111,8 +112,6 @@ public class TableRowTest {
         PowerMock.resetAll();
         EasyMock.expect(TableColdCell.create(this.xmlUtil))
                 .andReturn(new TableColdCell(this.xmlUtil));
-        EasyMock.expect(TableColdCell.create(this.xmlUtil))
-                .andReturn(new TableColdCell(this.xmlUtil));
 
         PowerMock.replayAll();
         this.row.setColumnsSpanned(0, 2);
@@ -126,6 +125,23 @@ public class TableRowTest {
         Assert.assertFalse(covered2);
     }
 
+    @Test
+    public void testHasColdCells() {
+        PowerMock.resetAll();
+        EasyMock.expect(TableColdCell.create(this.xmlUtil))
+                .andReturn(new TableColdCell(this.xmlUtil));
+
+        PowerMock.replayAll();
+        this.row.getOrCreateCell(2).setStringValue("a");
+        final boolean before = this.row.hasColdCells();
+        this.row.setColumnsSpanned(40, 2);
+        final boolean after = this.row.hasColdCells();
+
+        PowerMock.verifyAll();
+        Assert.assertFalse(before);
+        Assert.assertTrue(after);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testColumnsSpannedSpanError() {
         PowerMock.resetAll();
@@ -220,6 +236,93 @@ public class TableRowTest {
                         "office:string-value=\"a\"/>" + "</table:table-row>");
     }
 
+    @Test
+    public final void testRepeatedCells() throws IOException {
+        PowerMock.resetAll();
+
+        PowerMock.replayAll();
+        for (int c = 0; c < 3; c++) {
+            this.row.getOrCreateCell(c).setStringValue("N/A");
+        }
+        this.row.getOrCreateCell(3).setStringValue("b");
+        this.row.getOrCreateCell(4).setStringValue("N/A");
+        this.row.getOrCreateCell(5).setFloatValue(0);
+        this.row.getOrCreateCell(6).setFloatValue(0);
+
+        PowerMock.verifyAll();
+        this.assertTableXMLEquals(
+                "<table:table-row table:style-name=\"ro1\">" +
+                        "<table:table-cell table:number-columns-repeated=\"3\" " +
+                        "office:value-type=\"string\" office:string-value=\"N/A\"/>" +
+                        "<table:table-cell office:value-type=\"string\" " +
+                        "office:string-value=\"b\"/>" +
+                        "<table:table-cell office:value-type=\"string\" " +
+                        "office:string-value=\"N/A\"/>" +
+                        "<table:table-cell table:number-columns-repeated=\"2\" " +
+                        "office:value-type=\"float\" office:value=\"0\"/>" +
+                        "</table:table-row>");
+    }
+
+    @Test
+    public final void testCoveredRange() throws IOException {
+        PowerMock.resetAll();
+
+        PowerMock.replayAll();
+        this.row.coverRightCells(0, 6);
+        this.row.getOrCreateCell(3).setStringValue("a");
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(this.row.isCovered(5));
+        Assert.assertFalse(this.row.isCovered(6));
+        Assert.assertEquals(6, this.row.getColumnCount());
+        this.assertTableXMLEquals(
+                "<table:table-row table:style-name=\"ro1\">" +
+                        "<table:table-cell/>" +
+                        "<table:covered-table-cell table:number-columns-repeated=\"2\"/>" +
+                        "<table:covered-table-cell office:value-type=\"string\" " +
+                        "office:string-value=\"a\"/>" +
+                        "<table:covered-table-cell table:number-columns-repeated=\"2\"/>" +
+                        "</table:table-row>");
+    }
+
+    @Test
+    public final void testCoveredRangeColdCells() throws IOException {
+        final TableColdCell coldCell3 = new TableColdCell(this.xmlUtil);
+        final TableColdCell coldCell5 = new TableColdCell(this.xmlUtil);
+
+        PowerMock.resetAll();
+        EasyMock.expect(TableColdCell.create(this.xmlUtil)).andReturn(coldCell3);
+        EasyMock.expect(TableColdCell.create(this.xmlUtil)).andReturn(coldCell5);
+
+        PowerMock.replayAll();
+        this.row.getOrCreateCell(3).setTooltip("t");
+        this.row.coverRightCells(0, 6);
+        this.row.getOrCreateCell(5).setTooltip("u");
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(coldCell3.isCovered());
+        Assert.assertTrue(coldCell5.isCovered());
+    }
+
+    @Test
+    public final void testFarCell() throws IOException {
+        PowerMock.resetAll();
+
+        PowerMock.replayAll();
+        this.row.getOrCreateCell(0).setStringValue("a");
+        this.row.getOrCreateCell(10000).setStringValue("b");
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(10001, this.row.getColumnCount());
+        this.assertTableXMLEquals(
+                "<table:table-row table:style-name=\"ro1\">" +
+                        "<table:table-cell office:value-type=\"string\" " +
+                        "office:string-value=\"a\"/>" +
+                        "<table:table-cell table:number-columns-repeated=\"9999\"/>" +
+                        "<table:table-cell office:value-type=\"string\" " +
+                        "office:string-value=\"b\"/>" + "</table:table-row>");
+    }
+
     @Test
     public final void testAppendRowOpenTag() throws IOException {
         PowerMock.resetAll();
@@ -0,0 +1,303 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.datastyle.DataStyle;
+import com.github.jferard.fastods.datastyle.DataStylesBuilder;
+import com.github.jferard.fastods.style.TableCellStyle;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+public class TableSegmentTest {
+    @Test
+    public void testSegmentsInOrder() throws Exception {
+        final File file = File.createTempFile("segments", ".ods");
+        try {
+            final OdsFactory factory =
+                    OdsFactory.create(Logger.getLogger("segments"), Locale.US);
+            final NamedOdsFileWriter writer = factory.createWriter(file);
+            final NamedOdsDocument document = writer.document();
+            document.addTable("first").getRow(0).getOrCreateCell(0).setStringValue("first");
+            final List<TableSegment> segments = new ArrayList<TableSegment>();
+            for (int i = 0; i < 4; i++) {
+                segments.add(document.addTableSegment("s" + i));
+            }
+            Assert.assertNull(document.addTableSegment("s0"));
+            final ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+                // the last segment is completed first
+                for (int i = segments.size() - 1; i >= 0; i--) {
+                    final TableSegment segment = segments.get(i);
+                    futures.add(executor.submit(new Callable<Void>() {
+                        @Override
+                        public Void call() throws Exception {
+                            final Table table = segment.getTable();
+                            for (int r = 0; r < 500; r++) {
+                                table.getRow(r).getOrCreateCell(0)
+                                        .setStringValue(table.getName() + "<" + r);
+                            }
+                            segment.complete();
+                            return null;
+                        }
+                    }));
+                }
+                document.addTable("last").getRow(0).getOrCreateCell(0).setStringValue("last");
+                writer.save();
+                writer.close();
+                for (final Future<Void> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            final String content = this.readContent(file);
+            int index = content.indexOf("table:name=\"first\"");
+            for (int i = 0; i < 4; i++) {
+                final int next = content.indexOf("table:name=\"s" + i + "\"");
+                Assert.assertTrue(index < next);
+                index = next;
+            }
+            Assert.assertTrue(index < content.indexOf("table:name=\"last\""));
+            Assert.assertTrue(content.contains("office:string-value=\"s2&lt;499\""));
+            Assert.assertTrue(content.endsWith("</office:document-content>"));
+        } finally {
+            Assert.assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void testSegmentsWithStylesThroughAdapter() throws Exception {
+        final File file = File.createTempFile("segments", ".ods");
+        try {
+            final Logger logger = Logger.getLogger("segments");
+            final OdsFileWriterAdapter adapter = OdsFactory.create(logger, Locale.US)
+                    .createWriterAdapter(file);
+            final NamedOdsDocument document = adapter.document();
+            final DataStyle dateStyle = DataStylesBuilder.create(Locale.US).build()
+                    .getDateDataStyle();
+            final Map<TableCellStyle, TableCellStyle> childByStyle =
+                    new ConcurrentHashMap<TableCellStyle, TableCellStyle>();
+            final AtomicReference<Throwable> consumerFailure = new AtomicReference<Throwable>();
+            final Thread consumer = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        while (adapter.isNotStopped()) {
+                            adapter.waitForData();
+                            adapter.flushAdaptee();
+                        }
+                        adapter.flushAdaptee();
+                    } catch (final Throwable e) {
+                        consumerFailure.set(e);
+                    }
+                }
+            };
+            consumer.start();
+
+            final List<TableSegment> segments = new ArrayList<TableSegment>();
+            for (int i = 0; i < 4; i++) {
+                segments.add(document.addTableSegment("s" + i));
+            }
+            final ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+                for (final TableSegment segment : segments) {
+                    futures.add(executor.submit(new Callable<Void>() {
+                        @Override
+                        public Void call() throws Exception {
+                            final Table table = segment.getTable();
+                            TableSegmentTest.this.fillWithStyles(table, document, dateStyle,
+                                    childByStyle);
+                            segment.complete();
+                            return null;
+                        }
+                    }));
+                }
+                // the producer fills a regular table meanwhile: its rows are flushed by the
+                // consumer
+                this.fillWithStyles(document.addTable("regular"), document, dateStyle,
+                        childByStyle);
+                document.save();
+                for (final Future<Void> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+            consumer.join();
+            Assert.assertNull(consumerFailure.get());
+
+            final String content = this.readContent(file);
+            for (int i = 0; i < 4; i++) {
+                Assert.assertTrue(content.contains("table:name=\"s" + i + "\""));
+            }
+            Assert.assertTrue(content.contains("office:value-type=\"date\""));
+            Assert.assertTrue(content.endsWith("</office:document-content>"));
+            // no registration was lost
+            for (final Map.Entry<TableCellStyle, TableCellStyle> entry :
+                    childByStyle.entrySet()) {
+                Assert.assertSame(entry.getValue(),
+                        document.addChildCellStyle(entry.getKey(), dateStyle));
+            }
+            Assert.assertEquals(5 * 2000, childByStyle.size());
+        } finally {
+            Assert.assertTrue(file.delete());
+        }
+    }
+
+    private void fillWithStyles(final Table table, final NamedOdsDocument document,
+                                final DataStyle dateStyle,
+                                final Map<TableCellStyle, TableCellStyle> childByStyle)
+            throws IOException {
+        final String name = table.getName();
+        for (int r = 0; r < 2000; r++) {
+            final TableRowImpl row = table.getRow(r);
+            // a new style for each row: the styles container is modified concurrently
+            final TableCellStyle style =
+                    TableCellStyle.builder(name + "-" + r).fontWrap(true).build();
+            final TableCell floatCell = row.getOrCreateCell(0);
+            floatCell.setStyle(style);
+            floatCell.setFloatValue(r);
+            final TableCell dateCell = row.getOrCreateCell(1);
+            dateCell.setStyle(style);
+            dateCell.setDateValue(r * 86400000L);
+            row.getOrCreateCell(2).setPercentageValue(r);
+            childByStyle.put(style, document.addChildCellStyle(style, dateStyle));
+        }
+    }
+
+    @Test
+    public void testAbort() throws IOException {
+        final TableSegment segment = this.createSegment();
+        final IOException cause = new IOException("cause");
+        segment.abort(cause);
+        Assert.assertTrue(segment.isDone());
+        try {
+            segment.appendTo(new StringBuilder());
+            Assert.fail();
+        } catch (final IOException e) {
+            Assert.assertSame(cause, e.getCause());
+        }
+    }
+
+    @Test
+    public void testCancelWhileWaiting() throws IOException {
+        final File file = File.createTempFile("segment", ".ods");
+        file.deleteOnExit();
+        final CancellationToken token = CancellationToken.create();
+        final NamedOdsFileWriter writer =
+                OdsFactory.create(Logger.getLogger("segments"), Locale.US)
+                        .createWriter(file, token);
+        final NamedOdsDocument document = writer.document();
+        Assert.assertNotNull(document.addTableSegment("never completed"));
+        final Thread canceller = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                token.cancel();
+            }
+        });
+        canceller.start();
+        try {
+            document.addTable("t"); // waits for the segment
+            Assert.fail();
+        } catch (final InterruptedIOException e) {
+            Assert.assertFalse(file.exists());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testCompleteTwice() throws IOException {
+        final TableSegment segment = this.createSegment();
+        segment.complete();
+        segment.complete();
+    }
+
+    @Test
+    public void testComplete() throws IOException {
+        final TableSegment segment = this.createSegment();
+        segment.getTable().getRow(0).getOrCreateCell(0).setFloatValue(1);
+        segment.complete();
+        final StringBuilder sb = new StringBuilder();
+        segment.appendTo(sb);
+        Assert.assertTrue(sb.toString().startsWith("<table:table table:name=\"t\""));
+        Assert.assertTrue(sb.toString().contains("office:value=\"1\""));
+    }
+
+    private TableSegment createSegment() throws IOException {
+        final File file = File.createTempFile("segment", ".ods");
+        file.deleteOnExit();
+        final NamedOdsFileWriter writer =
+                OdsFactory.create(Logger.getLogger("segments"), Locale.US).createWriter(file);
+        final TableSegment segment = writer.document().addTableSegment("t");
+        Assert.assertNotNull(segment);
+        return segment;
+    }
+
+    private String readContent(final File file) throws IOException {
+        final ZipInputStream zis = new ZipInputStream(new FileInputStream(file));
+        try {
+            ZipEntry entry = zis.getNextEntry();
+            while (!"content.xml".equals(entry.getName())) {
+                entry = zis.getNextEntry();
+            }
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int count = zis.read(buffer);
+            while (count != -1) {
+                content.write(buffer, 0, count);
+                count = zis.read(buffer);
+            }
+            return content.toString("UTF-8");
+        } finally {
+            zis.close();
+        }
+    }
+}
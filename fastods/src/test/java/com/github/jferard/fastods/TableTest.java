@@ -186,7 +186,8 @@ public class TableTest {
 
         PowerMock.replayAll();
         this.table.setRowsSpanned(10, 9, 8);
-        final String ROW = "<table:table-row table:style-name=\"ro1\"><table:table-cell " +
+        final String ROWS = "<table:table-row table:number-rows-repeated=\"7\" " +
+                "table:style-name=\"ro1\"><table:table-cell " +
                 "table:number-columns-repeated=\"9\"/><table:covered-table-cell/></table:table" +
                 "-row>";
         this.assertTableXMLEquals("<table:table table:name=\"my_table\" table:style-name=\"ta1\" " +
@@ -198,8 +199,8 @@ public class TableTest {
                 "<table:table-cell/>" + "</table:table-row>" +
                 "<table:table-row table:style-name=\"ro1\">" + "<table:table-cell " +
                 "table:number-columns-repeated=\"9\"/>" + "<table:table-cell " +
-                "table:number-rows-spanned=\"8\"/>" + "</table:table-row>" + ROW + ROW + ROW + ROW +
-                ROW + ROW + ROW + "</table:table>");
+                "table:number-rows-spanned=\"8\"/>" + "</table:table-row>" + ROWS +
+                "</table:table>");
 
         PowerMock.verifyAll();
     }
@@ -26,6 +26,7 @@ package com.github.jferard.fastods.datastyle;
 import com.github.jferard.fastods.TestHelper;
 import com.github.jferard.fastods.attribute.SimpleColor;
 import com.github.jferard.fastods.util.XMLUtil;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -72,6 +73,12 @@ public class CurrencyStyleTest {
                         "</number:currency-style>", cs);
     }
 
+    @Test
+    public final void testCurrencySymbol() {
+        final CurrencyStyle cs = new CurrencyStyleBuilder("currency-data", Locale.FRANCE).build();
+        Assert.assertEquals(this.frSymbol, cs.getCurrencySymbol());
+    }
+
     @Test
     public final void testGroupThousands() throws IOException {
         final CurrencyStyle cs =
@@ -247,6 +247,49 @@ public class StylesContainerTest {
                 "style:parent-style-name=\"Default\"/>", sb.toString());
     }
 
+    @Test
+    public final void testCellStyleRegistration() {
+        final TableCellStyle style = TableCellStyle.builder("s").build();
+        Assert.assertFalse(this.stylesContainer.isCellStyleRegistered(style));
+        Assert.assertTrue(this.stylesContainer.addContentFontFaceContainerStyle(style));
+        Assert.assertTrue(this.stylesContainer.isCellStyleRegistered(style));
+
+        // fast path
+        Assert.assertTrue(this.stylesContainer.addContentFontFaceContainerStyle(style));
+        Assert.assertTrue(this.stylesContainer.isCellStyleRegistered(style));
+
+        // another style is registered with the same name: the memo is cleared
+        final TableCellStyle other = TableCellStyle.builder("s").build();
+        Assert.assertTrue(this.stylesContainer.addContentFontFaceContainerStyle(other));
+        Assert.assertFalse(this.stylesContainer.isCellStyleRegistered(style));
+        Assert.assertTrue(this.stylesContainer.addContentFontFaceContainerStyle(style));
+        Assert.assertTrue(this.stylesContainer.isCellStyleRegistered(style));
+        Assert.assertFalse(this.stylesContainer.isCellStyleRegistered(other));
+    }
+
+    @Test
+    public final void testCellStyleRegistrationCreateMode() {
+        final TableCellStyle style = TableCellStyle.builder("s").build();
+        Assert.assertTrue(this.stylesContainer.addContentFontFaceContainerStyle(style));
+        this.stylesContainer.setObjectStyleMode(Mode.CREATE);
+        Assert.assertFalse(this.stylesContainer.addContentFontFaceContainerStyle(style));
+        Assert.assertFalse(this.stylesContainer.addContentFontFaceContainerStyle(style));
+
+        final TableCellStyle other = TableCellStyle.builder("s").build();
+        Assert.assertFalse(this.stylesContainer.addContentFontFaceContainerStyle(other));
+        Assert.assertFalse(this.stylesContainer.isCellStyleRegistered(other));
+    }
+
+    @Test
+    public final void testSharedCellStyleRegistration() {
+        final StylesContainerImpl otherContainer = new StylesContainerImpl(this.logger);
+        final TableCellStyle style = TableCellStyle.DEFAULT_CELL_STYLE;
+        this.stylesContainer.addContentFontFaceContainerStyle(style);
+        otherContainer.addContentFontFaceContainerStyle(style);
+        Assert.assertTrue(this.stylesContainer.isCellStyleRegistered(style));
+        Assert.assertTrue(otherContainer.isCellStyleRegistered(style));
+    }
+
     private void assertWriteDataStylesXMLEquals(final String xml) throws IOException {
         final Appendable sb = new StringBuilder();
         this.stylesContainer.writeHiddenDataStyles(this.util, sb);
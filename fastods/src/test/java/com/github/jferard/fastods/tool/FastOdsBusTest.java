@@ -28,7 +28,11 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
 
 public class FastOdsBusTest {
     @Test
@@ -100,4 +104,125 @@ public class FastOdsBusTest {
 
         Assert.assertEquals("java.lang.InterruptedException", sb.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCloseWakesConsumer() throws InterruptedException {
+        final FastOdsBus<Integer> b = new FastOdsBus<Integer>();
+        final StringBuilder sb = new StringBuilder();
+        final Thread t1 = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    b.get();
+                } catch (final NoSuchElementException e) {
+                    sb.append("closed");
+                }
+            }
+        };
+        t1.start();
+        Thread.sleep(100);
+        b.close();
+        t1.join();
+
+        Assert.assertEquals("closed", sb.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadCapacity() {
+        new FastOdsBus<Integer>(0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testPutNull() {
+        final FastOdsBus<Integer> b = new FastOdsBus<Integer>();
+        b.put(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDrainToZero() {
+        final FastOdsBus<Integer> b = new FastOdsBus<Integer>();
+        b.put(10);
+        b.drainTo(new ArrayList<Integer>(), 0);
+    }
+
+    @Test
+    public void testDrainTo() {
+        final FastOdsBus<Integer> b = new FastOdsBus<Integer>(10);
+        for (int i = 0; i < 5; i++) {
+            b.put(i);
+        }
+        final List<Integer> batch = new ArrayList<Integer>();
+        Assert.assertEquals(3, b.drainTo(batch, 3));
+        Assert.assertEquals(Arrays.asList(0, 1, 2), batch);
+        Assert.assertEquals(2, b.size());
+        b.close();
+        Assert.assertEquals(2, b.drainTo(batch, 3));
+        Assert.assertEquals(Arrays.asList(0, 1, 2, 3, 4), batch);
+        Assert.assertEquals(0, b.drainTo(batch, 3));
+        Assert.assertTrue(b.isClosed());
+    }
+
+    @Test
+    public void testPoll() throws InterruptedException {
+        final FastOdsBus<Integer> b = new FastOdsBus<Integer>(10);
+        Assert.assertNull(b.poll(10, TimeUnit.MILLISECONDS));
+        b.put(1);
+        Assert.assertEquals(Integer.valueOf(1), b.poll(0, TimeUnit.MILLISECONDS));
+        b.close();
+        Assert.assertNull(b.poll(1, TimeUnit.DAYS));
+    }
+
+    @Test
+    public void testBounded() throws InterruptedException {
+        final FastOdsBus<Integer> b = new FastOdsBus<Integer>(2);
+        final Thread producer = new Thread() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 1000; i++) {
+                    b.put(i);
+                }
+                b.close();
+            }
+        };
+        producer.start();
+        final List<Integer> elements = new ArrayList<Integer>();
+        final List<Integer> batch = new ArrayList<Integer>();
+        int count = b.drainTo(batch, 100);
+        while (count > 0) {
+            Assert.assertTrue(count <= 2);
+            elements.addAll(batch);
+            batch.clear();
+            count = b.drainTo(batch, 100);
+        }
+        producer.join();
+
+        Assert.assertEquals(1000, elements.size());
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(Integer.valueOf(i), elements.get(i));
+        }
+    }
+
+    @Test
+    public void testCloseWakesProducer() throws InterruptedException {
+        final FastOdsBus<Integer> b = new FastOdsBus<Integer>(1);
+        b.put(1);
+        final StringBuilder sb = new StringBuilder();
+        final Thread t1 = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    b.put(2);
+                } catch (final IllegalStateException e) {
+                    sb.append(e.getMessage());
+                }
+            }
+        };
+        t1.start();
+        Thread.sleep(100);
+        b.close();
+        t1.join();
+
+        Assert.assertEquals("Bus is closed", sb.toString());
+        Assert.assertEquals(Integer.valueOf(1), b.get());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class AttributeSetTest {
+    @Test
+    public final void testEmpty() throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        AttributeSet.EMPTY.appendAttributes(XMLUtil.create(), sb);
+        Assert.assertEquals("", sb.toString());
+        Assert.assertTrue(AttributeSet.EMPTY.isEmpty());
+        Assert.assertNull(AttributeSet.EMPTY.get("a"));
+    }
+
+    @Test
+    public final void testWith() throws IOException {
+        final AttributeSet set = AttributeSet.EMPTY.with("a", "1").with("b", "2");
+        Assert.assertEquals(2, set.size());
+        Assert.assertEquals("1", set.get("a"));
+        final AttributeSet set2 = set.with("a", "3");
+        Assert.assertEquals("1", set.get("a"));
+        Assert.assertEquals("3", set2.get("a"));
+        Assert.assertSame(set2, set2.with("a", "3"));
+
+        final StringBuilder sb = new StringBuilder();
+        set2.appendAttributes(XMLUtil.create(), sb);
+        Assert.assertEquals(" a=\"3\" b=\"2\"", sb.toString());
+        Assert.assertEquals("AttributeSet[a=3, b=2]", set2.toString());
+    }
+
+    @Test
+    public final void testShared() {
+        final AttributeSet set1 = AttributeSet.EMPTY.with("a", "1");
+        final AttributeSet set2 = AttributeSet.EMPTY.with("a", new StringBuilder("1"));
+        Assert.assertSame(set1, set2);
+    }
+
+    @Test
+    public final void testEquals() {
+        final AttributeSet set1 = AttributeSet.EMPTY.with("x", "1").with("y", "2");
+        final AttributeSet set2 = AttributeSet.EMPTY.with("x", "0").with("y", "2").with("x", "1");
+        Assert.assertNotSame(set1, set2);
+        Assert.assertEquals(set1, set2);
+        Assert.assertEquals(set1.hashCode(), set2.hashCode());
+        Assert.assertNotEquals(set1, AttributeSet.EMPTY);
+        Assert.assertNotEquals(set1, new Object());
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+public class DateTimeUtilTest {
+    @Test
+    public final void testDateTime() {
+        Assert.assertEquals("2009-02-13T23:31:31.011Z",
+                DateTimeUtil.formatDateTime(1234567891011L));
+        Assert.assertEquals("1970-01-01T00:00:00.000Z", DateTimeUtil.formatDateTime(0L));
+        Assert.assertEquals("1969-12-31T23:59:59.999Z", DateTimeUtil.formatDateTime(-1L));
+        Assert.assertEquals("2000-02-29T12:00:00.000Z",
+                DateTimeUtil.formatDateTime(951825600000L));
+    }
+
+    @Test
+    public final void testDateAndTime() {
+        Assert.assertEquals("2009-02-13", DateTimeUtil.formatDate(1234567891011L));
+        Assert.assertEquals("23:31:31", DateTimeUtil.formatTime(1234567891011L));
+        Assert.assertEquals("1969-12-31", DateTimeUtil.formatDate(-1L));
+        Assert.assertEquals("23:59:59", DateTimeUtil.formatTime(-1L));
+    }
+
+    @Test
+    public final void testOutOfCache() {
+        Assert.assertEquals("1601-01-01T00:00:00.000Z",
+                DateTimeUtil.formatDateTime(-11644473600000L));
+        Assert.assertEquals("9999-12-31T23:59:59.999Z",
+                DateTimeUtil.formatDateTime(253402300799999L));
+        Assert.assertEquals("10000-01-01", DateTimeUtil.formatDate(253402300800000L));
+        Assert.assertEquals("0000-03-01", DateTimeUtil.computeDate(-719468));
+        Assert.assertEquals("-0001-12-31", DateTimeUtil.computeDate(-719529));
+    }
+
+    @Test
+    public final void testCompareToSimpleDateFormat() {
+        final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+        final GregorianCalendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        calendar.setGregorianChange(new Date(Long.MIN_VALUE)); // proleptic
+        format.setCalendar(calendar);
+
+        final Random random = new Random(123456789L);
+        for (int i = 0; i < 100000; i++) {
+            // 1600 .. 2400
+            final long epochMillis =
+                    -11676096000000L + (long) (random.nextDouble() * 25245000000000L);
+            Assert.assertEquals(format.format(new Date(epochMillis)),
+                    DateTimeUtil.formatDateTime(epochMillis));
+        }
+    }
+}
@@ -60,6 +60,21 @@ public class FastFullListTest {
         Assert.assertEquals(100, fl.usedSize());
     }
 
+    @Test
+    public final void testClear() {
+        final String be = "blank";
+        final FastFullList<String> fl =
+                FastFullList.<String>builder().blankElement(be).capacity(10).build();
+        fl.set(5, "non blank");
+        fl.clear();
+
+        Assert.assertEquals(0, fl.usedSize());
+        Assert.assertEquals(be, fl.get(5));
+        fl.set(2, "non blank");
+        Assert.assertEquals(3, fl.usedSize());
+        Assert.assertEquals(be, fl.get(1));
+    }
+
     @Test
     public final void testGet() {
         final FastFullList<String> fl = FastFullList.<String>builder().build();
@@ -27,6 +27,8 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
+
 public class FastOdsXMLEscaperTest {
     private XMLEscaper escaper;
 
@@ -167,6 +169,50 @@ public class FastOdsXMLEscaperTest {
         this.assertEqualsToContentEscaped("'abcde", "'abcde");
     }
 
+    @Test
+    public final void testCacheCounters() {
+        final FastOdsXMLEscaper cachedEscaper = new FastOdsXMLEscaper(124, 2, 5);
+        Assert.assertEquals("a&amp;b", cachedEscaper.escapeXMLAttribute("a&b"));
+        Assert.assertEquals("a&amp;b", cachedEscaper.escapeXMLAttribute("a&b"));
+        Assert.assertEquals(1, cachedEscaper.getCacheHitCount());
+        Assert.assertEquals(1, cachedEscaper.getCacheMissCount());
+        Assert.assertEquals(1, cachedEscaper.getCacheSize());
+
+        // nothing to escape or too long: not cached
+        Assert.assertEquals("abc", cachedEscaper.escapeXMLAttribute("abc"));
+        Assert.assertEquals("a&amp;bcdef", cachedEscaper.escapeXMLAttribute("a&bcdef"));
+        Assert.assertEquals(2, cachedEscaper.getCacheBypassCount());
+        Assert.assertEquals(1, cachedEscaper.getCacheMissCount());
+        Assert.assertEquals(1, cachedEscaper.getCacheSize());
+
+        // eviction
+        Assert.assertEquals("&lt;", cachedEscaper.escapeXMLAttribute("<"));
+        Assert.assertEquals("&gt;", cachedEscaper.escapeXMLAttribute(">"));
+        Assert.assertEquals(1, cachedEscaper.getCacheEvictionCount());
+        Assert.assertEquals(2, cachedEscaper.getCacheSize());
+
+        Assert.assertEquals("&lt;", cachedEscaper.escapeXMLContent("<"));
+        Assert.assertEquals(3, cachedEscaper.getCacheSize());
+    }
+
+    @Test
+    public final void testAppendEscaped() throws IOException {
+        final FastOdsXMLEscaper escaper = FastOdsXMLEscaper.create();
+        final StringBuilder sb = new StringBuilder();
+        escaper.appendEscapedAttribute(sb, "a'b\"c&d<e>f\ng");
+        Assert.assertEquals("a&apos;b&quot;c&amp;d&lt;e&gt;f&#xA;g", sb.toString());
+
+        sb.setLength(0);
+        escaper.appendEscapedContent(sb, new StringBuilder("'a'<\n>b"));
+        Assert.assertEquals("'a'&lt;\n&gt;b", sb.toString());
+
+        sb.setLength(0);
+        escaper.appendEscapedAttribute(sb, "safe");
+        escaper.appendEscapedContent(sb, "<");
+        escaper.appendEscapedContent(sb, null);
+        Assert.assertEquals("safe&lt;null", sb.toString());
+    }
+
     private void assertEqualsToAttrEscaped(final String expected, final String actualToEscape) {
         Assert.assertEquals(expected, this.escaper.escapeXMLAttribute(actualToEscape));
     }
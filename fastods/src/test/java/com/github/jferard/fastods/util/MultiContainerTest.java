@@ -89,6 +89,23 @@ public class MultiContainerTest {
                 this.container.getValues(Dest.STYLES_COMMON_STYLES).iterator().hasNext());
     }
 
+    @Test
+    public final void testModCount() {
+        final Integer one = 1;
+        Assert.assertTrue(this.container.add("a", Dest.CONTENT_AUTOMATIC_STYLES, one));
+        Assert.assertTrue(this.container.add("b", Dest.CONTENT_AUTOMATIC_STYLES, 2));
+        Assert.assertTrue(this.container.add("a", Dest.CONTENT_AUTOMATIC_STYLES, one));
+        Assert.assertEquals(0, this.container.getModCount());
+
+        Assert.assertTrue(this.container.add("a", Dest.STYLES_AUTOMATIC_STYLES, one));
+        Assert.assertEquals(1, this.container.getModCount());
+        Assert.assertTrue(this.container.add("a", Dest.STYLES_AUTOMATIC_STYLES, 3));
+        Assert.assertEquals(2, this.container.getModCount());
+        this.container.setMode(Container.Mode.CREATE);
+        Assert.assertEquals(3, this.container.getModCount());
+        Assert.assertEquals(Container.Mode.CREATE, this.container.getMode());
+    }
+
     @Test
     public final void testEmpty() {
         for (final Dest s : Dest.values()) {
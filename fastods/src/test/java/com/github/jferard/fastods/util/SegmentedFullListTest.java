@@ -0,0 +1,153 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+public class SegmentedFullListTest {
+    @Test
+    public final void testSetAndGet() {
+        final SegmentedFullList<String> fl = SegmentedFullList.newListWithCapacity(10);
+
+        Assert.assertEquals(0, fl.usedSize());
+        Assert.assertNull(fl.get(100));
+
+        fl.set(100000, "non blank");
+        Assert.assertEquals(100001, fl.usedSize());
+        Assert.assertEquals("non blank", fl.get(100000));
+        Assert.assertNull(fl.get(99999));
+        Assert.assertNull(fl.get(10));
+    }
+
+    @Test
+    public final void testRemoveTrail() {
+        final SegmentedFullList<String> fl = SegmentedFullList.newListWithCapacity(10);
+        fl.set(10, "10");
+        fl.set(5000, "5000");
+        fl.set(5000, null);
+        Assert.assertEquals(11, fl.usedSize());
+        fl.set(10, null);
+        Assert.assertEquals(0, fl.usedSize());
+    }
+
+    @Test
+    public final void testRelease() {
+        final SegmentedFullList<String> fl = SegmentedFullList.newListWithCapacity(10);
+        for (int i = 0; i < 3000; i++) {
+            fl.set(i, "v" + i);
+        }
+        fl.releaseBefore(2500);
+
+        Assert.assertTrue(fl.isReleased(2499));
+        Assert.assertFalse(fl.isReleased(2500));
+        Assert.assertNull(fl.get(10));
+        Assert.assertNull(fl.get(2499));
+        Assert.assertEquals("v2500", fl.get(2500));
+        Assert.assertEquals(3000, fl.usedSize());
+        fl.set(2499, null); // no-op
+        fl.set(2999, null);
+        Assert.assertEquals(2999, fl.usedSize());
+    }
+
+    @Test
+    public final void testReleaseAll() {
+        final SegmentedFullList<String> fl = SegmentedFullList.newListWithCapacity(10);
+        fl.set(10, "10");
+        fl.releaseBefore(20);
+        Assert.assertEquals(20, fl.usedSize());
+        fl.set(30, "30");
+        fl.set(30, null);
+        Assert.assertEquals(20, fl.usedSize());
+    }
+
+    @Test
+    public final void testReleasePastCapacity() {
+        final SegmentedFullList<String> fl = SegmentedFullList.newListWithCapacity(10, 2);
+        fl.set(1, "1");
+        fl.releaseBefore(100);
+        Assert.assertEquals(100, fl.usedSize());
+        Assert.assertNull(fl.get(99));
+        Assert.assertNull(fl.get(100));
+        Assert.assertEquals(100, fl.nextIndex(0));
+        fl.set(101, "101");
+        Assert.assertEquals(101, fl.nextIndex(0));
+        Assert.assertEquals("101", fl.get(101));
+        fl.set(101, null);
+        Assert.assertEquals(100, fl.usedSize());
+        fl.set(102, "102");
+        fl.clear();
+        Assert.assertEquals(100, fl.usedSize());
+        Assert.assertNull(fl.get(102));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public final void testSetReleased() {
+        final SegmentedFullList<String> fl = SegmentedFullList.newListWithCapacity(10);
+        fl.releaseBefore(2000);
+        fl.set(1999, "v");
+    }
+
+    @Test
+    public final void testSubList() {
+        final SegmentedFullList<String> fl = SegmentedFullList.newListWithCapacity(10);
+        fl.set(1023, "a");
+        fl.set(1024, "b");
+        final List<String> l = fl.subList(1023, 1026);
+        Assert.assertEquals(3, l.size());
+        Assert.assertEquals("a", l.get(0));
+        Assert.assertEquals("b", l.get(1));
+        Assert.assertNull(l.get(2));
+
+        Collections.fill(l, null);
+        Assert.assertEquals(0, fl.usedSize());
+    }
+
+    @Test
+    public final void testNextIndex() {
+        final SegmentedFullList<String> fl = SegmentedFullList.newListWithCapacity(10, 2);
+        fl.set(1, "a");
+        fl.set(1000000, "b");
+        Assert.assertEquals(1, fl.nextIndex(0));
+        Assert.assertEquals(1000000, fl.nextIndex(2));
+        Assert.assertEquals(1000001, fl.nextIndex(1000001));
+    }
+
+    @Test
+    public final void testClear() {
+        final SegmentedFullList<String> fl = SegmentedFullList.newListWithCapacity(10, 2);
+        fl.set(1, "a");
+        fl.set(9, "b");
+        fl.clear();
+        Assert.assertEquals(0, fl.usedSize());
+        Assert.assertNull(fl.get(1));
+        fl.set(2, "c");
+        Assert.assertEquals(3, fl.usedSize());
+        Assert.assertNull(fl.get(9));
+    }
+}
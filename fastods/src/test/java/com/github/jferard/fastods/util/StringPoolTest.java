@@ -0,0 +1,74 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StringPoolTest {
+    @Test(expected = IllegalArgumentException.class)
+    public final void testNegativeCapacity() {
+        StringPool.create(-1);
+    }
+
+    @Test
+    public final void testAdmission() {
+        final StringPool pool = StringPool.create(8);
+        final String s1 = new String("OPEN");
+        final String s2 = new String("OPEN");
+        final String s3 = new String("OPEN");
+        Assert.assertSame(s1, pool.intern(s1));
+        Assert.assertEquals(0, pool.size());
+        Assert.assertSame(s2, pool.intern(s2)); // admitted
+        Assert.assertEquals(1, pool.size());
+        Assert.assertSame(s2, pool.intern(s3));
+        Assert.assertNull(pool.intern(null));
+    }
+
+    @Test
+    public final void testFrequentStringStays() {
+        final StringPool pool = StringPool.create(1);
+        for (int i = 0; i < 10; i++) {
+            pool.intern(new String("frequent"));
+        }
+        final String pooled = pool.intern(new String("frequent"));
+        pool.intern(new String("rare"));
+        pool.intern(new String("rare"));
+        Assert.assertSame(pooled, pool.intern(new String("frequent")));
+    }
+
+    @Test
+    public final void testEscape() {
+        final XMLUtil util = XMLUtil.create();
+        final StringPool pool = StringPool.create();
+        final String s = new String("a<b");
+        pool.intern(new String("a<b"));
+        final String pooled = pool.intern(s);
+        Assert.assertEquals("a&lt;b", pool.escapeXMLAttribute(util, pooled));
+        Assert.assertSame(pool.escapeXMLAttribute(util, pooled),
+                pool.escapeXMLAttribute(util, pooled));
+        Assert.assertEquals("c&amp;d", pool.escapeXMLAttribute(util, "c&d"));
+    }
+}
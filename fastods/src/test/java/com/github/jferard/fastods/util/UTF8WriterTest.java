@@ -0,0 +1,90 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2021 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class UTF8WriterTest {
+    private static final String TEXT = "<a b=\"é\">€ 😀 z</a>";
+
+    @Test
+    public final void testAppend() throws IOException {
+        for (final int size : new int[]{1, 16, 17, 1024}) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final UTF8Writer writer = new UTF8Writer(out, size);
+            writer.append(new StringBuilder(TEXT)).append(TEXT, 1, 3).append('!');
+            writer.close();
+            Assert.assertArrayEquals((TEXT + "a " + "!").getBytes(CharsetUtil.UTF_8),
+                    out.toByteArray());
+        }
+    }
+
+    @Test
+    public final void testWriteCharsOneByOne() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final UTF8Writer writer = new UTF8Writer(out, 16);
+        for (final char c : TEXT.toCharArray()) {
+            writer.write(new char[]{'x', c}, 1, 1);
+        }
+        writer.flush();
+        Assert.assertArrayEquals(TEXT.getBytes(CharsetUtil.UTF_8), out.toByteArray());
+    }
+
+    @Test
+    public final void testLongAsciiRun() throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("<c>").append(i % 10);
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final UTF8Writer writer = new UTF8Writer(out, 100);
+        writer.write(sb.toString());
+        writer.write(sb.toString().toCharArray());
+        writer.flush();
+        Assert.assertEquals(sb.toString() + sb, new String(out.toByteArray(), CharsetUtil.UTF_8));
+    }
+
+    @Test
+    public final void testUnpairedSurrogates() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final UTF8Writer writer = new UTF8Writer(out, 16);
+        writer.append("a\uD83Db\uDE00c\uD83D");
+        writer.close();
+        Assert.assertEquals("a?b?c?", new String(out.toByteArray(), CharsetUtil.UTF_8));
+    }
+
+    @Test
+    public final void testNull() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final UTF8Writer writer = new UTF8Writer(out, 16);
+        writer.append(null).append(null, 1, 3);
+        writer.flush();
+        Assert.assertEquals("nullul", new String(out.toByteArray(), CharsetUtil.UTF_8));
+    }
+}
@@ -64,6 +64,44 @@ public class XMLUtilTest {
         Assert.assertEquals(" attr=\"&amp;\"", this.sb.toString());
     }
 
+    @Test
+    public void testAppendEscapedCustomEscaper() throws IOException {
+        final XMLUtil util = new XMLUtil(new XMLEscaper() {
+            @Override
+            public String escapeXMLAttribute(final String s) {
+                return "[" + s + "]";
+            }
+
+            @Override
+            public String escapeXMLContent(final String s) {
+                return "(" + s + ")";
+            }
+        });
+        util.appendEscapedAttribute(this.sb, new StringBuilder("a"));
+        util.appendEscapedContent(this.sb, "b");
+        util.appendEscapedContent(this.sb, null);
+        util.appendEAttribute(this.sb, "attr", "c");
+        Assert.assertEquals("[a](b)null attr=\"[c]\"", this.sb.toString());
+    }
+
+    @Test
+    public void testAppendEscapedFastOdsEscaperSubclass() throws IOException {
+        final XMLUtil util = new XMLUtil(new FastOdsXMLEscaper(16) {
+            @Override
+            public String escapeXMLAttribute(final String s) {
+                return "[" + s + "]";
+            }
+
+            @Override
+            public String escapeXMLContent(final String s) {
+                return "(" + s + ")";
+            }
+        });
+        util.appendEscapedAttribute(this.sb, "a&");
+        util.appendEscapedContent(this.sb, new StringBuilder("b<"));
+        Assert.assertEquals("[a&](b<)", this.sb.toString());
+    }
+
     @Test
     public void testEscapeAttr() {
         Assert.assertEquals("j&amp;v", this.xu.escapeXMLAttribute("j&v"));